@@ -0,0 +1,92 @@
+package com.sgt.fitapi.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import com.sgt.fitapi.filter.RequestLoggingFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of access logging on the request thread. The access logger is pointed at a no-op
+// appender, so "filter*" measure id generation, timing, sampling, record building and logging-event
+// creation around an empty chain; console I/O happens on the async appender's thread in production.
+// legacyRecord is the previous UUID + currentTimeMillis + SLF4J-formatted line.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    private static final FilterChain EMPTY_CHAIN = (request, response) -> { };
+
+    private RequestLoggingFilter unsampled;
+    private RequestLoggingFilter sampled;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        NOPAppender<ILoggingEvent> discard = new NOPAppender<>();
+        discard.setContext(context);
+        discard.start();
+        Logger accessLogger = context.getLogger("com.sgt.fitapi.access");
+        accessLogger.setLevel(Level.INFO);
+        accessLogger.setAdditive(false);
+        accessLogger.addAppender(discard);
+
+        unsampled = new RequestLoggingFilter(1.0, Duration.ofMillis(500));
+        sampled = new RequestLoggingFilter(0.1, Duration.ofMillis(500));
+        request = new MockHttpServletRequest("GET", "/workouts/12345/full");
+    }
+
+    @Benchmark
+    public String legacyRecord() {
+        String requestId = UUID.randomUUID().toString();
+        long start = System.currentTimeMillis();
+        long durationMs = System.currentTimeMillis() - start;
+        return MessageFormatter.arrayFormat("requestId={} method={} path={} status={} durationMs={}",
+                new Object[]{requestId, "GET", "/workouts/12345/full", 200, durationMs}).getMessage();
+    }
+
+    @Benchmark
+    public String jsonRecord() {
+        long start = System.nanoTime();
+        return RequestLoggingFilter.accessRecord(RequestLoggingFilter.newRequestId(), "GET", "/workouts/12345/full",
+                200, System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterEveryRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        unsampled.doFilter(request, response, EMPTY_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterSampledTenPercent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sampled.doFilter(request, response, EMPTY_CHAIN);
+        return response;
+    }
+}
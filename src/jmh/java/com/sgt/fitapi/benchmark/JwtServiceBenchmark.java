@@ -0,0 +1,97 @@
+package com.sgt.fitapi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.security.JwtClaims;
+import com.sgt.fitapi.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of authenticating a bearer token: the previous split/HMAC/Map path
+// (run twice, as extractUsername + isTokenValid did) against JwtService.verify.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-with-production-like-length-0123456789";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final User user = new User("jane.doe+training@example.com", "hashed-password", "Jane Doe");
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedService = new JwtService(SECRET, 3_600_000, 10_000, objectMapper, new SimpleMeterRegistry());
+        uncachedService = new JwtService(SECRET, 3_600_000, 0, objectMapper, new SimpleMeterRegistry());
+        token = cachedService.generateToken(user);
+        cachedService.verify(token);
+    }
+
+    @Benchmark
+    public boolean legacyExtractAndValidate() throws Exception {
+        Map<String, Object> claims = legacyParsePayload(token);
+        String username = claims.get("sub").toString();
+        Map<String, Object> again = legacyParsePayload(token);
+        Object exp = again.get("exp");
+        return username.equals(user.getUsername())
+                && ((Number) exp).longValue() >= Instant.now().getEpochSecond();
+    }
+
+    @Benchmark
+    public JwtClaims verifyUncached() {
+        return uncachedService.verify(token);
+    }
+
+    @Benchmark
+    public JwtClaims verifyCached() {
+        return cachedService.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedService.generateToken(user);
+    }
+
+    // Copy of the pre-verify() parsing path, kept here as the baseline.
+    private Map<String, Object> legacyParsePayload(String jwt) throws Exception {
+        String[] parts = jwt.split("\\.");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid JWT format");
+        }
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] expectedSig = mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.UTF_8));
+        byte[] actualSig = Base64.getUrlDecoder().decode(parts[2]);
+        if (!java.security.MessageDigest.isEqual(expectedSig, actualSig)) {
+            throw new IllegalArgumentException("Invalid JWT signature");
+        }
+
+        return objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), new TypeReference<>() {});
+    }
+}
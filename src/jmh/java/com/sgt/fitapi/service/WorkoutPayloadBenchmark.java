@@ -0,0 +1,111 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.dto.workout.WorkoutFullView;
+import com.sgt.fitapi.dto.workout.WorkoutSetView;
+import com.sgt.fitapi.mapper.WorkoutMapper;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+// CPU cost of building a workout response once the rows are loaded, by session size:
+// entity -> view mapping (GET /workouts/{id}/full), the per-exercise aggregation behind the
+// materialised summary, and Jackson serialisation of the resulting WorkoutFullView.
+// Lives in the service package so it can call the package-private WorkoutSummaryService.aggregate.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutPayloadBenchmark {
+
+    private static final int EXERCISES = 12;
+
+    @Param({"10", "100", "1000"})
+    public int sets;
+
+    // Configured like the application's mapper (spring.jackson.time-zone: UTC, ISO dates)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .timeZone(TimeZone.getTimeZone("UTC"))
+            .build();
+
+    private WorkoutSession session;
+    private List<WorkoutSet> workoutSets;
+    private WorkoutFullView fullView;
+
+    @Setup
+    public void setUp() {
+        session = new WorkoutSession(42L, Instant.parse("2025-01-06T07:30:00Z"), "Europe/London", "Upper body");
+        session.setEndedAt(Instant.parse("2025-01-06T08:45:00Z"));
+        ReflectionTestUtils.setField(session, "id", 1001L);
+
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0; i < EXERCISES; i++) {
+            Exercise exercise = new Exercise("Exercise " + i, "Chest", "Barbell", false, "Push");
+            ReflectionTestUtils.setField(exercise, "id", (long) i + 1);
+            exercises.add(exercise);
+        }
+
+        workoutSets = new ArrayList<>(sets);
+        for (int i = 0; i < sets; i++) {
+            WorkoutSet set = new WorkoutSet();
+            set.setWorkoutSession(session);
+            set.setExercise(exercises.get(i % EXERCISES));
+            set.setSetNumber(i / EXERCISES + 1);
+            set.setReps(5 + i % 8);
+            set.setWeight(40.0 + (i % 20) * 2.5);
+            set.setRpe(i % 3 == 0 ? 8.5 : null);
+            set.setRestSeconds(90);
+            set.setNotes(i % 10 == 0 ? "Paused rep" : null);
+            ReflectionTestUtils.setField(set, "id", (long) i + 1);
+            workoutSets.add(set);
+        }
+
+        fullView = toFullView();
+    }
+
+    @Benchmark
+    public WorkoutFullView mapToFullView() {
+        return toFullView();
+    }
+
+    @Benchmark
+    public Map<Long, ExerciseVolumeView> aggregateSummary() {
+        return WorkoutSummaryService.aggregate(workoutSets);
+    }
+
+    @Benchmark
+    public byte[] serialiseFullView() throws Exception {
+        return objectMapper.writeValueAsBytes(fullView);
+    }
+
+    private WorkoutFullView toFullView() {
+        List<WorkoutSetView> views = new ArrayList<>(workoutSets.size());
+        for (WorkoutSet set : workoutSets) {
+            views.add(WorkoutMapper.toSetView(set));
+        }
+        return WorkoutMapper.toFullView(session, views);
+    }
+}
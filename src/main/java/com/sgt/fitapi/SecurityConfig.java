@@ -1,7 +1,10 @@
 package com.sgt.fitapi;
 
 import com.sgt.fitapi.repository.UserRepository;
+import com.sgt.fitapi.security.ApiRateLimitFilter;
 import com.sgt.fitapi.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -37,7 +40,8 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
-            JwtAuthenticationFilter jwtAuthenticationFilter // 🔹 method injection, no cycle
+            JwtAuthenticationFilter jwtAuthenticationFilter, // 🔹 method injection, no cycle
+            ApiRateLimitFilter apiRateLimitFilter
     ) throws Exception {
 
         http
@@ -48,6 +52,10 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatches (streamed exports, async logins) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Probes and the Prometheus scraper; served on management.server.port, not the API port
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers(
                                 "/h2-console/**",
                                 "/swagger-ui.html",
@@ -60,7 +68,9 @@ public class SecurityConfig {
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Needs the authenticated user, so it runs after the JWT filter
+                .addFilterAfter(apiRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
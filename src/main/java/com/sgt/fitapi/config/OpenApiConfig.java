@@ -1,9 +1,12 @@
 package com.sgt.fitapi.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import com.sgt.fitapi.controller.AnalyticsController;
 import com.sgt.fitapi.controller.AuthController;
 import com.sgt.fitapi.controller.ExerciseController;
 import com.sgt.fitapi.controller.HelloController;
+import com.sgt.fitapi.controller.RecordsController;
+import com.sgt.fitapi.controller.WorkoutImportController;
 import com.sgt.fitapi.controller.WorkoutSessionController;
 import com.sgt.fitapi.controller.WorkoutSetController;
 import io.swagger.v3.oas.models.Components;
@@ -79,7 +82,13 @@ public class OpenApiConfig {
                                 .description("Manage individual workout sets for sessions owned by the authenticated user."),
                         new Tag()
                                 .name("Exercises")
-                                .description("Read-only exercise catalog endpoints for the authenticated user."),
+                                .description("Read-only exercise catalog endpoints and per-exercise progress for the authenticated user."),
+                        new Tag()
+                                .name("Analytics")
+                                .description("Training trends aggregated across the authenticated user's sessions."),
+                        new Tag()
+                                .name("Records")
+                                .description("Personal records per exercise for the authenticated user."),
                         new Tag()
                                 .name("Public")
                                 .description("Public endpoints that do not require authentication.")
@@ -113,6 +122,7 @@ public class OpenApiConfig {
                         addErrorIfMissing(responses, "401", "Unauthorized");
                         addErrorIfMissing(responses, "403", "Forbidden");
                         addErrorIfMissing(responses, "404", "Not found");
+                        addErrorIfMissing(responses, "429", "Per-user rate limit exceeded; see Retry-After");
                     })
             );
         };
@@ -131,7 +141,8 @@ public class OpenApiConfig {
 
     private String tagForController(HandlerMethod handlerMethod) {
         Class<?> beanType = handlerMethod.getBeanType();
-        if (WorkoutSessionController.class.isAssignableFrom(beanType)) {
+        if (WorkoutSessionController.class.isAssignableFrom(beanType)
+                || WorkoutImportController.class.isAssignableFrom(beanType)) {
             return "Workouts";
         }
         if (WorkoutSetController.class.isAssignableFrom(beanType)) {
@@ -140,6 +151,12 @@ public class OpenApiConfig {
         if (ExerciseController.class.isAssignableFrom(beanType)) {
             return "Exercises";
         }
+        if (AnalyticsController.class.isAssignableFrom(beanType)) {
+            return "Analytics";
+        }
+        if (RecordsController.class.isAssignableFrom(beanType)) {
+            return "Records";
+        }
         if (AuthController.class.isAssignableFrom(beanType)) {
             return "Authentication";
         }
@@ -0,0 +1,75 @@
+package com.sgt.fitapi.controller;
+
+import com.sgt.fitapi.dto.analytics.VolumeAnalyticsView;
+import com.sgt.fitapi.service.AnalyticsBucket;
+import com.sgt.fitapi.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    // Ten years of weekly buckets is ~520 entries
+    static final long MAX_RANGE_DAYS = 3_660;
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // GET /analytics/volume?from=&to=&bucket=week|month&exerciseId=
+    @GetMapping("/volume")
+    @Operation(
+            summary = "Training volume over time",
+            description = "Returns volume (reps x weight), set counts and session counts per week or month between " +
+                    "from and to (inclusive local dates), with a per-exercise breakdown in each bucket. Sessions are " +
+                    "bucketed by their local date in their own timezone. Optionally restricted to one exercise."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public VolumeAnalyticsView volume(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "week") String bucket,
+            @RequestParam(required = false) Long exerciseId,
+            @AuthenticationPrincipal com.sgt.fitapi.model.User user
+    ) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must be on or after from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        AnalyticsBucket size;
+        try {
+            size = AnalyticsBucket.parse(bucket);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        return analyticsService.volume(user.getId(), from, to, size, exerciseId);
+    }
+}
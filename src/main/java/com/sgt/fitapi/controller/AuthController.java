@@ -7,6 +7,7 @@ import com.sgt.fitapi.model.User;
 import com.sgt.fitapi.repository.UserRepository;
 import com.sgt.fitapi.security.LoginRateLimiter;
 import com.sgt.fitapi.security.JwtService;
+import com.sgt.fitapi.security.PasswordHashingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -15,29 +16,41 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
     private final JwtService jwtService;
     private final LoginRateLimiter loginRateLimiter;
+    // Finishes logins and registrations after BCrypt (user insert, attempt store, token signing) so
+    // database latency never holds a hashing thread; the same executor MVC uses for async requests
+    private final AsyncTaskExecutor completionExecutor;
 
     public AuthController(UserRepository userRepository,
-                          PasswordEncoder passwordEncoder,
+                          PasswordHashingService passwordHashing,
                           JwtService jwtService,
-                          LoginRateLimiter loginRateLimiter) {
+                          LoginRateLimiter loginRateLimiter,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                          AsyncTaskExecutor completionExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
         this.jwtService = jwtService;
         this.loginRateLimiter = loginRateLimiter;
+        this.completionExecutor = completionExecutor;
     }
 
     @PostMapping("/register")
@@ -87,32 +100,44 @@ public class AuthController {
                                     value = "{\n  \"message\": \"Email already in use\"\n}"
                             )
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing is saturated; retry after the number of seconds in Retry-After",
+                    content = @Content(schema = @Schema(implementation = AuthResponse.class))
             )
     })
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
         // basic uniqueness check
         if (userRepository.existsByEmail(request.email)) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .status(HttpStatus.CONFLICT)
-                    .body(new AuthResponse("Email already in use"));
+                    .body(new AuthResponse("Email already in use")));
         }
 
-        // hash the password before saving
-        String hashedPassword = passwordEncoder.encode(request.password);
+        // hash the password before saving; the request thread is released while BCrypt runs
+        CompletableFuture<String> hashedPassword;
+        try {
+            hashedPassword = passwordHashing.encode(request.password);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
 
-        User user = new User(
-                request.email,
-                hashedPassword,
-                request.displayName
-        );
+        return hashedPassword.thenApplyAsync(hash -> {
+            User user = new User(
+                    request.email,
+                    hash,
+                    request.displayName
+            );
 
-        userRepository.save(user);
+            userRepository.save(user);
 
-        String token = jwtService.generateToken(user);
+            String token = jwtService.generateToken(user);
 
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(new AuthResponse("User registered successfully", token));
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(new AuthResponse("User registered successfully", token));
+        }, completionExecutor);
     }
 
     @PostMapping("/login")
@@ -162,9 +187,14 @@ public class AuthController {
                                     value = "{\n  \"message\": \"Invalid email or password\"\n}"
                             )
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing is saturated; retry after the number of seconds in Retry-After",
+                    content = @Content(schema = @Schema(implementation = AuthResponse.class))
             )
     })
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
         String key = request.email.toLowerCase();
         loginRateLimiter.throwIfBlocked(key);
 
@@ -175,28 +205,40 @@ public class AuthController {
         if (user == null) {
             loginRateLimiter.onFailure(key);
             // don't reveal whether email exists; generic error
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
-                    .body(new AuthResponse("Invalid email or password"));
+                    .body(new AuthResponse("Invalid email or password")));
         }
 
-        // check password using PasswordEncoder
-        boolean passwordMatches = passwordEncoder.matches(
-                request.password,
-                user.getPassword()
-        );
-
-        if (!passwordMatches) {
-            loginRateLimiter.onFailure(key);
-            return ResponseEntity
-                    .status(HttpStatus.UNAUTHORIZED)
-                    .body(new AuthResponse("Invalid email or password"));
+        // check password on the hashing pool; the request thread is released while BCrypt runs
+        CompletableFuture<Boolean> passwordMatches;
+        try {
+            passwordMatches = passwordHashing.matches(request.password, user.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
         }
 
-        loginRateLimiter.onSuccess(key);
-        String token = jwtService.generateToken(user);
+        return passwordMatches.thenApplyAsync(matches -> {
+            if (!matches) {
+                loginRateLimiter.onFailure(key);
+                return ResponseEntity
+                        .status(HttpStatus.UNAUTHORIZED)
+                        .body(new AuthResponse("Invalid email or password"));
+            }
+
+            loginRateLimiter.onSuccess(key);
+            String token = jwtService.generateToken(user);
 
-        return ResponseEntity.ok(new AuthResponse("Login successful", token));
+            return ResponseEntity.ok(new AuthResponse("Login successful", token));
+        }, completionExecutor);
+    }
+
+    // Returned directly rather than thrown: error dispatches aren't permitted for anonymous callers
+    private ResponseEntity<AuthResponse> hashingBusy() {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, passwordHashing.retryAfter().toSeconds())))
+                .body(new AuthResponse("Too many sign-ins in progress, retry later"));
     }
 
     // optional sanity check endpoint
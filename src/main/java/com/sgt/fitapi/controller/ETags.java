@@ -0,0 +1,76 @@
+package com.sgt.fitapi.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Strong entity tags for workout sessions: "<id>-<version>". Any write to a session or its sets bumps the version,
+// so the same tag stands for the session, its full view and its summary, and is what PUT/DELETE check If-Match against.
+// A set has its own tag, "set-<id>-<version>", from its own version.
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String forSession(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String forSet(Long id, long version) {
+        return "\"set-" + id + "-" + version + "\"";
+    }
+
+    // If-None-Match uses weak comparison (RFC 9110 13.1.2): W/ prefixes are ignored, "*" matches anything
+    static boolean noneMatchHits(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Match uses strong comparison (RFC 9110 13.1.1): weak tags never match, "*" matches any current version
+    static boolean matchHits(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ===== conditional responses =====
+    // The version is read before the body, so a concurrent write can only make the ETag older than the body
+    // (costing the client one extra 200 later), never newer.
+
+    // no-cache lets clients and caches keep the body as long as they revalidate it
+    static ResponseEntity.BodyBuilder withETag(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+    }
+
+    // Returned directly rather than thrown, so the status reaches the client as-is
+    static <T> ResponseEntity<T> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+}
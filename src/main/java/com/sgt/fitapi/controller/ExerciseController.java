@@ -1,33 +1,54 @@
 package com.sgt.fitapi.controller;
 
+import com.sgt.fitapi.dto.analytics.ExerciseProgressView;
 import com.sgt.fitapi.model.Exercise;
-import com.sgt.fitapi.repository.ExerciseRepository;
-import com.sgt.fitapi.repository.ExerciseSpecs;
+import com.sgt.fitapi.service.ExerciseCatalog;
+import com.sgt.fitapi.service.ExerciseProgressService;
+import com.sgt.fitapi.service.ExerciseSearchService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/exercises")
 public class ExerciseController {
 
-    private final ExerciseRepository repo;
+    private static final int MAX_SIMILARITY_RESULTS = 100;
+    // LTTB needs the first, last and at least one point in between
+    private static final int MIN_PROGRESS_POINTS = 3;
+    private static final int MAX_PROGRESS_POINTS = 2_000;
 
-    public ExerciseController(ExerciseRepository repo) {
-        this.repo = repo;
+    // Exercises change rarely; reads are served from the in-memory catalogue
+    private final ExerciseCatalog catalog;
+    private final ExerciseSearchService searchService;
+    private final ExerciseProgressService progressService;
+
+    public ExerciseController(ExerciseCatalog catalog,
+                              ExerciseSearchService searchService,
+                              ExerciseProgressService progressService) {
+        this.catalog = catalog;
+        this.searchService = searchService;
+        this.progressService = progressService;
     }
 
-    // GET /exercises?search=&muscleGroup=&equipment=&isIsometric=
+    // GET /exercises?search=&muscleGroup=&equipment=&isIsometric=[&mode=similarity&limit=]
     @GetMapping
     @Operation(
             summary = "List exercises",
-            description = "Returns exercises filtered by optional search, muscle group, equipment, or isometric flag."
+            description = "Returns exercises filtered by optional search, muscle group, equipment, or isometric flag. " +
+                    "mode=contains (default) returns every name containing the search term in ID order; " +
+                    "mode=similarity tolerates typos and returns up to limit results ranked by trigram similarity."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK")
@@ -36,16 +57,27 @@ public class ExerciseController {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String muscleGroup,
             @RequestParam(required = false) String equipment,
-            @RequestParam(required = false) Boolean isIsometric
+            @RequestParam(required = false) Boolean isIsometric,
+            @RequestParam(defaultValue = "contains") String mode,
+            @RequestParam(defaultValue = "20") int limit
     ) {
-        var spec = Specification.allOf(
-                ExerciseSpecs.nameContains(search),
-                ExerciseSpecs.muscleGroupEquals(muscleGroup),
-                ExerciseSpecs.equipmentEquals(equipment),
-                ExerciseSpecs.isIsometricEquals(isIsometric)
-        );
+        if ("contains".equalsIgnoreCase(mode)) {
+            return catalog.search(search, muscleGroup, equipment, isIsometric);
+        }
+        if (!"similarity".equalsIgnoreCase(mode)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode must be 'contains' or 'similarity'");
+        }
 
-        return repo.findAll(spec);
+        if (search == null || search.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "search is required when mode=similarity");
+        }
+        if (limit < 1 || limit > MAX_SIMILARITY_RESULTS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_SIMILARITY_RESULTS
+            );
+        }
+        return searchService.searchBySimilarity(search, muscleGroup, equipment, isIsometric, limit);
     }
 
     // GET /exercises/{id}
@@ -58,8 +90,50 @@ public class ExerciseController {
             @ApiResponse(responseCode = "200", description = "OK")
     })
     public ResponseEntity<Exercise> get(@PathVariable Long id) {
-        return repo.findById(id)
+        return catalog.findById(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
+
+    // GET /exercises/{id}/progress?from=&to=&maxPoints=
+    @GetMapping("/{id}/progress")
+    @Operation(
+            summary = "Progress on an exercise over time",
+            description = "Returns one point per session of the authenticated user that included the exercise, with " +
+                    "the top set, volume and estimated one-rep max. from and to are optional inclusive local dates. " +
+                    "Longer histories are downsampled to maxPoints with Largest-Triangle-Three-Buckets on the " +
+                    "estimated one-rep max, which keeps the first and last session and the peaks."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public ExerciseProgressView progress(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "250") int maxPoints,
+            @AuthenticationPrincipal com.sgt.fitapi.model.User user
+    ) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must be on or after from");
+        }
+        if (maxPoints < MIN_PROGRESS_POINTS || maxPoints > MAX_PROGRESS_POINTS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "maxPoints must be between " + MIN_PROGRESS_POINTS + " and " + MAX_PROGRESS_POINTS
+            );
+        }
+        Exercise exercise = catalog.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Exercise not found"));
+
+        return progressService.progress(user.getId(), exercise, from, to, maxPoints);
+    }
 }
@@ -0,0 +1,68 @@
+package com.sgt.fitapi.controller;
+
+import com.sgt.fitapi.dto.records.ExerciseRecordsView;
+import com.sgt.fitapi.dto.records.PersonalRecordView;
+import com.sgt.fitapi.service.ExerciseCatalog;
+import com.sgt.fitapi.service.PersonalRecordService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+public class RecordsController {
+
+    private final PersonalRecordService recordService;
+    private final ExerciseCatalog catalog;
+
+    public RecordsController(PersonalRecordService recordService, ExerciseCatalog catalog) {
+        this.recordService = recordService;
+        this.catalog = catalog;
+    }
+
+    // GET /records
+    @GetMapping("/records")
+    @Operation(
+            summary = "Personal records",
+            description = "Returns the heaviest set and the best estimated one-rep max for every exercise the " +
+                    "authenticated user has logged, ordered by exercise name. Ties go to the earliest set."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    public List<PersonalRecordView> list(@AuthenticationPrincipal com.sgt.fitapi.model.User user) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        return recordService.records(user.getId());
+    }
+
+    // GET /exercises/{id}/records
+    @GetMapping("/exercises/{id}/records")
+    @Operation(
+            summary = "Personal records for an exercise",
+            description = "Returns the heaviest set, the best estimated one-rep max and the most reps done at each " +
+                    "weight for one exercise. Records are null (and repRecords empty) if the exercise was never " +
+                    "logged; 404 if the exercise does not exist."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    public ExerciseRecordsView forExercise(@PathVariable Long id,
+                                           @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        if (catalog.findById(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exercise not found");
+        }
+        return recordService.exerciseRecords(user.getId(), id);
+    }
+}
@@ -0,0 +1,119 @@
+package com.sgt.fitapi.controller;
+
+import com.sgt.fitapi.dto.workout.WorkoutImportStatus;
+import com.sgt.fitapi.service.WorkoutImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/workouts/import")
+public class WorkoutImportController {
+
+    private final WorkoutImportService importService;
+
+    public WorkoutImportController(WorkoutImportService importService) {
+        this.importService = importService;
+    }
+
+    // POST /workouts/import?format=ndjson|csv
+    // Form-encoded bodies are excluded: the container would consume them while parsing request parameters
+    @PostMapping(consumes = {"application/x-ndjson", "application/json", "text/csv", "text/plain", "application/octet-stream"})
+    @Operation(
+            summary = "Import training history",
+            description = "Accepts the same ndjson (default) or csv layout GET /workouts/export produces. " +
+                    "The body is parsed as it arrives and written in batches; sets may name their exercise by " +
+                    "exerciseId or exerciseName. Invalid rows are skipped and reported in the job status. " +
+                    "Send the file as the raw body (e.g. Content-Type application/x-ndjson or text/csv). " +
+                    "Returns 202 once the upload has been read; poll the Location for completion."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Accepted"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many imports in progress; see Retry-After",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public ResponseEntity<?> importHistory(@RequestParam(defaultValue = "ndjson") String format,
+                                           HttpServletRequest request,
+                                           @AuthenticationPrincipal com.sgt.fitapi.model.User user)
+            throws IOException {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        if (!"ndjson".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be 'ndjson' or 'csv'");
+        }
+
+        // Read straight from the request stream so the upload is never buffered whole
+        WorkoutImportStatus status;
+        try {
+            status = importService.importHistory(user.getId(), format, request.getInputStream());
+        } catch (RejectedExecutionException e) {
+            return importsBusy(request);
+        }
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/workouts/import/" + status.jobId))
+                .body(status);
+    }
+
+    // Returned directly rather than thrown: the error dispatch loses the authenticated context
+    private static ResponseEntity<Map<String, Object>> importsBusy(HttpServletRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        body.put("message", "Too many imports in progress, retry later");
+        body.put("path", request.getRequestURI());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(WorkoutImportService.RETRY_AFTER.toSeconds()))
+                .body(body);
+    }
+
+    // GET /workouts/import/{jobId}
+    @GetMapping("/{jobId}")
+    @Operation(
+            summary = "Get import progress",
+            description = "Returns progress counters and the first reported row failures of an import started by the authenticated user."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Import not found",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public WorkoutImportStatus getStatus(@PathVariable String jobId,
+                                         @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        return importService.getStatus(jobId, user.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found"));
+    }
+}
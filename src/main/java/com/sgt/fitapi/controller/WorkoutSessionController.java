@@ -9,44 +9,66 @@ import com.sgt.fitapi.repository.ExerciseRepository;
 import com.sgt.fitapi.repository.WorkoutSessionRepository;
 import com.sgt.fitapi.repository.WorkoutSessionSpecs;
 import com.sgt.fitapi.repository.WorkoutSetRepository;
+import com.sgt.fitapi.service.WorkoutExportService;
 import com.sgt.fitapi.service.WorkoutSummaryService;
+import com.sgt.fitapi.service.WorkoutWriteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.*;
 
 @RestController
 @RequestMapping("/workouts")
 public class WorkoutSessionController {
 
+    // Upper bound for POST /workouts/{id}/sets:batch; a full workout is typically 20-40 sets
+    static final int MAX_BATCH_SETS = 200;
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final WorkoutSessionRepository sessionRepo;
     private final WorkoutSetRepository workoutSetRepo;
     private final ExerciseRepository exerciseRepo;
     private final WorkoutSummaryService summaryService;
+    private final WorkoutWriteService writeService;
+    private final WorkoutExportService exportService;
+    private final Validator validator;
 
     public WorkoutSessionController(WorkoutSessionRepository sessionRepo,
                                     WorkoutSetRepository workoutSetRepo,
                                     ExerciseRepository exerciseRepo,
-                                    WorkoutSummaryService summaryService) {
+                                    WorkoutSummaryService summaryService,
+                                    WorkoutWriteService writeService,
+                                    WorkoutExportService exportService,
+                                    Validator validator) {
         this.sessionRepo = sessionRepo;
         this.workoutSetRepo = workoutSetRepo;
         this.exerciseRepo = exerciseRepo;
         this.summaryService = summaryService;
+        this.writeService = writeService;
+        this.exportService = exportService;
+        this.validator = validator;
     }
 
     // ========= Core CRUD =========
@@ -109,7 +131,7 @@ public class WorkoutSessionController {
         }
 
         // Save
-        WorkoutSession saved = sessionRepo.save(session);
+        WorkoutSession saved = writeService.createSession(session);
         WorkoutSessionView view = WorkoutMapper.toSessionView(saved);
 
         // Return 201 with Location header
@@ -122,21 +144,33 @@ public class WorkoutSessionController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get a workout session by ID",
-            description = "Returns the requested workout session if it belongs to the authenticated user. Returns 404 if not found."
+            description = "Returns the requested workout session if it belongs to the authenticated user. Returns 404 if not found. " +
+                    "Responses carry an ETag; send it back in If-None-Match to get 304 while the session and its sets are unchanged."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     public ResponseEntity<WorkoutSessionView> get(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                                   @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
         Long userId = user.getId();
 
+        Optional<Long> version = sessionRepo.findVersionByIdAndUserId(id, userId);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String etag = ETags.forSession(id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
         return sessionRepo.findByIdAndUserId(id, userId)
                 .map(WorkoutMapper::toSessionView)
-                .map(ResponseEntity::ok)
+                .map(view -> ETags.withETag(etag).body(view))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
@@ -175,11 +209,125 @@ public class WorkoutSessionController {
         return page.map(WorkoutMapper::toSessionView);
     }
 
+    // GET /workouts?limit=&cursor=&from=&to=
+    @GetMapping(params = "limit")
+    @Operation(
+            summary = "List workout sessions by cursor",
+            description = "Cursor-paginated variant of the session list, newest first (startedAt desc, id desc). " +
+                    "Pass the returned nextCursor as cursor to fetch the following page. No total count is computed."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public WorkoutSessionCursorPage listByCursor(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) OffsetDateTime from,
+            @RequestParam(required = false) OffsetDateTime to,
+            @AuthenticationPrincipal com.sgt.fitapi.model.User user
+    ) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        Long userId = user.getId();
+
+        if (limit < 1 || limit > MAX_CURSOR_PAGE_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_CURSOR_PAGE_SIZE
+            );
+        }
+
+        WorkoutSessionCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = WorkoutSessionCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        var spec = Specification.allOf(
+                WorkoutSessionSpecs.userEquals(userId),
+                WorkoutSessionSpecs.startedAtFrom(from != null ? from.toInstant() : null),
+                WorkoutSessionSpecs.startedAtTo(to != null ? to.toInstant() : null),
+                after != null ? WorkoutSessionSpecs.after(after.startedAt(), after.id()) : Specification.unrestricted()
+        );
+
+        // One extra row tells us whether there is a next page without a count query
+        List<WorkoutSession> rows = sessionRepo.findKeysetPage(spec, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<WorkoutSession> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        WorkoutSessionCursorPage page = new WorkoutSessionCursorPage();
+        page.items = pageRows.stream()
+                .map(WorkoutMapper::toSessionView)
+                .toList();
+        if (hasMore) {
+            WorkoutSession last = pageRows.get(pageRows.size() - 1);
+            page.nextCursor = new WorkoutSessionCursor(last.getStartedAt(), last.getId()).encode();
+        }
+        return page;
+    }
+
+    // GET /workouts/export?format=ndjson|csv
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export training history",
+            description = "Streams every session of the authenticated user with its sets, oldest first. " +
+                    "ndjson (default) writes one session object per line with a nested sets array; " +
+                    "csv writes one row per set."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request",
+                    content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        Long userId = user.getId();
+
+        // Written on an async thread as rows are read; the export query is scoped to userId
+        StreamingResponseBody body;
+        MediaType mediaType;
+        String extension;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            body = out -> exportService.writeNdjson(userId, out);
+            mediaType = MediaType.parseMediaType("application/x-ndjson");
+            extension = "ndjson";
+        } else if ("csv".equalsIgnoreCase(format)) {
+            body = out -> exportService.writeCsv(userId, out);
+            mediaType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+            extension = "csv";
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be 'ndjson' or 'csv'");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workouts." + extension + "\"")
+                .body(body);
+    }
+
     // PUT /workouts/{id}
     @PutMapping("/{id}")
     @Operation(
             summary = "Update a workout session",
-            description = "Updates an existing workout session owned by the authenticated user. Validates time order and returns the updated session."
+            description = "Updates an existing workout session owned by the authenticated user. Validates time order and returns the updated session. " +
+                    "Send the ETag from a previous read in If-Match to update only if nobody changed the session since; " +
+                    "412 means it changed (re-read and retry). Concurrent updates never overwrite each other silently: " +
+                    "without If-Match, losing such a race returns 409."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -187,10 +335,13 @@ public class WorkoutSessionController {
                     responseCode = "400",
                     description = "Invalid request",
                     content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))
-            )
+            ),
+            @ApiResponse(responseCode = "409", description = "Conflict"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed")
     })
     public ResponseEntity<WorkoutSessionView> update(@PathVariable Long id,
                                                      @Valid @RequestBody UpdateWorkoutSessionRequest body,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                      @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
@@ -203,6 +354,11 @@ public class WorkoutSessionController {
         }
 
         WorkoutSession existing = optional.get();
+        if (ifMatch != null && !ETags.matchHits(ifMatch, ETags.forSession(id, existing.getVersion()))) {
+            return ETags.preconditionFailed();
+        }
+        Instant previousStartedAt = existing.getStartedAt();
+        String previousTimezone = existing.getTimezone();
 
         // Apply changes from DTO to entity
         WorkoutMapper.applyUpdate(existing, body);
@@ -216,20 +372,33 @@ public class WorkoutSessionController {
             );
         }
 
-        WorkoutSession saved = sessionRepo.save(existing);
-        return ResponseEntity.ok(WorkoutMapper.toSessionView(saved));
+        WorkoutSession saved;
+        try {
+            saved = writeService.updateSession(existing, previousStartedAt, previousTimezone);
+        } catch (OptimisticLockingFailureException e) {
+            // Changed between our read and our write
+            return raceLost(ifMatch);
+        }
+        return ResponseEntity.ok()
+                .eTag(ETags.forSession(saved.getId(), saved.getVersion()))
+                .body(WorkoutMapper.toSessionView(saved));
     }
 
     // DELETE /workouts/{id}
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete a workout session",
-            description = "Deletes a workout session owned by the authenticated user. Returns 204 on success."
+            description = "Deletes a workout session owned by the authenticated user. Returns 204 on success. " +
+                    "With If-Match, deletes only if the session still has that ETag (412 otherwise). " +
+                    "Without it, 409 means the session changed while being deleted."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "204", description = "No Content")
+            @ApiResponse(responseCode = "204", description = "No Content"),
+            @ApiResponse(responseCode = "409", description = "Conflict"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed")
     })
     public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                        @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
@@ -240,11 +409,24 @@ public class WorkoutSessionController {
         if (optional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        if (ifMatch != null && !ETags.matchHits(ifMatch, ETags.forSession(id, optional.get().getVersion()))) {
+            return ETags.preconditionFailed();
+        }
 
-        sessionRepo.delete(optional.get());
+        try {
+            writeService.deleteSession(optional.get());
+        } catch (OptimisticLockingFailureException e) {
+            return raceLost(ifMatch);
+        }
         return ResponseEntity.noContent().build(); // 204 No Content
     }
 
+    // A write that lost a @Version race (e.g. to a set write bumping the session version). That only fails
+    // a precondition if the client sent one; an unconditional write gets 409 instead.
+    private static <T> ResponseEntity<T> raceLost(String ifMatch) {
+        return ifMatch != null ? ETags.preconditionFailed() : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
     // ========= Nested workout sets =========
 
     // GET /workouts/{id}/sets[?exerciseId=]
@@ -274,19 +456,15 @@ public class WorkoutSessionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        List<WorkoutSet> sets;
+        List<WorkoutSetView> views;
         Long sessionId = session.getId();
 
         if (exerciseId != null) {
-            sets = workoutSetRepo.findByWorkoutSessionIdAndExerciseId(sessionId, exerciseId);
+            views = workoutSetRepo.findViewsByWorkoutSessionIdAndExerciseId(sessionId, exerciseId);
         } else {
-            sets = workoutSetRepo.findByWorkoutSessionId(sessionId);
+            views = workoutSetRepo.findViewsByWorkoutSessionId(sessionId);
         }
 
-        List<WorkoutSetView> views = sets.stream()
-                .map(WorkoutMapper::toSetView)
-                .toList();
-
         return ResponseEntity.ok(views);
     }
 
@@ -326,68 +504,167 @@ public class WorkoutSessionController {
                         "Exercise not found: " + body.exerciseId
                 ));
 
-        WorkoutSet set = new WorkoutSet();
-        set.setWorkoutSession(session);
-        set.setExercise(exercise);
-        set.setSetNumber(body.setNumber);
-        set.setReps(body.reps);
-        set.setWeight(body.weight);
-        set.setRpe(body.rpe);
-        set.setRestSeconds(body.restSeconds);
-        set.setNotes(body.notes);
-
-        WorkoutSet saved = workoutSetRepo.save(set);
+        // Persists the set and updates the session's materialised summary in one transaction
+        WorkoutSet saved = writeService.addSet(session, exercise, body);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(WorkoutMapper.toSetView(saved));
     }
 
+    // POST /workouts/{id}/sets:batch
+    @PostMapping("/{id}/sets:batch")
+    @Operation(
+            summary = "Create many sets for a session",
+            description = "Creates up to " + MAX_BATCH_SETS + " sets under the given session in one transaction. " +
+                    "If any item is invalid nothing is inserted and every problem is reported with its index."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Created"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "One or more invalid items",
+                    content = @Content(schema = @Schema(implementation = WorkoutSetBatchResponse.class))
+            )
+    })
+    public ResponseEntity<WorkoutSetBatchResponse> addSets(@PathVariable Long id,
+                                                           @RequestBody List<CreateWorkoutSetRequest> body,
+                                                           @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
+
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        }
+        Long userId = user.getId();
+
+        if (body == null || body.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one set is required");
+        }
+        if (body.size() > MAX_BATCH_SETS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SETS + " sets per batch"
+            );
+        }
+
+        WorkoutSession session = sessionRepo.findByIdAndUserId(id, userId)
+                .orElse(null);
+
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        // Bean validation per item (a plain List body isn't cascaded by @Valid)
+        List<WorkoutSetBatchError> errors = new ArrayList<>();
+        Set<Long> exerciseIds = new HashSet<>();
+        for (int i = 0; i < body.size(); i++) {
+            CreateWorkoutSetRequest item = body.get(i);
+            if (item == null) {
+                errors.add(new WorkoutSetBatchError(i, null, "must not be null"));
+                continue;
+            }
+            for (ConstraintViolation<CreateWorkoutSetRequest> violation : validator.validate(item)) {
+                errors.add(new WorkoutSetBatchError(i, violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+            if (item.exerciseId != null) {
+                exerciseIds.add(item.exerciseId);
+            }
+        }
+
+        // Resolve every referenced exercise with a single IN query
+        Map<Long, Exercise> exercisesById = new HashMap<>();
+        for (Exercise exercise : exerciseRepo.findAllById(exerciseIds)) {
+            exercisesById.put(exercise.getId(), exercise);
+        }
+        for (int i = 0; i < body.size(); i++) {
+            CreateWorkoutSetRequest item = body.get(i);
+            if (item != null && item.exerciseId != null && !exercisesById.containsKey(item.exerciseId)) {
+                errors.add(new WorkoutSetBatchError(i, "exerciseId", "Exercise not found: " + item.exerciseId));
+            }
+        }
+
+        WorkoutSetBatchResponse response = new WorkoutSetBatchResponse();
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingInt(e -> e.index));
+            response.errors = errors;
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<WorkoutSet> saved = writeService.addSets(session, exercisesById, body);
+        response.created = saved.stream()
+                .map(WorkoutMapper::toSetView)
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     // ========= Analytics / views =========
 
     // GET /workouts/{id}/full
     @GetMapping("/{id}/full")
     @Operation(
             summary = "Get full session details",
-            description = "Returns the session with all nested sets and exercises for the authenticated user."
+            description = "Returns the session with all nested sets and exercises for the authenticated user. " +
+                    "Supports If-None-Match with the session's ETag."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     public ResponseEntity<WorkoutFullView> getFull(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                                    @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
         Long userId = user.getId();
 
+        Optional<Long> version = sessionRepo.findVersionByIdAndUserId(id, userId);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String etag = ETags.forSession(id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
         var optional = sessionRepo.findByIdAndUserId(id, userId);
         if (optional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
         WorkoutSession session = optional.get();
-        var sets = workoutSetRepo.findByWorkoutSessionId(id);
+        var sets = workoutSetRepo.findViewsByWorkoutSessionId(id);
 
         WorkoutFullView view = WorkoutMapper.toFullView(session, sets);
-        return ResponseEntity.ok(view);
+        return ETags.withETag(etag).body(view);
     }
 
     // GET /workouts/{id}/summary
     @GetMapping("/{id}/summary")
     @Operation(
             summary = "Get workout summary",
-            description = "Returns a computed summary for the session owned by the authenticated user."
+            description = "Returns a computed summary for the session owned by the authenticated user. " +
+                    "Supports If-None-Match with the session's ETag."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     public ResponseEntity<WorkoutSummaryView> getSummary(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                                          @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
         Long userId = user.getId();
 
+        Optional<Long> version = sessionRepo.findVersionByIdAndUserId(id, userId);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String etag = ETags.forSession(id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
         WorkoutSummaryView summary = summaryService.calculateSummary(id, userId);
-        return ResponseEntity.ok(summary);
+        return ETags.withETag(etag).body(summary);
     }
 }
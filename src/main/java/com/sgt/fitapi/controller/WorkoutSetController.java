@@ -1,16 +1,18 @@
 package com.sgt.fitapi.controller;
 
 import com.sgt.fitapi.dto.workout.WorkoutSetView;
-import com.sgt.fitapi.mapper.WorkoutMapper;
 import com.sgt.fitapi.model.WorkoutSession;
 import com.sgt.fitapi.model.WorkoutSet;
 import com.sgt.fitapi.repository.WorkoutSessionRepository;
 import com.sgt.fitapi.repository.WorkoutSetRepository;
+import com.sgt.fitapi.service.WorkoutWriteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/workout-sets")
@@ -25,11 +28,14 @@ public class WorkoutSetController {
 
     private final WorkoutSetRepository workoutSetRepo;
     private final WorkoutSessionRepository sessionRepo;
+    private final WorkoutWriteService writeService;
 
     public WorkoutSetController(WorkoutSetRepository workoutSetRepo,
-                                WorkoutSessionRepository sessionRepo) {
+                                WorkoutSessionRepository sessionRepo,
+                                WorkoutWriteService writeService) {
         this.workoutSetRepo = workoutSetRepo;
         this.sessionRepo = sessionRepo;
+        this.writeService = writeService;
     }
 
     // GET /workout-sets?workoutSessionId=&exerciseId=
@@ -70,18 +76,14 @@ public class WorkoutSetController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        List<WorkoutSet> sets;
+        List<WorkoutSetView> views;
 
         if (exerciseId != null) {
-            sets = workoutSetRepo.findByWorkoutSessionIdAndExerciseId(session.getId(), exerciseId);
+            views = workoutSetRepo.findViewsByWorkoutSessionIdAndExerciseId(session.getId(), exerciseId);
         } else {
-            sets = workoutSetRepo.findByWorkoutSessionId(session.getId());
+            views = workoutSetRepo.findViewsByWorkoutSessionId(session.getId());
         }
 
-        List<WorkoutSetView> views = sets.stream()
-                .map(WorkoutMapper::toSetView)
-                .toList();
-
         return ResponseEntity.ok(views);
     }
 
@@ -89,25 +91,33 @@ public class WorkoutSetController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get a workout set by ID",
-            description = "Returns a set if it belongs to a session owned by the authenticated user. Returns 404 if not found."
+            description = "Returns a set if it belongs to a session owned by the authenticated user. Returns 404 if not found. " +
+                    "Responses carry an ETag; send it back in If-None-Match to get 304, or in If-Match on DELETE."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     public ResponseEntity<WorkoutSetView> get(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                               @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
         Long userId = user.getId();
 
-        return workoutSetRepo.findById(id)
-                .filter(set -> {
-                    WorkoutSession session = set.getWorkoutSession();
-                    return session != null && userId.equals(session.getUserId());
-                })
-                .map(WorkoutMapper::toSetView)
-                .map(ResponseEntity::ok)
+        // ownership is part of the query, so foreign sets look exactly like missing ones
+        Optional<Long> version = workoutSetRepo.findVersionByIdAndUserId(id, userId);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String etag = ETags.forSet(id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        return workoutSetRepo.findViewByIdAndUserId(id, userId)
+                .map(view -> ETags.withETag(etag).body(view))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
@@ -115,12 +125,15 @@ public class WorkoutSetController {
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete a workout set",
-            description = "Deletes a set if it belongs to a session owned by the authenticated user. Returns 204 on success."
+            description = "Deletes a set if it belongs to a session owned by the authenticated user. Returns 204 on success. " +
+                    "With If-Match, deletes only if the set still has that ETag (412 otherwise)."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "204", description = "No Content")
+            @ApiResponse(responseCode = "204", description = "No Content"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed")
     })
     public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                        @AuthenticationPrincipal com.sgt.fitapi.model.User user) {
 
         if (user == null) {
@@ -128,16 +141,22 @@ public class WorkoutSetController {
         }
         Long userId = user.getId();
 
-        return workoutSetRepo.findById(id)
-                .filter(set -> {
-                    var session = set.getWorkoutSession();
-                    return session != null && userId.equals(session.getUserId());
-                })
-                .map(set -> {
-                    workoutSetRepo.delete(set);
-                    return ResponseEntity.noContent().<Void>build();   // <<-- FIXED
-                })
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).<Void>build()); // <<-- FIXED
+        Optional<WorkoutSet> optional = workoutSetRepo.findByIdAndWorkoutSessionUserId(id, userId);
+        if (optional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (ifMatch != null && !ETags.matchHits(ifMatch, ETags.forSet(id, optional.get().getVersion()))) {
+            return ETags.preconditionFailed();
+        }
+
+        try {
+            writeService.deleteSet(optional.get());
+        } catch (OptimisticLockingFailureException e) {
+            // @Version: another request deleted it between our read and our delete. That fails an If-Match
+            // precondition; without one the set is simply gone.
+            return ifMatch != null ? ETags.preconditionFailed() : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.noContent().build();
     }
 
 }
@@ -0,0 +1,13 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.LocalDate;
+
+// One exercise on one local day: a user_daily_exercise_rollups row, or raw rows folded into that shape
+public record DailyExerciseVolume(LocalDate localDate,
+                                  Long exerciseId,
+                                  String exerciseName,
+                                  Double volume,
+                                  Long setsCount,
+                                  Long repsTotal,
+                                  Double maxWeight) {
+}
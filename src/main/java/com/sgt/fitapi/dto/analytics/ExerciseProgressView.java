@@ -0,0 +1,20 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExerciseProgressView {
+    public Long exerciseId;
+    public String exerciseName;
+    public LocalDate from;
+    public LocalDate to;
+    public String formula;
+
+    // Sessions in range before downsampling; points has at most maxPoints of them
+    public int sessionsCount;
+    public boolean downsampled;
+
+    // Oldest first
+    public List<ProgressPointView> points = new ArrayList<>();
+}
@@ -0,0 +1,10 @@
+package com.sgt.fitapi.dto.analytics;
+
+public class ExerciseTrendView {
+    public Long exerciseId;
+    public String exerciseName;
+    public double volume;
+    public int setsCount;
+    public long repsTotal;
+    public double maxWeight;
+}
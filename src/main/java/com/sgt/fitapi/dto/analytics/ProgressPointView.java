@@ -0,0 +1,19 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+// One session's performance on the charted exercise
+public class ProgressPointView {
+    public Long sessionId;
+    public OffsetDateTime startedAt;
+    public LocalDate localDate;
+
+    // Heaviest set (most reps breaks ties)
+    public double topSetWeight;
+    public int topSetReps;
+
+    public double volume;
+    public int setsCount;
+    public double estimatedOneRepMax;
+}
@@ -0,0 +1,7 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.Instant;
+
+// One set of the charted exercise with enough of its session to place it in time
+public record ProgressSet(Long sessionId, Instant startedAt, String timezone, Double weight, Integer reps) {
+}
@@ -0,0 +1,15 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.Instant;
+
+// One row per (session, exercise) from the analytics GROUP BY; bucketing happens in AnalyticsService
+public record SessionExerciseVolume(Long sessionId,
+                                    Instant startedAt,
+                                    String timezone,
+                                    Long exerciseId,
+                                    String exerciseName,
+                                    Double volume,
+                                    Long setsCount,
+                                    Long repsTotal,
+                                    Double maxWeight) {
+}
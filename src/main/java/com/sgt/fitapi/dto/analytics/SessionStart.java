@@ -0,0 +1,7 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.Instant;
+
+// Enough of a session to place it on its local day
+public record SessionStart(Instant startedAt, String timezone) {
+}
@@ -0,0 +1,20 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class VolumeAnalyticsView {
+    public LocalDate from;
+    public LocalDate to;
+    public String bucket;
+    public Long exerciseId;
+
+    public double totalVolume;
+    public int setsCount;
+    public long repsTotal;
+    public int sessionsCount;
+
+    // Every bucket in the range, oldest first; buckets without training are present with zeros
+    public List<VolumeBucketView> buckets = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.sgt.fitapi.dto.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class VolumeBucketView {
+    // First and last local day covered by the bucket (ISO week Monday..Sunday, or a calendar month)
+    public LocalDate start;
+    public LocalDate end;
+
+    public double totalVolume;
+    public int setsCount;
+    public long repsTotal;
+    public int sessionsCount;
+
+    public List<ExerciseTrendView> exercises = new ArrayList<>();
+}
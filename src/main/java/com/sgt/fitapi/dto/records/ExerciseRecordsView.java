@@ -0,0 +1,11 @@
+package com.sgt.fitapi.dto.records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExerciseRecordsView extends PersonalRecordView {
+    @Schema(description = "Most reps done at each weight, lightest first.")
+    public List<RecordSetView> repRecords = new ArrayList<>();
+}
@@ -0,0 +1,10 @@
+package com.sgt.fitapi.dto.records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class OneRepMaxView extends RecordSetView {
+    @Schema(description = "Estimated one-rep max from the set's weight and reps.", example = "154.0")
+    public double estimate;
+    @Schema(description = "Formula used for the estimate.", example = "epley")
+    public String formula;
+}
@@ -0,0 +1,14 @@
+package com.sgt.fitapi.dto.records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class PersonalRecordView {
+    @Schema(description = "Exercise ID.", example = "15")
+    public Long exerciseId;
+    @Schema(description = "Exercise name for display.", example = "Back Squat")
+    public String exerciseName;
+    @Schema(description = "Heaviest set (most reps breaks ties at the same weight).")
+    public RecordSetView heaviest;
+    @Schema(description = "Set with the best estimated one-rep max.")
+    public OneRepMaxView bestEstimatedOneRepMax;
+}
@@ -0,0 +1,7 @@
+package com.sgt.fitapi.dto.records;
+
+import java.time.Instant;
+
+// The parts of a set that personal records are judged on; startedAt is its session's start
+public record RecordCandidate(Long setId, Long exerciseId, double weight, int reps, Instant startedAt) {
+}
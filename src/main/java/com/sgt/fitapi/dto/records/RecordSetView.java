@@ -0,0 +1,16 @@
+package com.sgt.fitapi.dto.records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+public class RecordSetView {
+    @Schema(description = "Weight of the record set.", example = "140.0")
+    public double weight;
+    @Schema(description = "Repetitions of the record set.", example = "3")
+    public int reps;
+    @Schema(description = "ID of the set that first achieved the record.", example = "987")
+    public Long setId;
+    @Schema(description = "Start of the session the record set belongs to.", example = "2025-03-10T08:00:00Z")
+    public OffsetDateTime achievedAt;
+}
@@ -5,4 +5,14 @@ public class ExerciseVolumeView {
     public String exerciseName;
     public double volume;
     public int setsCount;
+
+    public ExerciseVolumeView() {}
+
+    // Used by the GROUP BY projection in WorkoutSetRepository
+    public ExerciseVolumeView(Long exerciseId, String exerciseName, Double volume, Long setsCount) {
+        this.exerciseId = exerciseId;
+        this.exerciseName = exerciseName;
+        this.volume = volume != null ? volume : 0.0;
+        this.setsCount = setsCount != null ? setsCount.intValue() : 0;
+    }
 }
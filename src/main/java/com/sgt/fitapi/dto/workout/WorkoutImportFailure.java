@@ -0,0 +1,14 @@
+package com.sgt.fitapi.dto.workout;
+
+public class WorkoutImportFailure {
+    public long line;
+    public String message;
+
+    public WorkoutImportFailure() {
+    }
+
+    public WorkoutImportFailure(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+}
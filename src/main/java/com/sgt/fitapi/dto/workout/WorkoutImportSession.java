@@ -0,0 +1,9 @@
+package com.sgt.fitapi.dto.workout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One session of an import file (NDJSON line, or a group of CSV rows); same shape as the export.
+public class WorkoutImportSession extends CreateWorkoutSessionRequest {
+    public List<WorkoutImportSet> sets = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.sgt.fitapi.dto.workout;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// A set in an import file; the exercise may be given by ID or by name.
+public class WorkoutImportSet extends CreateWorkoutSetRequest {
+    public String exerciseName;
+
+    // Source line of this set, for failure reports
+    @JsonIgnore
+    public long line;
+}
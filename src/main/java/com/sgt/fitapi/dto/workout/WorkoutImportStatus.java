@@ -0,0 +1,23 @@
+package com.sgt.fitapi.dto.workout;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class WorkoutImportStatus {
+    public String jobId;
+    public String format;
+    // RUNNING, COMPLETED or FAILED
+    public String state;
+    public String error;
+
+    public long linesRead;
+    public long sessionsImported;
+    public long setsImported;
+
+    // failures holds the first few; failureCount is the total
+    public long failureCount;
+    public List<WorkoutImportFailure> failures;
+
+    public OffsetDateTime startedAt;
+    public OffsetDateTime finishedAt;
+}
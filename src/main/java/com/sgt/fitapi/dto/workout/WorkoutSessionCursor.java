@@ -0,0 +1,29 @@
+package com.sgt.fitapi.dto.workout;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// Position of the last session on a page, handed to clients as an opaque token.
+public record WorkoutSessionCursor(Instant startedAt, Long id) {
+
+    public String encode() {
+        String raw = startedAt.getEpochSecond() + ":" + startedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for tokens this class did not produce
+    public static WorkoutSessionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant startedAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new WorkoutSessionCursor(startedAt, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sgt.fitapi.dto.workout;
+
+import java.util.List;
+
+public class WorkoutSessionCursorPage {
+    public List<WorkoutSessionView> items;
+
+    // Pass back as ?cursor= to fetch the next page; null on the last page
+    public String nextCursor;
+}
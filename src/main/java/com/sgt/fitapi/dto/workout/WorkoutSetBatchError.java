@@ -0,0 +1,16 @@
+package com.sgt.fitapi.dto.workout;
+
+public class WorkoutSetBatchError {
+    public int index;
+    public String field;
+    public String message;
+
+    public WorkoutSetBatchError() {
+    }
+
+    public WorkoutSetBatchError(int index, String field, String message) {
+        this.index = index;
+        this.field = field;
+        this.message = message;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sgt.fitapi.dto.workout;
+
+import java.util.List;
+
+public class WorkoutSetBatchResponse {
+    // Present on success, in request order
+    public List<WorkoutSetView> created;
+
+    // Present on failure; nothing is inserted when any item is invalid
+    public List<WorkoutSetBatchError> errors;
+}
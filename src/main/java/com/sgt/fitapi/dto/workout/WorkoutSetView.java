@@ -19,4 +19,27 @@ public class WorkoutSetView {
     public Integer restSeconds;
     @io.swagger.v3.oas.annotations.media.Schema(description = "Optional notes about the set.", example = "Felt strong, last rep grinder")
     public String notes;
+
+    public WorkoutSetView() {}
+
+    // Used by JPQL constructor projections in WorkoutSetRepository
+    public WorkoutSetView(Long id,
+                          Long exerciseId,
+                          String exerciseName,
+                          Integer setNumber,
+                          Integer reps,
+                          Double weight,
+                          Double rpe,
+                          Integer restSeconds,
+                          String notes) {
+        this.id = id;
+        this.exerciseId = exerciseId;
+        this.exerciseName = exerciseName;
+        this.setNumber = setNumber;
+        this.reps = reps;
+        this.weight = weight;
+        this.rpe = rpe;
+        this.restSeconds = restSeconds;
+        this.notes = notes;
+    }
 }
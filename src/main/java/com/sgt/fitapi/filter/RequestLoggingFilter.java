@@ -1,5 +1,7 @@
 package com.sgt.fitapi.filter;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,18 +9,40 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
+// One JSON access-log line per request on the "com.sgt.fitapi.access" logger, which logback-spring.xml
+// routes through a non-blocking async appender: request threads only build the line and enqueue it.
+// Successful requests faster than slow-threshold are sampled; errors and slow requests are always logged.
+// Ordered ahead of Spring Security so requests it rejects (401/403/429) are logged with their request id too.
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("com.sgt.fitapi.access");
     private static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final int MAX_CLIENT_REQUEST_ID_LENGTH = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    @Autowired
+    public RequestLoggingFilter(@Value("${fitapi.access-log.sample-rate:1.0}") double sampleRate,
+                                @Value("${fitapi.access-log.slow-threshold:500ms}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -29,26 +53,110 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         MDC.put("requestId", requestId);
         response.setHeader(REQUEST_ID_HEADER, requestId);
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long durationMs = System.currentTimeMillis() - start;
-            log.info("requestId={} method={} path={} status={} durationMs={}",
-                    requestId,
-                    request.getMethod(),
-                    request.getRequestURI(),
-                    response.getStatus(),
-                    durationMs);
+            if (request.isAsyncStarted()) {
+                // Streamed exports and async logins finish on another thread; log the final status then
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(requestId, request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(requestId, request, response, start);
+            }
             MDC.remove("requestId");
         }
     }
 
+    private void log(String requestId, HttpServletRequest request, HttpServletResponse response, long start) {
+        long durationNanos = System.nanoTime() - start;
+        int status = response.getStatus();
+        if (!accessLog.isInfoEnabled() || !sampled(status, durationNanos)) {
+            return;
+        }
+        accessLog.info(accessRecord(requestId, request.getMethod(), request.getRequestURI(), status, durationNanos));
+    }
+
+    boolean sampled(int status, long durationNanos) {
+        if (status >= 400 || durationNanos >= slowThresholdNanos || sampleRate >= 1.0) {
+            return true;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // JSON object members without the braces; the appender pattern adds the timestamp and closes it
+    public static String accessRecord(String requestId, String method, String path, int status, long durationNanos) {
+        StringBuilder out = new StringBuilder(96 + path.length());
+        out.append("\"requestId\":\"").append(requestId)
+                .append("\",\"method\":\"").append(method)
+                .append("\",\"path\":\"");
+        appendEscaped(out, path);
+        out.append("\",\"status\":").append(status)
+                .append(",\"durationUs\":").append(durationNanos / 1_000);
+        return out.toString();
+    }
+
     private String resolveRequestId(HttpServletRequest request) {
         String header = request.getHeader(REQUEST_ID_HEADER);
-        if (header != null && !header.isBlank()) {
+        if (header != null && isSafeRequestId(header)) {
             return header;
         }
-        return UUID.randomUUID().toString();
+        return newRequestId();
+    }
+
+    // 64 random bits as 16 hex chars: plenty to correlate log lines, without SecureRandom or UUID formatting
+    public static String newRequestId() {
+        long bits = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    // Client-supplied ids end up in every log line; keep them short and free of quotes and control characters
+    private static boolean isSafeRequestId(String id) {
+        if (id.isEmpty() || id.length() > MAX_CLIENT_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                out.append(c);
+            }
+        }
     }
 }
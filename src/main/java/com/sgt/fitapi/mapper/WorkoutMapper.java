@@ -1,11 +1,11 @@
 package com.sgt.fitapi.mapper;
 
 import com.sgt.fitapi.dto.workout.*;
+import com.sgt.fitapi.model.Exercise;
 import com.sgt.fitapi.model.WorkoutSession;
 import com.sgt.fitapi.model.WorkoutSet;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import java.time.ZoneOffset;
 
 public class WorkoutMapper {
@@ -24,7 +24,7 @@ public class WorkoutMapper {
         return view;
     }
 
-    public static WorkoutFullView toFullView(WorkoutSession session, List<WorkoutSet> sets) {
+    public static WorkoutFullView toFullView(WorkoutSession session, List<WorkoutSetView> sets) {
         WorkoutFullView view = new WorkoutFullView();
 
         view.id = session.getId();
@@ -34,9 +34,7 @@ public class WorkoutMapper {
         view.timezone = session.getTimezone();
         view.notes = session.getNotes();
 
-        view.sets = sets.stream()
-                .map(WorkoutMapper::toSetView)
-                .collect(Collectors.toList());
+        view.sets = sets;
 
         return view;
     }
@@ -63,6 +61,18 @@ public class WorkoutMapper {
         return session;
     }
 
+    public static WorkoutSet fromCreateSetRequest(WorkoutSession session, Exercise exercise, CreateWorkoutSetRequest body) {
+        WorkoutSet set = new WorkoutSet();
+        set.setWorkoutSession(session);
+        set.setExercise(exercise);
+        set.setSetNumber(body.setNumber);
+        set.setReps(body.reps);
+        set.setWeight(body.weight);
+        set.setRpe(body.rpe);
+        set.setRestSeconds(body.restSeconds);
+        set.setNotes(body.notes);
+        return set;
+    }
 
     public static void applyUpdate(WorkoutSession session, UpdateWorkoutSessionRequest body) {
         session.setStartedAt(body.startedAt != null ? body.startedAt.toInstant() : null);
@@ -0,0 +1,23 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+
+// A user whose daily rollups still have to be rebuilt from history (see DailyRollupBackfillRunner)
+@Entity
+@Table(name = "user_daily_rollup_backfill")
+public class DailyRollupBackfill {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    protected DailyRollupBackfill() {
+        // JPA
+    }
+
+    public DailyRollupBackfill(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+}
@@ -1,12 +1,14 @@
 package com.sgt.fitapi.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.sgt.fitapi.service.ExerciseCatalogInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
+@EntityListeners(ExerciseCatalogInvalidator.class)
 @Table(
         name = "exercises",
         uniqueConstraints = {
@@ -17,7 +19,8 @@ import jakarta.validation.constraints.Size;
 public class Exercise {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exercises_id_seq")
+    @SequenceGenerator(name = "exercises_id_seq", sequenceName = "exercises_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
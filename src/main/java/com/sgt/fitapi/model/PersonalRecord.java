@@ -0,0 +1,137 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+// A user's best marks on one exercise, kept in step by PersonalRecordService.
+// Each mark remembers the set that first achieved it; achieved-at is that set's session start.
+@Entity
+@Table(name = "personal_records")
+public class PersonalRecord implements Persistable<PersonalRecord.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private double heaviestWeight;
+
+    @Column(nullable = false)
+    private int heaviestWeightReps;
+
+    @Column(nullable = false)
+    private Long heaviestWeightSetId;
+
+    @Column(nullable = false)
+    private Instant heaviestWeightAt;
+
+    // Named explicitly: the naming strategy puts no underscore before "E1" (a digit follows), giving beste1rm
+    @Column(name = "best_e1rm", nullable = false)
+    private double bestE1rm;
+
+    @Column(name = "best_e1rm_weight", nullable = false)
+    private double bestE1rmWeight;
+
+    @Column(name = "best_e1rm_reps", nullable = false)
+    private int bestE1rmReps;
+
+    @Column(name = "best_e1rm_set_id", nullable = false)
+    private Long bestE1rmSetId;
+
+    @Column(name = "best_e1rm_at", nullable = false)
+    private Instant bestE1rmAt;
+
+    // OneRepMaxFormula label that produced bestE1rm
+    @Column(nullable = false, length = 32)
+    private String formula;
+
+    // Rows are created knowing they don't exist yet, so save() can insert without a merge SELECT (matters for backfills)
+    @Transient
+    private boolean isNew;
+
+    protected PersonalRecord() {
+        // JPA
+    }
+
+    public PersonalRecord(Long userId, Long exerciseId) {
+        this.id = new Key(userId, exerciseId);
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() { return id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public double getHeaviestWeight() { return heaviestWeight; }
+    public int getHeaviestWeightReps() { return heaviestWeightReps; }
+    public Long getHeaviestWeightSetId() { return heaviestWeightSetId; }
+    public Instant getHeaviestWeightAt() { return heaviestWeightAt; }
+
+    public void setHeaviest(double weight, int reps, Long setId, Instant at) {
+        this.heaviestWeight = weight;
+        this.heaviestWeightReps = reps;
+        this.heaviestWeightSetId = setId;
+        this.heaviestWeightAt = at;
+    }
+
+    public double getBestE1rm() { return bestE1rm; }
+    public double getBestE1rmWeight() { return bestE1rmWeight; }
+    public int getBestE1rmReps() { return bestE1rmReps; }
+    public Long getBestE1rmSetId() { return bestE1rmSetId; }
+    public Instant getBestE1rmAt() { return bestE1rmAt; }
+    public String getFormula() { return formula; }
+
+    public void setBestE1rm(double e1rm, String formula, double weight, int reps, Long setId, Instant at) {
+        this.bestE1rm = e1rm;
+        this.formula = formula;
+        this.bestE1rmWeight = weight;
+        this.bestE1rmReps = reps;
+        this.bestE1rmSetId = setId;
+        this.bestE1rmAt = at;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "exercise_id", nullable = false)
+        private Long exerciseId;
+
+        protected Key() {
+            // JPA
+        }
+
+        public Key(Long userId, Long exerciseId) {
+            this.userId = userId;
+            this.exerciseId = exerciseId;
+        }
+
+        public Long getUserId() { return userId; }
+        public Long getExerciseId() { return exerciseId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(exerciseId, key.exerciseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, exerciseId);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+
+// A user whose personal records still have to be rebuilt from history (see PersonalRecordBackfillRunner)
+@Entity
+@Table(name = "personal_record_backfill")
+public class PersonalRecordBackfill {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    protected PersonalRecordBackfill() {
+        // JPA
+    }
+
+    public PersonalRecordBackfill(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+}
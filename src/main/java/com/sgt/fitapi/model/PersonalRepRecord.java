@@ -0,0 +1,102 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+// Most reps a user has done at one weight of one exercise, kept in step by PersonalRecordService
+@Entity
+@Table(name = "personal_rep_records")
+public class PersonalRepRecord implements Persistable<PersonalRepRecord.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private int reps;
+
+    @Column(nullable = false)
+    private Long setId;
+
+    @Column(nullable = false)
+    private Instant achievedAt;
+
+    @Transient
+    private boolean isNew;
+
+    protected PersonalRepRecord() {
+        // JPA
+    }
+
+    public PersonalRepRecord(Long userId, Long exerciseId, double weight) {
+        this.id = new Key(userId, exerciseId, weight);
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() { return id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public int getReps() { return reps; }
+    public Long getSetId() { return setId; }
+    public Instant getAchievedAt() { return achievedAt; }
+
+    public void setBest(int reps, Long setId, Instant achievedAt) {
+        this.reps = reps;
+        this.setId = setId;
+        this.achievedAt = achievedAt;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "exercise_id", nullable = false)
+        private Long exerciseId;
+
+        @Column(name = "weight", nullable = false)
+        private Double weight;
+
+        protected Key() {
+            // JPA
+        }
+
+        public Key(Long userId, Long exerciseId, double weight) {
+            this.userId = userId;
+            this.exerciseId = exerciseId;
+            // -0.0 and 0.0 are the same weight
+            this.weight = weight + 0.0;
+        }
+
+        public Long getUserId() { return userId; }
+        public Long getExerciseId() { return exerciseId; }
+        public Double getWeight() { return weight; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId)
+                    && Objects.equals(exerciseId, key.exerciseId)
+                    && Objects.equals(weight, key.weight);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, exerciseId, weight);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sgt.fitapi.model;
 
+import com.sgt.fitapi.security.UserPrincipalCacheInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -13,10 +14,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserPrincipalCacheInvalidator.class)
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Email
@@ -0,0 +1,107 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Materialised totals for one exercise on one local day of one user, kept in step by DailyRollupService
+@Entity
+@Table(name = "user_daily_exercise_rollups")
+public class UserDailyExerciseRollup implements Persistable<UserDailyExerciseRollup.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private double volume;
+
+    @Column(nullable = false)
+    private int setsCount;
+
+    @Column(nullable = false)
+    private long repsTotal;
+
+    @Column(nullable = false)
+    private double maxWeight;
+
+    // Rows are created knowing they don't exist yet, so save() can insert without a merge SELECT (matters for backfills)
+    @Transient
+    private boolean isNew;
+
+    protected UserDailyExerciseRollup() {
+        // JPA
+    }
+
+    public UserDailyExerciseRollup(Long userId, LocalDate localDate, Long exerciseId) {
+        this.id = new Key(userId, localDate, exerciseId);
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() { return id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+
+    public int getSetsCount() { return setsCount; }
+    public void setSetsCount(int setsCount) { this.setsCount = setsCount; }
+
+    public long getRepsTotal() { return repsTotal; }
+    public void setRepsTotal(long repsTotal) { this.repsTotal = repsTotal; }
+
+    public double getMaxWeight() { return maxWeight; }
+    public void setMaxWeight(double maxWeight) { this.maxWeight = maxWeight; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "local_date", nullable = false)
+        private LocalDate localDate;
+
+        @Column(name = "exercise_id", nullable = false)
+        private Long exerciseId;
+
+        protected Key() {
+            // JPA
+        }
+
+        public Key(Long userId, LocalDate localDate, Long exerciseId) {
+            this.userId = userId;
+            this.localDate = localDate;
+            this.exerciseId = exerciseId;
+        }
+
+        public Long getUserId() { return userId; }
+        public LocalDate getLocalDate() { return localDate; }
+        public Long getExerciseId() { return exerciseId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId)
+                    && Objects.equals(localDate, key.localDate)
+                    && Objects.equals(exerciseId, key.exerciseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, localDate, exerciseId);
+        }
+    }
+}
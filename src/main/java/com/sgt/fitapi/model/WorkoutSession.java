@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.Instant;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -13,7 +14,8 @@ import java.time.Instant;
 public class WorkoutSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_sessions_id_seq")
+    @SequenceGenerator(name = "workout_sessions_id_seq", sequenceName = "workout_sessions_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -35,6 +37,13 @@ public class WorkoutSession {
     @Column(length = 500)
     private String notes;
 
+    // Optimistic lock and ETag: Hibernate bumps it when the session row changes, and WorkoutWriteService bumps it
+    // (atomically in the database) when the session's sets change. Null until the session is first saved.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public WorkoutSession() {}
 
     public WorkoutSession(Long userId, Instant startedAt, String timezone, String notes) {
@@ -55,4 +64,5 @@ public class WorkoutSession {
     public void setTimezone(String timezone) { this.timezone = timezone; }
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    public Long getVersion() { return version; }
 }
@@ -0,0 +1,72 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Materialised per-exercise volume within one session (the summary's exercise breakdown)
+@Entity
+@Table(name = "workout_session_exercise_summaries")
+public class WorkoutSessionExerciseSummary {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private double volume;
+
+    @Column(nullable = false)
+    private int setsCount;
+
+    protected WorkoutSessionExerciseSummary() {
+        // JPA
+    }
+
+    public WorkoutSessionExerciseSummary(Long workoutSessionId, Long exerciseId) {
+        this.id = new Key(workoutSessionId, exerciseId);
+    }
+
+    public Key getId() { return id; }
+
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+
+    public int getSetsCount() { return setsCount; }
+    public void setSetsCount(int setsCount) { this.setsCount = setsCount; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "workout_session_id", nullable = false)
+        private Long workoutSessionId;
+
+        @Column(name = "exercise_id", nullable = false)
+        private Long exerciseId;
+
+        protected Key() {
+            // JPA
+        }
+
+        public Key(Long workoutSessionId, Long exerciseId) {
+            this.workoutSessionId = workoutSessionId;
+            this.exerciseId = exerciseId;
+        }
+
+        public Long getWorkoutSessionId() { return workoutSessionId; }
+        public Long getExerciseId() { return exerciseId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(workoutSessionId, key.workoutSessionId)
+                    && Objects.equals(exerciseId, key.exerciseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(workoutSessionId, exerciseId);
+        }
+    }
+}
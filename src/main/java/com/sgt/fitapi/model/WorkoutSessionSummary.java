@@ -0,0 +1,44 @@
+package com.sgt.fitapi.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Materialised totals for one session, kept in step with its sets by WorkoutSummaryService
+@Entity
+@Table(name = "workout_session_summaries")
+public class WorkoutSessionSummary {
+
+    @Id
+    @Column(name = "workout_session_id")
+    private Long workoutSessionId;
+
+    @Column(nullable = false)
+    private double totalVolume;
+
+    @Column(nullable = false)
+    private int setsCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    protected WorkoutSessionSummary() {
+        // JPA
+    }
+
+    public WorkoutSessionSummary(Long workoutSessionId) {
+        this.workoutSessionId = workoutSessionId;
+        this.updatedAt = Instant.now();
+    }
+
+    public Long getWorkoutSessionId() { return workoutSessionId; }
+
+    public double getTotalVolume() { return totalVolume; }
+    public void setTotalVolume(double totalVolume) { this.totalVolume = totalVolume; }
+
+    public int getSetsCount() { return setsCount; }
+    public void setSetsCount(int setsCount) { this.setsCount = setsCount; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
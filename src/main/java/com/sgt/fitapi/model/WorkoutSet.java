@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
@@ -11,7 +12,8 @@ import jakarta.validation.constraints.Size;
 public class WorkoutSet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_sets_id_seq")
+    @SequenceGenerator(name = "workout_sets_id_seq", sequenceName = "workout_sets_id_seq", allocationSize = 50)
     private Long id;
 
     // each set belongs to a workout session
@@ -49,6 +51,12 @@ public class WorkoutSet {
     @Column(length = 500)
     private String notes;
 
+    // Optimistic lock, so a set deleted (or changed) concurrently fails instead of being silently overwritten
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public WorkoutSet() {}
 
     public WorkoutSet(WorkoutSession workoutSession,
@@ -64,6 +72,7 @@ public class WorkoutSet {
     }
 
     public Long getId() { return id; }
+    public Long getVersion() { return version; }
 
     public WorkoutSession getWorkoutSession() { return workoutSession; }
     public void setWorkoutSession(WorkoutSession workoutSession) { this.workoutSession = workoutSession; }
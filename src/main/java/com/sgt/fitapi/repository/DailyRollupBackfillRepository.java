@@ -0,0 +1,14 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.DailyRollupBackfill;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface DailyRollupBackfillRepository extends JpaRepository<DailyRollupBackfill, Long> {
+
+    @Query("select b.userId from DailyRollupBackfill b order by b.userId")
+    List<Long> findUserIds(Pageable pageable);
+}
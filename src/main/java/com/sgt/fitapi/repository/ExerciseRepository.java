@@ -3,8 +3,33 @@ package com.sgt.fitapi.repository;
 import com.sgt.fitapi.model.Exercise;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ExerciseRepository extends
         JpaRepository<Exercise, Long>,
         JpaSpecificationExecutor<Exercise> {
+
+    // Postgres only (pg_trgm, see V4 migration): both predicates on lower(name) are served by
+    // idx_exercises_name_trgm. <% matches when the query is similar to some part of the name.
+    // The query is a literal substring: \, % and _ in it are escaped before it becomes a LIKE pattern.
+    @Query(value = """
+            select e.* from exercises e
+            where (lower(e.name) like '%' || replace(replace(replace(lower(:q), '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' escape '\\'
+                   or lower(:q) <% lower(e.name))
+              and (cast(:muscleGroup as text) is null or lower(e.muscle_group) = lower(cast(:muscleGroup as text)))
+              and (cast(:equipment as text) is null or lower(e.equipment) = lower(cast(:equipment as text)))
+              and (cast(:isIsometric as boolean) is null or e.is_isometric = cast(:isIsometric as boolean))
+            order by word_similarity(lower(:q), lower(e.name)) desc,
+                     similarity(lower(:q), lower(e.name)) desc,
+                     e.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Exercise> searchBySimilarity(@Param("q") String q,
+                                      @Param("muscleGroup") String muscleGroup,
+                                      @Param("equipment") String equipment,
+                                      @Param("isIsometric") Boolean isIsometric,
+                                      @Param("limit") int limit);
 }
@@ -0,0 +1,14 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.PersonalRecordBackfill;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PersonalRecordBackfillRepository extends JpaRepository<PersonalRecordBackfill, Long> {
+
+    @Query("select b.userId from PersonalRecordBackfill b order by b.userId")
+    List<Long> findUserIds(Pageable pageable);
+}
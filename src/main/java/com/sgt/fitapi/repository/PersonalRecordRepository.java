@@ -0,0 +1,32 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.PersonalRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, PersonalRecord.Key> {
+
+    // One user's records, by the (user_id, exercise_id) primary key
+    List<PersonalRecord> findByIdUserId(Long userId);
+
+    @Query("""
+            select r from PersonalRecord r
+            where r.id.userId = :userId
+              and r.id.exerciseId in :exerciseIds
+            """)
+    List<PersonalRecord> findForExercises(@Param("userId") Long userId,
+                                          @Param("exerciseIds") Collection<Long> exerciseIds);
+
+    // Users with an estimated 1RM from a formula other than the configured one
+    @Query("select distinct r.id.userId from PersonalRecord r where r.formula <> :formula")
+    List<Long> findUserIdsWithOtherFormula(@Param("formula") String formula);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PersonalRecord r where r.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,27 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.PersonalRepRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PersonalRepRecordRepository extends JpaRepository<PersonalRepRecord, PersonalRepRecord.Key> {
+
+    // Range scan on the (user_id, exercise_id, weight) primary key
+    @Query("""
+            select r from PersonalRepRecord r
+            where r.id.userId = :userId
+              and r.id.exerciseId in :exerciseIds
+            order by r.id.exerciseId, r.id.weight
+            """)
+    List<PersonalRepRecord> findForExercises(@Param("userId") Long userId,
+                                             @Param("exerciseIds") Collection<Long> exerciseIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PersonalRepRecord r where r.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,52 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.dto.analytics.DailyExerciseVolume;
+import com.sgt.fitapi.model.UserDailyExerciseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UserDailyExerciseRollupRepository extends
+        JpaRepository<UserDailyExerciseRollup, UserDailyExerciseRollup.Key> {
+
+    // Inclusive local-date range, served by the (user_id, local_date, exercise_id) primary key
+    default List<DailyExerciseVolume> findDaily(Long userId, LocalDate from, LocalDate to, Long exerciseId) {
+        return exerciseId == null
+                ? findDaily(userId, from, to)
+                : findDailyForExercise(userId, from, to, exerciseId);
+    }
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.DailyExerciseVolume(
+                r.id.localDate, e.id, e.name, r.volume, cast(r.setsCount as Long), r.repsTotal, r.maxWeight)
+            from UserDailyExerciseRollup r
+            join Exercise e on e.id = r.id.exerciseId
+            where r.id.userId = :userId
+              and r.id.localDate between :from and :to
+            """)
+    List<DailyExerciseVolume> findDaily(@Param("userId") Long userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.DailyExerciseVolume(
+                r.id.localDate, e.id, e.name, r.volume, cast(r.setsCount as Long), r.repsTotal, r.maxWeight)
+            from UserDailyExerciseRollup r
+            join Exercise e on e.id = r.id.exerciseId
+            where r.id.userId = :userId
+              and r.id.localDate between :from and :to
+              and r.id.exerciseId = :exerciseId
+            """)
+    List<DailyExerciseVolume> findDailyForExercise(@Param("userId") Long userId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to,
+                                                   @Param("exerciseId") Long exerciseId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserDailyExerciseRollup r where r.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
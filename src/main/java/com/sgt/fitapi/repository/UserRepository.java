@@ -2,6 +2,8 @@ package com.sgt.fitapi.repository;
 
 import com.sgt.fitapi.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -10,4 +12,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Row lock on the user only (nothing is loaded); serialises writes to per-user derived data
+    @Query(value = "select id from users where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.model.WorkoutSessionExerciseSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WorkoutSessionExerciseSummaryRepository extends
+        JpaRepository<WorkoutSessionExerciseSummary, WorkoutSessionExerciseSummary.Key> {
+
+    // Summary breakdown with exercise names, in the same shape/order as WorkoutSetRepository.sumVolumeByExercise
+    @Query("""
+            select new com.sgt.fitapi.dto.workout.ExerciseVolumeView(
+                e.id, e.name, es.volume, cast(es.setsCount as Long))
+            from WorkoutSessionExerciseSummary es
+            join Exercise e on e.id = es.id.exerciseId
+            where es.id.workoutSessionId = :workoutSessionId
+            order by e.name
+            """)
+    List<ExerciseVolumeView> findBreakdown(@Param("workoutSessionId") Long workoutSessionId);
+
+    List<WorkoutSessionExerciseSummary> findByIdWorkoutSessionId(Long workoutSessionId);
+}
@@ -1,18 +1,28 @@
 package com.sgt.fitapi.repository;
 
+import com.sgt.fitapi.dto.analytics.SessionStart;
 import com.sgt.fitapi.model.WorkoutSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface WorkoutSessionRepository extends
         JpaRepository<WorkoutSession, Long>,
         JpaSpecificationExecutor<WorkoutSession> {
 
+    // Matches idx_workout_sessions_user_started (user_id, started_at DESC), with id as tie-breaker
+    Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "startedAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
     Page<WorkoutSession> findByUserIdAndStartedAtBetween(Long userId,
                                                          Instant from,
                                                          Instant to,
@@ -21,4 +31,56 @@ public interface WorkoutSessionRepository extends
     Page<WorkoutSession> findByUserId(Long userId, Pageable pageable);
 
     Optional<WorkoutSession> findByIdAndUserId(Long id, Long userId);
+
+    // Ownership check and ETag in one primary-key lookup, for conditional GETs
+    @Query("select s.version from WorkoutSession s where s.id = :id and s.userId = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // For set writes: atomic in the database, so concurrent set writes to one session each get their own version
+    // without conflicting with each other (session edits conflict through @Version instead)
+    @Modifying(flushAutomatically = true)
+    @Query("update WorkoutSession s set s.version = s.version + 1 where s.id = :id")
+    void incrementVersion(@Param("id") Long id);
+
+    // Start times of sessions that have at least one set (optionally of one exercise), for analytics session counts
+    default List<SessionStart> findStartsWithSets(Long userId, Instant from, Instant to, Long exerciseId) {
+        return exerciseId == null
+                ? findStartsWithSets(userId, from, to)
+                : findStartsWithSetsOfExercise(userId, from, to, exerciseId);
+    }
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.SessionStart(s.startedAt, s.timezone)
+            from WorkoutSession s
+            where s.userId = :userId
+              and s.startedAt >= :from
+              and s.startedAt < :to
+              and exists (select 1 from WorkoutSet ws where ws.workoutSession = s)
+            """)
+    List<SessionStart> findStartsWithSets(@Param("userId") Long userId,
+                                          @Param("from") Instant from,
+                                          @Param("to") Instant to);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.SessionStart(s.startedAt, s.timezone)
+            from WorkoutSession s
+            where s.userId = :userId
+              and s.startedAt >= :from
+              and s.startedAt < :to
+              and exists (select 1 from WorkoutSet ws where ws.workoutSession = s and ws.exercise.id = :exerciseId)
+            """)
+    List<SessionStart> findStartsWithSetsOfExercise(@Param("userId") Long userId,
+                                                    @Param("from") Instant from,
+                                                    @Param("to") Instant to,
+                                                    @Param("exerciseId") Long exerciseId);
+
+    // Keyset walk over all session ids, for maintenance jobs
+    @Query("select s.id from WorkoutSession s where s.id > :afterId order by s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page in KEYSET_ORDER: a LIMIT query with no OFFSET and no count(*).
+    // Combine the filter with WorkoutSessionSpecs.after(...) to continue from a previous page.
+    default List<WorkoutSession> findKeysetPage(Specification<WorkoutSession> spec, int limit) {
+        return findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(limit).all());
+    }
 }
@@ -22,4 +22,21 @@ public final class WorkoutSessionSpecs {
         if (to == null) return Specification.unrestricted();
         return (root, cq, cb) -> cb.lessThanOrEqualTo(root.get("startedAt"), to);
     }
+
+    // Keyset seek for (startedAt desc, id desc) ordering: rows strictly after the given position.
+    // The outer startedAt <= bound is implied by the OR but gives the planner a range on
+    // (user_id, started_at DESC) to seek to, instead of filtering from the user's newest session.
+    public static Specification<WorkoutSession> after(Instant startedAt, Long id) {
+        if (startedAt == null || id == null) return Specification.unrestricted();
+        return (root, cq, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("startedAt"), startedAt),
+                cb.or(
+                        cb.lessThan(root.get("startedAt"), startedAt),
+                        cb.and(
+                                cb.equal(root.get("startedAt"), startedAt),
+                                cb.lessThan(root.get("id"), id)
+                        )
+                )
+        );
+    }
 }
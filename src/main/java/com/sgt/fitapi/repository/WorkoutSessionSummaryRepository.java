@@ -0,0 +1,18 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.WorkoutSessionSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface WorkoutSessionSummaryRepository extends JpaRepository<WorkoutSessionSummary, Long> {
+
+    // Row lock serialises concurrent set writes against the same session's summary
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from WorkoutSessionSummary s where s.workoutSessionId = :workoutSessionId")
+    Optional<WorkoutSessionSummary> findForUpdate(@Param("workoutSessionId") Long workoutSessionId);
+}
@@ -1,15 +1,182 @@
 package com.sgt.fitapi.repository;
 
+import com.sgt.fitapi.dto.analytics.ProgressSet;
+import com.sgt.fitapi.dto.analytics.SessionExerciseVolume;
+import com.sgt.fitapi.dto.records.RecordCandidate;
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.dto.workout.WorkoutSetView;
 import com.sgt.fitapi.model.WorkoutSet;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface WorkoutSetRepository extends JpaRepository<WorkoutSet, Long> {
 
-    // All sets for a session
+    // All sets for a session (exercise fetched in the same query)
+    @EntityGraph(attributePaths = "exercise")
     List<WorkoutSet> findByWorkoutSessionId(Long workoutSessionId);
 
     // All sets for a session + exercise (e.g., all bench sets in that workout)
+    @EntityGraph(attributePaths = "exercise")
     List<WorkoutSet> findByWorkoutSessionIdAndExerciseId(Long workoutSessionId, Long exerciseId);
+
+    // Set owned by the given user, resolved with a single join on the session
+    Optional<WorkoutSet> findByIdAndWorkoutSessionUserId(Long id, Long userId);
+
+    // ===== read-only projections straight into WorkoutSetView (one query, no entities) =====
+
+    @Query("""
+            select new com.sgt.fitapi.dto.workout.WorkoutSetView(
+                ws.id, e.id, e.name, ws.setNumber, ws.reps, ws.weight, ws.rpe, ws.restSeconds, ws.notes)
+            from WorkoutSet ws
+            join ws.exercise e
+            where ws.workoutSession.id = :workoutSessionId
+            order by ws.setNumber, ws.id
+            """)
+    List<WorkoutSetView> findViewsByWorkoutSessionId(@Param("workoutSessionId") Long workoutSessionId);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.workout.WorkoutSetView(
+                ws.id, e.id, e.name, ws.setNumber, ws.reps, ws.weight, ws.rpe, ws.restSeconds, ws.notes)
+            from WorkoutSet ws
+            join ws.exercise e
+            where ws.workoutSession.id = :workoutSessionId
+              and e.id = :exerciseId
+            order by ws.setNumber, ws.id
+            """)
+    List<WorkoutSetView> findViewsByWorkoutSessionIdAndExerciseId(@Param("workoutSessionId") Long workoutSessionId,
+                                                                  @Param("exerciseId") Long exerciseId);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.workout.WorkoutSetView(
+                ws.id, e.id, e.name, ws.setNumber, ws.reps, ws.weight, ws.rpe, ws.restSeconds, ws.notes)
+            from WorkoutSet ws
+            join ws.exercise e
+            join ws.workoutSession s
+            where ws.id = :id
+              and s.userId = :userId
+            """)
+    Optional<WorkoutSetView> findViewByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Ownership check and ETag in one lookup, for conditional GETs
+    @Query("select ws.version from WorkoutSet ws where ws.id = :id and ws.workoutSession.userId = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // ===== aggregates =====
+
+    long countByWorkoutSessionId(Long workoutSessionId);
+
+    // Per-exercise volume for a session; sets missing reps or weight don't contribute
+    @Query("""
+            select new com.sgt.fitapi.dto.workout.ExerciseVolumeView(
+                e.id, e.name, sum(ws.reps * ws.weight), count(ws))
+            from WorkoutSet ws
+            join ws.exercise e
+            where ws.workoutSession.id = :workoutSessionId
+              and ws.reps is not null
+              and ws.weight is not null
+            group by e.id, e.name
+            order by e.name
+            """)
+    List<ExerciseVolumeView> sumVolumeByExercise(@Param("workoutSessionId") Long workoutSessionId);
+
+    // ===== analytics: per (session, exercise) totals over a time range, one query =====
+    // Sessions are found through the (user_id, started_at) index, sets through (workout_session_id, exercise_id)
+
+    default List<SessionExerciseVolume> sumVolumeBySessionAndExercise(Long userId, Instant from, Instant to, Long exerciseId) {
+        return exerciseId == null
+                ? sumVolumeBySessionAndExercise(userId, from, to)
+                : sumVolumeBySessionForExercise(userId, from, to, exerciseId);
+    }
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.SessionExerciseVolume(
+                s.id, s.startedAt, s.timezone, e.id, e.name,
+                sum(ws.reps * ws.weight), count(ws), sum(ws.reps), max(ws.weight))
+            from WorkoutSet ws
+            join ws.workoutSession s
+            join ws.exercise e
+            where s.userId = :userId
+              and s.startedAt >= :from
+              and s.startedAt < :to
+            group by s.id, s.startedAt, s.timezone, e.id, e.name
+            """)
+    List<SessionExerciseVolume> sumVolumeBySessionAndExercise(@Param("userId") Long userId,
+                                                              @Param("from") Instant from,
+                                                              @Param("to") Instant to);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.SessionExerciseVolume(
+                s.id, s.startedAt, s.timezone, e.id, e.name,
+                sum(ws.reps * ws.weight), count(ws), sum(ws.reps), max(ws.weight))
+            from WorkoutSet ws
+            join ws.workoutSession s
+            join ws.exercise e
+            where s.userId = :userId
+              and s.startedAt >= :from
+              and s.startedAt < :to
+              and e.id = :exerciseId
+            group by s.id, s.startedAt, s.timezone, e.id, e.name
+            """)
+    List<SessionExerciseVolume> sumVolumeBySessionForExercise(@Param("userId") Long userId,
+                                                              @Param("from") Instant from,
+                                                              @Param("to") Instant to,
+                                                              @Param("exerciseId") Long exerciseId);
+
+    // A user's whole history in the same shape, for the daily rollup backfill
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.SessionExerciseVolume(
+                s.id, s.startedAt, s.timezone, e.id, e.name,
+                sum(ws.reps * ws.weight), count(ws), sum(ws.reps), max(ws.weight))
+            from WorkoutSet ws
+            join ws.workoutSession s
+            join ws.exercise e
+            where s.userId = :userId
+            group by s.id, s.startedAt, s.timezone, e.id, e.name
+            """)
+    List<SessionExerciseVolume> sumVolumeBySessionAndExerciseForUser(@Param("userId") Long userId);
+
+    // ===== progress charts: one exercise's sets across a user's sessions in a time range =====
+    // Sessions through (user_id, started_at), then sets through the covering (workout_session_id, exercise_id) index
+
+    @Query("""
+            select new com.sgt.fitapi.dto.analytics.ProgressSet(s.id, s.startedAt, s.timezone, ws.weight, ws.reps)
+            from WorkoutSet ws
+            join ws.workoutSession s
+            where s.userId = :userId
+              and s.startedAt >= :from
+              and s.startedAt < :to
+              and ws.exercise.id = :exerciseId
+            order by s.startedAt, s.id
+            """)
+    List<ProgressSet> findProgressSets(@Param("userId") Long userId,
+                                       @Param("exerciseId") Long exerciseId,
+                                       @Param("from") Instant from,
+                                       @Param("to") Instant to);
+
+    // ===== personal records: the sets a user's records are judged on =====
+
+    @Query("""
+            select new com.sgt.fitapi.dto.records.RecordCandidate(ws.id, ws.exercise.id, ws.weight, ws.reps, s.startedAt)
+            from WorkoutSet ws
+            join ws.workoutSession s
+            where s.userId = :userId
+              and ws.exercise.id in :exerciseIds
+            """)
+    List<RecordCandidate> findRecordCandidates(@Param("userId") Long userId,
+                                               @Param("exerciseIds") Collection<Long> exerciseIds);
+
+    @Query("""
+            select new com.sgt.fitapi.dto.records.RecordCandidate(ws.id, ws.exercise.id, ws.weight, ws.reps, s.startedAt)
+            from WorkoutSet ws
+            join ws.workoutSession s
+            where s.userId = :userId
+            """)
+    List<RecordCandidate> findRecordCandidatesForUser(@Param("userId") Long userId);
 }
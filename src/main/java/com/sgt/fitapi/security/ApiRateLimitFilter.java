@@ -0,0 +1,81 @@
+package com.sgt.fitapi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.security.ApiRateLimiter.RouteClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-user request limits, applied right after JwtAuthenticationFilter so a client looping on one
+// endpoint is turned away before it reaches a controller or a database connection.
+// Anonymous requests pass through: login and register have their own limits.
+@Component
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private final ApiRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ApiRateLimitFilter(ApiRateLimiter limiter,
+                              ObjectMapper objectMapper,
+                              @Value("${fitapi.rate-limit.enabled:true}") boolean enabled) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!enabled || authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Duration wait = limiter.acquire(user.getId(), routeClass(request));
+        if (wait.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Written here rather than via sendError: the error dispatch would come back through security
+        long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Rate limit exceeded, retry in " + retryAfterSeconds + "s");
+        body.put("path", request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    static RouteClass routeClass(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return RouteClass.WRITE;
+        }
+        return request.getRequestURI().startsWith("/workouts/export") ? RouteClass.EXPORT : RouteClass.READ;
+    }
+}
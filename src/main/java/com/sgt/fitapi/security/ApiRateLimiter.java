@@ -0,0 +1,151 @@
+package com.sgt.fitapi.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per-user token buckets, one per route class, behind ApiRateLimitFilter.
+// Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA): a request is
+// allowed if it would not push that time more than a full burst ahead of now. That is exactly a
+// token bucket of `capacity` tokens refilled at `per-minute`, updated with one CAS and no locks.
+@Component
+public class ApiRateLimiter implements MeterBinder {
+
+    public enum RouteClass { READ, WRITE, EXPORT }
+
+    private final ConcurrentHashMap<Long, UserBuckets> users = new ConcurrentHashMap<>();
+    private final EnumMap<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+    private final EnumMap<RouteClass, LongAdder> allowed = new EnumMap<>(RouteClass.class);
+    private final EnumMap<RouteClass, LongAdder> rejected = new EnumMap<>(RouteClass.class);
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public ApiRateLimiter(@Value("${fitapi.rate-limit.reads.capacity:120}") int readCapacity,
+                          @Value("${fitapi.rate-limit.reads.per-minute:600}") int readsPerMinute,
+                          @Value("${fitapi.rate-limit.writes.capacity:60}") int writeCapacity,
+                          @Value("${fitapi.rate-limit.writes.per-minute:300}") int writesPerMinute,
+                          @Value("${fitapi.rate-limit.exports.capacity:3}") int exportCapacity,
+                          @Value("${fitapi.rate-limit.exports.per-minute:10}") int exportsPerMinute) {
+        this(Map.of(RouteClass.READ, new Limit(readCapacity, readsPerMinute),
+                RouteClass.WRITE, new Limit(writeCapacity, writesPerMinute),
+                RouteClass.EXPORT, new Limit(exportCapacity, exportsPerMinute)), System::nanoTime);
+    }
+
+    public ApiRateLimiter(Map<RouteClass, Limit> limits, LongSupplier nanoClock) {
+        this.limits.putAll(limits);
+        this.nanoClock = nanoClock;
+        for (RouteClass routeClass : RouteClass.values()) {
+            allowed.put(routeClass, new LongAdder());
+            rejected.put(routeClass, new LongAdder());
+        }
+    }
+
+    // Zero if the request may proceed, otherwise how long until a token is available
+    public Duration acquire(Long userId, RouteClass routeClass) {
+        Limit limit = limits.get(routeClass);
+        UserBuckets buckets = users.get(userId);
+        if (buckets == null) {
+            buckets = users.computeIfAbsent(userId, id -> new UserBuckets());
+        }
+        AtomicLong bucket = buckets.bucket(routeClass);
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + limit.intervalNanos();
+            long ahead = next - now;
+            if (ahead > limit.burstNanos()) {
+                rejected.get(routeClass).increment();
+                return Duration.ofNanos(ahead - limit.burstNanos());
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                allowed.get(routeClass).increment();
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    // A user whose buckets have all refilled is indistinguishable from a new one. A request racing
+    // the removal books its token in the dropped entry, which costs the user nothing.
+    @Scheduled(initialDelayString = "${fitapi.rate-limit.sweep-interval:5m}",
+            fixedDelayString = "${fitapi.rate-limit.sweep-interval:5m}")
+    public void sweep() {
+        long now = nanoClock.getAsLong();
+        users.values().removeIf(buckets -> buckets.idle(now));
+    }
+
+    int trackedUsers() {
+        return users.size();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (RouteClass routeClass : RouteClass.values()) {
+            String tag = routeClass.name().toLowerCase();
+            FunctionCounter.builder("api.rate.limit.requests", allowed.get(routeClass), LongAdder::sum)
+                    .tag("route_class", tag)
+                    .tag("result", "allowed")
+                    .description("Authenticated requests admitted by the per-user rate limiter")
+                    .register(registry);
+            FunctionCounter.builder("api.rate.limit.requests", rejected.get(routeClass), LongAdder::sum)
+                    .tag("route_class", tag)
+                    .tag("result", "rejected")
+                    .description("Authenticated requests refused with 429 by the per-user rate limiter")
+                    .register(registry);
+        }
+        Gauge.builder("api.rate.limit.users", users, Map::size)
+                .description("Users with a partly drained bucket on this node")
+                .register(registry);
+    }
+
+    public record Limit(int capacity, int perMinute) {
+        private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+        public Limit {
+            if (capacity < 1 || perMinute < 1) {
+                throw new IllegalArgumentException("Rate limit capacity and per-minute must be positive");
+            }
+        }
+
+        // One token's worth of time, and how far ahead of now a full burst may book
+        long intervalNanos() {
+            return MINUTE_NANOS / perMinute;
+        }
+
+        long burstNanos() {
+            return intervalNanos() * capacity;
+        }
+    }
+
+    private static final class UserBuckets {
+        private final AtomicLong read = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong write = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong export = new AtomicLong(Long.MIN_VALUE);
+
+        AtomicLong bucket(RouteClass routeClass) {
+            return switch (routeClass) {
+                case READ -> read;
+                case WRITE -> write;
+                case EXPORT -> export;
+            };
+        }
+
+        boolean idle(long now) {
+            return read.get() <= now && write.get() <= now && export.get() <= now;
+        }
+    }
+}
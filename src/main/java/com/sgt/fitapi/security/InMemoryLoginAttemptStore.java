@@ -0,0 +1,125 @@
+package com.sgt.fitapi.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-node store (security.login-rate-limit.store=memory): limits apply per replica.
+// Windows are mutated in place under the map's per-key lock, so a failure allocates nothing once
+// its key is tracked. Size is capped: at the cap one pass frees a tenth of the capacity (expired
+// windows first, then single failures), so the scan is paid once per that many new keys.
+@Component
+@ConditionalOnProperty(name = "security.login-rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    // makeRoom() stops once the map is this small
+    private final int compactTo;
+
+    @Autowired
+    public InMemoryLoginAttemptStore(@Value("${security.login-rate-limit.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.compactTo = maxEntries - Math.max(1, maxEntries / 10);
+    }
+
+    @Override
+    public int failures(String key, Instant cutoff) {
+        Window window = windows.get(key);
+        return window == null ? 0 : window.failures(cutoff.toEpochMilli());
+    }
+
+    @Override
+    public void recordFailure(String key, Instant now, Instant cutoff) {
+        long nowMillis = now.toEpochMilli();
+        long cutoffMillis = cutoff.toEpochMilli();
+        if (windows.size() >= maxEntries && !windows.containsKey(key)) {
+            makeRoom(cutoff);
+        }
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                return new Window(nowMillis);
+            }
+            window.fail(nowMillis, cutoffMillis);
+            return window;
+        });
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    @Override
+    public int sweep(Instant cutoff) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        int removed = 0;
+        for (String key : windows.keySet()) {
+            // Checked and removed atomically so a concurrent failure can't be dropped with its window
+            if (windows.computeIfPresent(key, (k, window) -> window.expired(cutoffMillis) ? null : window) == null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private synchronized void makeRoom(Instant cutoff) {
+        // Another thread may have compacted while we waited
+        if (windows.size() < maxEntries) {
+            return;
+        }
+        sweep(cutoff);
+        if (windows.size() <= compactTo) {
+            return;
+        }
+        // Still mostly live windows: forget stray single failures before anything closer to a block
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> window.failures(Long.MIN_VALUE) <= 1 ? null : window);
+            if (windows.size() <= compactTo) {
+                return;
+            }
+        }
+        for (String key : windows.keySet()) {
+            windows.remove(key);
+            if (windows.size() <= compactTo) {
+                return;
+            }
+        }
+    }
+
+    // Written only inside compute (per-key lock); synchronized for readers outside it
+    private static final class Window {
+        private long startMillis;
+        private int failures;
+
+        Window(long startMillis) {
+            this.startMillis = startMillis;
+            this.failures = 1;
+        }
+
+        synchronized void fail(long nowMillis, long cutoffMillis) {
+            if (startMillis < cutoffMillis) {
+                startMillis = nowMillis;
+                failures = 1;
+            } else {
+                failures++;
+            }
+        }
+
+        synchronized int failures(long cutoffMillis) {
+            return startMillis < cutoffMillis ? 0 : failures;
+        }
+
+        synchronized boolean expired(long cutoffMillis) {
+            return startMillis < cutoffMillis;
+        }
+    }
+}
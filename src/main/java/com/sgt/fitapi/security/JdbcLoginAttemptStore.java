@@ -0,0 +1,71 @@
+package com.sgt.fitapi.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Shared store (security.login-rate-limit.store=jdbc) on the login_attempts table (V10), so every node
+// enforces one limit. Each failure is a single-row UPDATE whose CASE expressions read the row's current
+// values under its row lock, so concurrent failures on any node are never lost. Statements run in
+// autocommit; nothing here joins the caller's transaction.
+@Component
+@ConditionalOnProperty(name = "security.login-rate-limit.store", havingValue = "jdbc")
+public class JdbcLoginAttemptStore implements LoginAttemptStore {
+
+    private static final String RECORD_FAILURE = """
+            UPDATE login_attempts
+            SET failures = CASE WHEN window_start < ? THEN 1 ELSE failures + 1 END,
+                window_start = CASE WHEN window_start < ? THEN ? ELSE window_start END
+            WHERE attempt_key = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcLoginAttemptStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int failures(String key, Instant cutoff) {
+        List<Integer> failures = jdbcTemplate.queryForList(
+                "SELECT failures FROM login_attempts WHERE attempt_key = ? AND window_start >= ?",
+                Integer.class, key, utc(cutoff));
+        return failures.isEmpty() ? 0 : failures.get(0);
+    }
+
+    @Override
+    public void recordFailure(String key, Instant now, Instant cutoff) {
+        OffsetDateTime nowUtc = utc(now);
+        OffsetDateTime cutoffUtc = utc(cutoff);
+        if (jdbcTemplate.update(RECORD_FAILURE, cutoffUtc, cutoffUtc, nowUtc, key) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO login_attempts (attempt_key, window_start, failures) VALUES (?, ?, 1)",
+                    key, nowUtc);
+        } catch (DuplicateKeyException e) {
+            // Another node (or thread) inserted the first failure in between; count this one on top
+            jdbcTemplate.update(RECORD_FAILURE, cutoffUtc, cutoffUtc, nowUtc, key);
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        jdbcTemplate.update("DELETE FROM login_attempts WHERE attempt_key = ?", key);
+    }
+
+    @Override
+    public int sweep(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM login_attempts WHERE window_start < ?", utc(cutoff));
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
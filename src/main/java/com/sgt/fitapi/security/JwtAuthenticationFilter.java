@@ -20,11 +20,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
 
     public JwtAuthenticationFilter(JwtService jwtService,
-                                   UserDetailsService userDetailsService) {
+                                   UserDetailsService userDetailsService,
+                                   UserPrincipalCache principalCache) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -43,12 +46,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
         try {
-            String username = jwtService.extractUsername(token);
+            // Signature and expiry are checked once here; the claims are reused below
+            JwtClaims claims = jwtService.verify(token);
+            String username = claims.subject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Served from the principal cache; only misses hit the users table
+                UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
 
-                if (jwtService.isTokenValid(token, userDetails)) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
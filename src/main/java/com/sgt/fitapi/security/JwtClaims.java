@@ -0,0 +1,11 @@
+package com.sgt.fitapi.security;
+
+import java.time.Instant;
+
+// Verified JWT payload. Only the claims we issue are kept; anything else in the token is ignored.
+public record JwtClaims(String subject, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.getEpochSecond() < now.getEpochSecond();
+    }
+}
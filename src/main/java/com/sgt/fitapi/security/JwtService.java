@@ -1,7 +1,13 @@
 package com.sgt.fitapi.security;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -9,25 +15,76 @@ import org.springframework.stereotype.Service;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class JwtService {
 
-    private final byte[] secretBytes;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+
     private final long expirationMs;
     private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final String headerB64;
+
+    // Mac is not thread-safe; pre-initialised instances are borrowed from a shared pool instead of
+    // paying Mac.getInstance + init on every sign/verify. A pool rather than a ThreadLocal because
+    // with virtual threads (application-virtual-threads.yml) every request runs on a fresh thread.
+    private final SecretKeySpec key;
+    private final ConcurrentLinkedQueue<Mac> idleMacs = new ConcurrentLinkedQueue<>();
+
+    // Tokens that already passed signature verification, kept until their exp.
+    private final int verifiedCacheSize;
+    private final ConcurrentHashMap<String, JwtClaims> verifiedTokens = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final Timer validVerifications;
+    private final Timer invalidVerifications;
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.expiration-ms:3600000}") long expirationMs,
-            ObjectMapper objectMapper
+            @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
     ) {
-        this.secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
         this.expirationMs = expirationMs;
+        this.verifiedCacheSize = verifiedCacheSize;
         this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+
+        try {
+            String headerJson = objectMapper.writeValueAsString(Map.of("alg", "HS256", "typ", "JWT"));
+            this.headerB64 = base64UrlEncode(headerJson.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to build JWT header", e);
+        }
+        validVerifications = Timer.builder("jwt.verification.duration")
+                .tag("result", "valid")
+                .description("Time spent verifying JWT signatures and claims")
+                .register(meterRegistry);
+        invalidVerifications = Timer.builder("jwt.verification.duration")
+                .tag("result", "invalid")
+                .description("Time spent verifying JWT signatures and claims")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.verification.cache.hits", cacheHits, LongAdder::sum)
+                .description("Verifications answered from the verified-token cache")
+                .register(meterRegistry);
+        Gauge.builder("jwt.verification.cache.size", verifiedTokens, Map::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -41,16 +98,11 @@ public class JwtService {
         );
 
         try {
-            String headerJson = objectMapper.writeValueAsString(
-                    Map.of("alg", "HS256", "typ", "JWT")
-            );
             String payloadJson = objectMapper.writeValueAsString(payload);
-
-            String headerB64 = base64UrlEncode(headerJson.getBytes(StandardCharsets.UTF_8));
             String payloadB64 = base64UrlEncode(payloadJson.getBytes(StandardCharsets.UTF_8));
 
             String unsignedToken = headerB64 + "." + payloadB64;
-            String signatureB64 = base64UrlEncode(sign(unsignedToken.getBytes(StandardCharsets.UTF_8)));
+            String signatureB64 = base64UrlEncode(sign(unsignedToken.getBytes(StandardCharsets.US_ASCII)));
 
             return unsignedToken + "." + signatureB64;
         } catch (Exception e) {
@@ -58,31 +110,48 @@ public class JwtService {
         }
     }
 
-    public String extractUsername(String token) {
-        Map<String, Object> claims = parsePayload(token);
-        Object sub = claims.get("sub");
-        return sub != null ? sub.toString() : null;
-    }
+    /**
+     * Verifies signature and expiry in a single pass and returns the typed claims.
+     * Throws {@link IllegalArgumentException} for malformed, tampered or expired tokens.
+     */
+    public JwtClaims verify(String token) {
+        Instant now = Instant.now();
+
+        JwtClaims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.isExpired(now)) {
+                verifiedTokens.remove(token, cached);
+                throw new IllegalArgumentException("JWT expired");
+            }
+            cacheHits.increment();
+            return cached;
+        }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
+        // Only the full signature check is timed; cache hits are counted instead
+        long start = System.nanoTime();
+        JwtClaims claims;
         try {
-            Map<String, Object> claims = parsePayload(token);
-            String username = (String) claims.get("sub");
-            if (username == null || !username.equals(userDetails.getUsername())) {
-                return false;
+            claims = parseVerified(token);
+            if (claims.isExpired(now)) {
+                throw new IllegalArgumentException("JWT expired");
             }
+        } catch (IllegalArgumentException e) {
+            invalidVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        validVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        remember(token, claims, now);
+        return claims;
+    }
 
-            Object expObj = claims.get("exp");
-            if (expObj instanceof Number expNum) {
-                long expSeconds = expNum.longValue();
-                long nowSeconds = Instant.now().getEpochSecond();
-                if (expSeconds < nowSeconds) {
-                    return false; // expired
-                }
-            }
+    public String extractUsername(String token) {
+        return parseVerified(token).subject();
+    }
 
-            // signature already checked in parsePayload
-            return true;
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        try {
+            String username = verify(token).subject();
+            return username != null && username.equals(userDetails.getUsername());
         } catch (Exception e) {
             return false;
         }
@@ -90,48 +159,95 @@ public class JwtService {
 
     // ===== internal helpers =====
 
-    private Map<String, Object> parsePayload(String token) {
-        try {
-            String[] parts = token.split("\\.");
-            if (parts.length != 3) {
-                throw new IllegalArgumentException("Invalid JWT format");
-            }
+    private JwtClaims parseVerified(String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new IllegalArgumentException("Invalid JWT format");
+        }
 
-            String unsignedToken = parts[0] + "." + parts[1];
-            byte[] expectedSig = sign(unsignedToken.getBytes(StandardCharsets.UTF_8));
-            byte[] actualSig = base64UrlDecode(parts[2]);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
 
-            if (!constantTimeEquals(expectedSig, actualSig)) {
-                throw new IllegalArgumentException("Invalid JWT signature");
-            }
+        Mac mac = borrowMac();
+        mac.update(tokenBytes, 0, secondDot);
+        byte[] expectedSig = B64_ENCODER.encode(mac.doFinal());
+        idleMacs.offer(mac);
+        byte[] actualSig = Arrays.copyOfRange(tokenBytes, secondDot + 1, tokenBytes.length);
+
+        if (!MessageDigest.isEqual(expectedSig, actualSig)) {
+            throw new IllegalArgumentException("Invalid JWT signature");
+        }
 
-            byte[] payloadBytes = base64UrlDecode(parts[1]);
-            return objectMapper.readValue(payloadBytes, new TypeReference<>() {});
+        try {
+            byte[] payloadBytes = B64_DECODER.decode(Arrays.copyOfRange(tokenBytes, firstDot + 1, secondDot));
+            return readClaims(payloadBytes);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to parse JWT", e);
+            throw new IllegalArgumentException("Failed to parse JWT", e);
+        }
+    }
+
+    // Streams the payload instead of binding it to a Map; unknown claims are skipped.
+    private JwtClaims readClaims(byte[] payloadBytes) throws Exception {
+        String subject = null;
+        Instant issuedAt = null;
+        Instant expiresAt = null;
+
+        try (JsonParser parser = jsonFactory.createParser(payloadBytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("JWT payload is not an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "sub" -> subject = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "iat" -> issuedAt = value.isNumeric() ? Instant.ofEpochSecond(parser.getLongValue()) : null;
+                    case "exp" -> expiresAt = value.isNumeric() ? Instant.ofEpochSecond(parser.getLongValue()) : null;
+                    default -> parser.skipChildren();
+                }
+            }
         }
+        return new JwtClaims(subject, issuedAt, expiresAt);
     }
 
-    private byte[] sign(byte[] data) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        mac.init(new SecretKeySpec(secretBytes, "HmacSHA256"));
-        return mac.doFinal(data);
+    private void remember(String token, JwtClaims claims, Instant now) {
+        if (verifiedCacheSize <= 0 || claims.expiresAt() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(c -> c.isExpired(now));
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                // Still full of live tokens: start over rather than track recency on the hot path
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, claims);
     }
 
-    private static String base64UrlEncode(byte[] bytes) {
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    private byte[] sign(byte[] data) {
+        Mac mac = borrowMac();
+        byte[] signature = mac.doFinal(data);
+        idleMacs.offer(mac);
+        return signature;
     }
 
-    private static byte[] base64UrlDecode(String str) {
-        return Base64.getUrlDecoder().decode(str);
+    // The pool grows to the peak number of concurrent sign/verify calls; doFinal leaves a Mac reset
+    private Mac borrowMac() {
+        Mac mac = idleMacs.poll();
+        return mac != null ? mac : newMac();
     }
 
-    private static boolean constantTimeEquals(byte[] a, byte[] b) {
-        if (a.length != b.length) return false;
-        int result = 0;
-        for (int i = 0; i < a.length; i++) {
-            result |= a[i] ^ b[i];
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
         }
-        return result == 0;
+    }
+
+    private static String base64UrlEncode(byte[] bytes) {
+        return B64_ENCODER.encodeToString(bytes);
     }
 }
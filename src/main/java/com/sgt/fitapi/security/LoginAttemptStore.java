@@ -0,0 +1,19 @@
+package com.sgt.fitapi.security;
+
+import java.time.Instant;
+
+// Failed-login counters behind LoginRateLimiter, one fixed window per key.
+// A window that started before the cutoff (now minus the window length) has expired.
+public interface LoginAttemptStore {
+
+    // Failures in the key's current window, 0 if it has none or it has expired
+    int failures(String key, Instant cutoff);
+
+    // Counts a failure, starting a new window at now if the current one has expired
+    void recordFailure(String key, Instant now, Instant cutoff);
+
+    void reset(String key);
+
+    // Drops expired windows; returns how many were removed
+    int sweep(Instant cutoff);
+}
@@ -1,67 +1,94 @@
 package com.sgt.fitapi.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-// in memory rate limiter
+// Blocks an email after max-attempts failed logins within a fixed window.
+// Counters live in a LoginAttemptStore: per node in memory, or shared across nodes in Postgres.
 @Component
 public class LoginRateLimiter {
 
-    private static final int MAX_ATTEMPTS = 5;
-    private static final Duration WINDOW = Duration.ofMinutes(10);
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
 
-    private final ConcurrentHashMap<String, AttemptBucket> buckets = new ConcurrentHashMap<>();
+    private final LoginAttemptStore store;
+    private final int maxAttempts;
+    private final Duration window;
     private final Clock clock;
 
-    public LoginRateLimiter(Clock clock) {
-        this.clock = clock;
+    private final Timer allowedChecks;
+    private final Timer blockedChecks;
+    private final Counter failures;
+
+    @Autowired
+    public LoginRateLimiter(LoginAttemptStore store,
+                            @Value("${security.login-rate-limit.max-attempts:5}") int maxAttempts,
+                            @Value("${security.login-rate-limit.window:10m}") Duration window,
+                            MeterRegistry meterRegistry) {
+        this(store, maxAttempts, window, Clock.systemUTC(), meterRegistry);
     }
 
-    public LoginRateLimiter() {
-        this(Clock.systemUTC());
+    public LoginRateLimiter(LoginAttemptStore store, int maxAttempts, Duration window, Clock clock,
+                            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.maxAttempts = maxAttempts;
+        this.window = window;
+        this.clock = clock;
+        allowedChecks = Timer.builder("login.rate.limit.checks")
+                .tag("result", "allowed")
+                .description("Login rate-limit decisions and the time taken to read the attempt store")
+                .register(meterRegistry);
+        blockedChecks = Timer.builder("login.rate.limit.checks")
+                .tag("result", "blocked")
+                .description("Login rate-limit decisions and the time taken to read the attempt store")
+                .register(meterRegistry);
+        failures = Counter.builder("login.rate.limit.failures")
+                .description("Failed logins recorded against the rate limit")
+                .register(meterRegistry);
     }
 
     public void throwIfBlocked(String key) {
-        AttemptBucket bucket = buckets.get(key);
-        if (bucket == null) {
-            return;
-        }
-        if (bucket.isBlocked(clock.instant())) {
+        // Timed because with the jdbc store every login attempt pays a database round trip here
+        long start = System.nanoTime();
+        boolean blocked = store.failures(key, cutoff(clock.instant())) >= maxAttempts;
+        (blocked ? blockedChecks : allowedChecks).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (blocked) {
             throw new TooManyLoginAttemptsException("Too many login attempts. Please wait and try again.");
         }
     }
 
     public void onFailure(String key) {
         Instant now = clock.instant();
-        buckets.compute(key, (k, bucket) -> {
-            if (bucket == null) {
-                return new AttemptBucket(now, 1);
-            }
-            if (bucket.windowExpired(now)) {
-                return new AttemptBucket(now, 1);
-            }
-            return new AttemptBucket(bucket.windowStart, bucket.count + 1);
-        });
+        failures.increment();
+        store.recordFailure(key, now, cutoff(now));
     }
 
     public void onSuccess(String key) {
-        buckets.remove(key);
+        store.reset(key);
     }
 
-    private record AttemptBucket(Instant windowStart, int count) {
-        boolean windowExpired(Instant now) {
-            return now.isAfter(windowStart.plus(WINDOW));
+    // Keys are only removed on success otherwise; expired windows would pile up from one-off typos
+    @Scheduled(initialDelayString = "${security.login-rate-limit.sweep-interval:1m}",
+            fixedDelayString = "${security.login-rate-limit.sweep-interval:1m}")
+    public void sweep() {
+        int removed = store.sweep(cutoff(clock.instant()));
+        if (removed > 0) {
+            log.debug("Swept {} expired login attempt windows", removed);
         }
+    }
 
-        boolean isBlocked(Instant now) {
-            if (windowExpired(now)) {
-                return false;
-            }
-            return count >= MAX_ATTEMPTS;
-        }
+    private Instant cutoff(Instant now) {
+        return now.minus(window);
     }
 }
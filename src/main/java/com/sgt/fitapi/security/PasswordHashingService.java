@@ -0,0 +1,99 @@
+package com.sgt.fitapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Runs BCrypt hashing and verification (~100ms of CPU each) on a small dedicated pool so a login
+// storm can't occupy the request threads that serve workout traffic. Callers get a future and
+// release their request thread (async MVC); when the pool and its queue are full the work is
+// refused up front with RejectedExecutionException instead of queueing without bound.
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashers;
+    private final Duration retryAfter;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejections;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${fitapi.password-hashing.threads:2}") int threads,
+                                  @Value("${fitapi.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${fitapi.password-hashing.retry-after:1s}") Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+        this.hashers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        encodeTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .description("Time spent computing password hashes")
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .description("Time spent verifying passwords against their hashes")
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                .description("Time hashing work waited for a free hashing thread")
+                .register(meterRegistry);
+        rejections = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests refused because the pool and its queue were full")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", hashers, executor -> executor.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", hashers, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // How long a refused client should wait before retrying
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashers.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            }, hashers);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw e;
+        }
+    }
+}
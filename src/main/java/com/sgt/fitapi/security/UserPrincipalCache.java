@@ -0,0 +1,158 @@
+package com.sgt.fitapi.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Bounded, TTL-based cache of authenticated principals keyed by email.
+// Keeps the users table off the hot path of every authenticated request.
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final ConcurrentHashMap<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    // Every entry in insertion order. All entries share one TTL, so this is also expiry order and the
+    // head is always the next to go. Superseded entries stay queued until they reach the head.
+    private final ConcurrentLinkedQueue<CachedPrincipal> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    // Bumped on every invalidation so loads that raced with it are not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public UserPrincipalCache(@Value("${security.principal-cache.ttl:60s}") Duration ttl,
+                              @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this(ttl, maxSize, Clock.systemUTC());
+    }
+
+    public UserPrincipalCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        if (ttlMillis <= 0 || maxSize <= 0) {
+            misses.increment();
+            return loader.apply(email);
+        }
+
+        long now = clock.millis();
+        CachedPrincipal cached = entries.get(email);
+        if (cached != null && cached.expiresAtMillis > now) {
+            hits.increment();
+            return cached.principal;
+        }
+
+        misses.increment();
+        long generationBeforeLoad = generation.get();
+        UserDetails loaded = loader.apply(email);
+
+        if (generation.get() == generationBeforeLoad) {
+            makeRoomFor(email, now);
+            CachedPrincipal entry = new CachedPrincipal(email, loaded, now + ttlMillis);
+            entries.put(email, entry);
+            insertionOrder.add(entry);
+        }
+        return loaded;
+    }
+
+    // Call whenever a user's role, password or email changes so the next request reloads it.
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        if (email != null && entries.remove(email) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        int size = entries.size();
+        entries.clear();
+        insertionOrder.clear();
+        evictions.add(size);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .description("Principal lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .description("Principal lookups that went to the users table")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Principals evicted for capacity or invalidation")
+                .register(registry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tag("cache", CACHE_NAME)
+                .description("Principals currently cached")
+                .register(registry);
+    }
+
+    // ===== internal helpers =====
+
+    // Pops from the head of the insertion queue only: superseded entries are dropped, expired ones
+    // evicted, and live ones evicted oldest-first while the map is full. Each queued entry is popped
+    // at most once, so this is amortised O(1) per insert.
+    private void makeRoomFor(String email, long now) {
+        CachedPrincipal head;
+        while ((head = insertionOrder.peek()) != null) {
+            boolean live = entries.get(head.email) == head;
+            boolean full = entries.size() >= maxSize && !entries.containsKey(email);
+            if (live && head.expiresAtMillis > now && !full) {
+                return;
+            }
+            // Another thread may have popped it first; then just look at the new head
+            if (insertionOrder.remove(head) && live && entries.remove(head.email, head)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private record CachedPrincipal(String email, UserDetails principal, long expiresAtMillis) {
+    }
+}
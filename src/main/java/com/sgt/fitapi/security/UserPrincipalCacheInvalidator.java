@@ -0,0 +1,26 @@
+package com.sgt.fitapi.security;
+
+import com.sgt.fitapi.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener: evicts a cached principal whenever its user row changes
+// (role, password, ...), so revocations take effect on the next request on this node.
+@Component
+public class UserPrincipalCacheInvalidator {
+
+    // Resolved lazily: JPA-only contexts (e.g. @DataJpaTest slices) have no cache bean
+    private final ObjectProvider<UserPrincipalCache> principalCache;
+
+    public UserPrincipalCacheInvalidator(ObjectProvider<UserPrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.ifAvailable(cache -> cache.invalidate(user.getEmail()));
+    }
+}
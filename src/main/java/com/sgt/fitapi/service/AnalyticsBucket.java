@@ -0,0 +1,48 @@
+package com.sgt.fitapi.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+// Calendar buckets for the analytics endpoints, applied to the session's local date
+public enum AnalyticsBucket {
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    public abstract LocalDate start(LocalDate date);
+
+    public abstract LocalDate next(LocalDate start);
+
+    public static AnalyticsBucket parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bucket must be 'week' or 'month'");
+        }
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
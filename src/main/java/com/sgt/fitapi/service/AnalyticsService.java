@@ -0,0 +1,144 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.*;
+import com.sgt.fitapi.repository.UserDailyExerciseRollupRepository;
+import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.util.*;
+
+// Training analytics over a date range. Totals come from the daily rollups (one row per exercise per local day,
+// so cost follows the length of the range rather than the number of sets); users still waiting for their
+// rollup backfill are served by one GROUP BY over workout_sets instead. Bucketing runs here, because each
+// session belongs to the local date in its own timezone.
+@Service
+public class AnalyticsService {
+
+    private final WorkoutSetRepository setRepo;
+    private final WorkoutSessionRepository sessionRepo;
+    private final UserDailyExerciseRollupRepository rollupRepo;
+    private final DailyRollupService rollupService;
+
+    public AnalyticsService(WorkoutSetRepository setRepo,
+                            WorkoutSessionRepository sessionRepo,
+                            UserDailyExerciseRollupRepository rollupRepo,
+                            DailyRollupService rollupService) {
+        this.setRepo = setRepo;
+        this.sessionRepo = sessionRepo;
+        this.rollupRepo = rollupRepo;
+        this.rollupService = rollupService;
+    }
+
+    // from/to are inclusive local dates
+    @Transactional(readOnly = true)
+    public VolumeAnalyticsView volume(Long userId, LocalDate from, LocalDate to, AnalyticsBucket bucket, Long exerciseId) {
+        // Widened by the largest zone offset so every session whose local date is in range is included
+        Instant lower = from.atStartOfDay(ZoneOffset.UTC).toInstant().minus(DailyRollupService.MAX_ZONE_OFFSET);
+        Instant upper = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(DailyRollupService.MAX_ZONE_OFFSET);
+
+        List<DailyExerciseVolume> days;
+        List<LocalDate> sessionDays = new ArrayList<>();
+        if (rollupService.isBackfilled(userId)) {
+            // Rollups are per exercise, so distinct sessions are counted from the (much smaller) sessions table
+            days = rollupRepo.findDaily(userId, from, to, exerciseId);
+            Map<String, ZoneId> zones = new HashMap<>();
+            for (SessionStart start : sessionRepo.findStartsWithSets(userId, lower, upper, exerciseId)) {
+                ZoneId zone = zones.computeIfAbsent(String.valueOf(start.timezone()),
+                        tz -> DailyRollupService.zoneOf(start.timezone()));
+                sessionDays.add(start.startedAt().atZone(zone).toLocalDate());
+            }
+        } else {
+            List<SessionExerciseVolume> rows = setRepo.sumVolumeBySessionAndExercise(userId, lower, upper, exerciseId);
+            days = DailyRollupService.foldByDay(rows);
+            Set<Long> sessionsSeen = new HashSet<>();
+            for (SessionExerciseVolume row : rows) {
+                if (sessionsSeen.add(row.sessionId())) {
+                    sessionDays.add(DailyRollupService.localDate(row.startedAt(), row.timezone()));
+                }
+            }
+        }
+
+        VolumeAnalyticsView view = bucketVolume(days, sessionDays, from, to, bucket);
+        view.exerciseId = exerciseId;
+        return view;
+    }
+
+    // Pure function over per-day totals so it can be tested and benchmarked without a database.
+    // Days and session days outside [from, to] are ignored.
+    static VolumeAnalyticsView bucketVolume(List<DailyExerciseVolume> days, List<LocalDate> sessionDays,
+                                            LocalDate from, LocalDate to, AnalyticsBucket bucket) {
+        VolumeAnalyticsView view = new VolumeAnalyticsView();
+        view.from = from;
+        view.to = to;
+        view.bucket = bucket.label();
+
+        // Every bucket up front so gaps in training show up as zeros
+        TreeMap<LocalDate, BucketTotals> buckets = new TreeMap<>();
+        for (LocalDate start = bucket.start(from); !start.isAfter(to); start = bucket.next(start)) {
+            buckets.put(start, new BucketTotals(start, bucket.next(start).minusDays(1)));
+        }
+
+        for (DailyExerciseVolume day : days) {
+            if (day.localDate().isBefore(from) || day.localDate().isAfter(to)) {
+                continue;
+            }
+            BucketTotals totals = buckets.get(bucket.start(day.localDate()));
+            double volume = day.volume() != null ? day.volume() : 0.0;
+            int sets = day.setsCount() != null ? day.setsCount().intValue() : 0;
+            long reps = day.repsTotal() != null ? day.repsTotal() : 0L;
+
+            totals.view.totalVolume += volume;
+            totals.view.setsCount += sets;
+            totals.view.repsTotal += reps;
+
+            ExerciseTrendView trend = totals.perExercise.computeIfAbsent(day.exerciseId(), id -> {
+                ExerciseTrendView created = new ExerciseTrendView();
+                created.exerciseId = id;
+                created.exerciseName = day.exerciseName();
+                return created;
+            });
+            trend.volume += volume;
+            trend.setsCount += sets;
+            trend.repsTotal += reps;
+            if (day.maxWeight() != null) {
+                trend.maxWeight = Math.max(trend.maxWeight, day.maxWeight());
+            }
+        }
+
+        for (LocalDate sessionDay : sessionDays) {
+            if (!sessionDay.isBefore(from) && !sessionDay.isAfter(to)) {
+                buckets.get(bucket.start(sessionDay)).view.sessionsCount++;
+            }
+        }
+
+        for (BucketTotals totals : buckets.values()) {
+            // Same order as the per-session summary breakdown
+            totals.perExercise.values().stream()
+                    .sorted(Comparator.comparing((ExerciseTrendView trend) -> trend.exerciseName)
+                            .thenComparing(trend -> trend.exerciseId))
+                    .forEach(totals.view.exercises::add);
+
+            view.totalVolume += totals.view.totalVolume;
+            view.setsCount += totals.view.setsCount;
+            view.repsTotal += totals.view.repsTotal;
+            view.sessionsCount += totals.view.sessionsCount;
+            view.buckets.add(totals.view);
+        }
+        return view;
+    }
+
+    // ===== internal helpers =====
+
+    private static final class BucketTotals {
+        final VolumeBucketView view = new VolumeBucketView();
+        final Map<Long, ExerciseTrendView> perExercise = new HashMap<>();
+
+        BucketTotals(LocalDate start, LocalDate end) {
+            view.start = start;
+            view.end = end;
+        }
+    }
+}
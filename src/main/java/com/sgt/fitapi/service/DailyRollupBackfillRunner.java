@@ -0,0 +1,64 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.repository.DailyRollupBackfillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Builds daily rollups for users queued in user_daily_rollup_backfill (history written before the rollups existed).
+// Runs on a background thread so startup isn't held up; analytics read raw sets for a user until they're done.
+// Disable with --fitapi.rollups.backfill=false (or FITAPI_ROLLUPS_BACKFILL=false).
+@Component
+@ConditionalOnProperty(name = "fitapi.rollups.backfill", havingValue = "true", matchIfMissing = true)
+public class DailyRollupBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyRollupBackfillRunner.class);
+    private static final int PAGE_SIZE = 100;
+
+    private final DailyRollupBackfillRepository backfillRepo;
+    private final DailyRollupService rollupService;
+
+    public DailyRollupBackfillRunner(DailyRollupBackfillRepository backfillRepo,
+                                     DailyRollupService rollupService) {
+        this.backfillRepo = backfillRepo;
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(this::backfillAll, "daily-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfillAll() {
+        long users = 0;
+        long rows = 0;
+        while (true) {
+            // Finished users leave the queue, so the first page is always the remaining work
+            List<Long> userIds = backfillRepo.findUserIds(PageRequest.ofSize(PAGE_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // One transaction per user keeps the user lock short while traffic is being served
+            for (Long userId : userIds) {
+                try {
+                    rows += rollupService.backfill(userId);
+                    users++;
+                } catch (RuntimeException e) {
+                    log.error("Daily rollup backfill failed for user {}; analytics keep reading raw sets", userId, e);
+                    return;
+                }
+            }
+        }
+        if (users > 0) {
+            log.info("Backfilled {} daily rollup rows for {} users", rows, users);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.DailyExerciseVolume;
+import com.sgt.fitapi.dto.analytics.SessionExerciseVolume;
+import com.sgt.fitapi.model.UserDailyExerciseRollup;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.DailyRollupBackfillRepository;
+import com.sgt.fitapi.repository.UserDailyExerciseRollupRepository;
+import com.sgt.fitapi.repository.UserRepository;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.util.*;
+
+// Keeps user_daily_exercise_rollups in step with workout_sets (called by WorkoutWriteService).
+// Every change takes the user's row lock first, so concurrent writers and the backfill never interleave
+// read-modify-write cycles on the same rollup rows.
+@Service
+public class DailyRollupService {
+
+    // No zone is more than 18h away from UTC, so [day - 18h, day + 1 + 18h) holds every session of a local day
+    static final Duration MAX_ZONE_OFFSET = Duration.ofHours(18);
+
+    private final UserDailyExerciseRollupRepository rollupRepo;
+    private final DailyRollupBackfillRepository backfillRepo;
+    private final WorkoutSetRepository setRepo;
+    private final UserRepository userRepo;
+
+    public DailyRollupService(UserDailyExerciseRollupRepository rollupRepo,
+                              DailyRollupBackfillRepository backfillRepo,
+                              WorkoutSetRepository setRepo,
+                              UserRepository userRepo) {
+        this.rollupRepo = rollupRepo;
+        this.backfillRepo = backfillRepo;
+        this.setRepo = setRepo;
+        this.userRepo = userRepo;
+    }
+
+    // ========= Incremental maintenance =========
+
+    @Transactional
+    public void recordSetsAdded(WorkoutSession session, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+        userRepo.lockById(session.getUserId());
+        add(session.getUserId(), localDate(session.getStartedAt(), session.getTimezone()), totals(sets));
+    }
+
+    @Transactional
+    public void recordSetsRemoved(WorkoutSession session, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+        userRepo.lockById(session.getUserId());
+        remove(session.getUserId(), localDate(session.getStartedAt(), session.getTimezone()), totals(sets).keySet());
+    }
+
+    // The session's start time or timezone was edited; moves its sets to the new local day if that changed.
+    // The session must already be saved with its new values.
+    @Transactional
+    public void recordSessionMoved(WorkoutSession session, Instant previousStartedAt, String previousTimezone,
+                                   List<WorkoutSet> sets) {
+        LocalDate previousDay = localDate(previousStartedAt, previousTimezone);
+        LocalDate day = localDate(session.getStartedAt(), session.getTimezone());
+        if (sets.isEmpty() || day.equals(previousDay)) {
+            return;
+        }
+        userRepo.lockById(session.getUserId());
+        Map<Long, Totals> totals = totals(sets);
+        remove(session.getUserId(), previousDay, totals.keySet());
+        add(session.getUserId(), day, totals);
+    }
+
+    // ========= Backfill =========
+
+    // False while the user's history predates the rollups and hasn't been backfilled yet
+    @Transactional(readOnly = true)
+    public boolean isBackfilled(Long userId) {
+        return !backfillRepo.existsById(userId);
+    }
+
+    // Replaces all of a user's rollups with totals recomputed from workout_sets
+    @Transactional
+    public int backfill(Long userId) {
+        userRepo.lockById(userId);
+        rollupRepo.deleteByUserId(userId);
+
+        List<UserDailyExerciseRollup> rollups = new ArrayList<>();
+        for (DailyExerciseVolume day : foldByDay(setRepo.sumVolumeBySessionAndExerciseForUser(userId))) {
+            UserDailyExerciseRollup row = new UserDailyExerciseRollup(userId, day.localDate(), day.exerciseId());
+            copy(day, row);
+            rollups.add(row);
+        }
+        rollupRepo.saveAll(rollups);
+        backfillRepo.deleteById(userId);
+        return rollups.size();
+    }
+
+    // ========= Shared with AnalyticsService =========
+
+    // Merges per-(session, exercise) rows into per-(local day, exercise) totals, in date order
+    static List<DailyExerciseVolume> foldByDay(List<SessionExerciseVolume> rows) {
+        Map<String, ZoneId> zones = new HashMap<>();
+        TreeMap<LocalDate, Map<Long, DailyExerciseVolume>> days = new TreeMap<>();
+        for (SessionExerciseVolume row : rows) {
+            LocalDate day = row.startedAt().atZone(zones.computeIfAbsent(String.valueOf(row.timezone()),
+                    tz -> zoneOf(row.timezone()))).toLocalDate();
+            DailyExerciseVolume incoming = new DailyExerciseVolume(day, row.exerciseId(), row.exerciseName(),
+                    row.volume(), row.setsCount(), row.repsTotal(), row.maxWeight());
+            days.computeIfAbsent(day, d -> new LinkedHashMap<>()).merge(row.exerciseId(), incoming, DailyRollupService::merge);
+        }
+
+        List<DailyExerciseVolume> result = new ArrayList<>();
+        days.values().forEach(perExercise -> result.addAll(perExercise.values()));
+        return result;
+    }
+
+    static LocalDate localDate(Instant startedAt, String timezone) {
+        return startedAt.atZone(zoneOf(timezone)).toLocalDate();
+    }
+
+    // Timezones are free text on the session; anything unparseable is treated as UTC
+    static ZoneId zoneOf(String timezone) {
+        if (timezone == null) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    // ===== internal helpers =====
+
+    private void add(Long userId, LocalDate day, Map<Long, Totals> deltas) {
+        Map<Long, UserDailyExerciseRollup> existing = load(userId, day, deltas.keySet());
+        for (Map.Entry<Long, Totals> entry : deltas.entrySet()) {
+            Totals delta = entry.getValue();
+            UserDailyExerciseRollup row = existing.get(entry.getKey());
+            if (row == null) {
+                row = new UserDailyExerciseRollup(userId, day, entry.getKey());
+            }
+            row.setVolume(row.getVolume() + delta.volume);
+            row.setSetsCount(row.getSetsCount() + delta.setsCount);
+            row.setRepsTotal(row.getRepsTotal() + delta.repsTotal);
+            row.setMaxWeight(Math.max(row.getMaxWeight(), delta.maxWeight));
+            rollupRepo.save(row);
+        }
+    }
+
+    // Removals always recompute the affected rows: subtracting doubles would drift from the GROUP BY total
+    private void remove(Long userId, LocalDate day, Set<Long> exerciseIds) {
+        rebuildDay(userId, day, exerciseIds, load(userId, day, exerciseIds));
+    }
+
+    // Recomputes some exercises of one local day from workout_sets (the query flushes pending deletes first)
+    private void rebuildDay(Long userId, LocalDate day, Set<Long> exerciseIds, Map<Long, UserDailyExerciseRollup> existing) {
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant().minus(MAX_ZONE_OFFSET);
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(MAX_ZONE_OFFSET);
+
+        Map<Long, DailyExerciseVolume> actual = new HashMap<>();
+        for (DailyExerciseVolume volume : foldByDay(setRepo.sumVolumeBySessionAndExercise(userId, from, to, null))) {
+            if (volume.localDate().equals(day) && exerciseIds.contains(volume.exerciseId())) {
+                actual.put(volume.exerciseId(), volume);
+            }
+        }
+
+        for (Long exerciseId : exerciseIds) {
+            UserDailyExerciseRollup row = existing.get(exerciseId);
+            DailyExerciseVolume volume = actual.get(exerciseId);
+            if (volume == null) {
+                if (row != null) {
+                    rollupRepo.delete(row);
+                }
+                continue;
+            }
+            if (row == null) {
+                row = new UserDailyExerciseRollup(userId, day, exerciseId);
+            }
+            copy(volume, row);
+            rollupRepo.save(row);
+        }
+    }
+
+    private Map<Long, UserDailyExerciseRollup> load(Long userId, LocalDate day, Collection<Long> exerciseIds) {
+        List<UserDailyExerciseRollup.Key> keys = exerciseIds.stream()
+                .map(exerciseId -> new UserDailyExerciseRollup.Key(userId, day, exerciseId))
+                .toList();
+        Map<Long, UserDailyExerciseRollup> rows = new HashMap<>();
+        for (UserDailyExerciseRollup row : rollupRepo.findAllById(keys)) {
+            rows.put(row.getId().getExerciseId(), row);
+        }
+        return rows;
+    }
+
+    private static Map<Long, Totals> totals(List<WorkoutSet> sets) {
+        Map<Long, Totals> perExercise = new LinkedHashMap<>();
+        for (WorkoutSet ws : sets) {
+            Totals totals = perExercise.computeIfAbsent(ws.getExercise().getId(), id -> new Totals());
+            totals.setsCount++;
+            if (ws.getReps() != null) {
+                totals.repsTotal += ws.getReps();
+            }
+            if (ws.getWeight() != null) {
+                totals.maxWeight = Math.max(totals.maxWeight, ws.getWeight());
+                if (ws.getReps() != null) {
+                    totals.volume += ws.getReps() * ws.getWeight();
+                }
+            }
+        }
+        return perExercise;
+    }
+
+    private static DailyExerciseVolume merge(DailyExerciseVolume a, DailyExerciseVolume b) {
+        return new DailyExerciseVolume(a.localDate(), a.exerciseId(), a.exerciseName(),
+                orZero(a.volume()) + orZero(b.volume()),
+                orZero(a.setsCount()) + orZero(b.setsCount()),
+                orZero(a.repsTotal()) + orZero(b.repsTotal()),
+                Math.max(orZero(a.maxWeight()), orZero(b.maxWeight())));
+    }
+
+    private static void copy(DailyExerciseVolume from, UserDailyExerciseRollup to) {
+        to.setVolume(orZero(from.volume()));
+        to.setSetsCount((int) orZero(from.setsCount()));
+        to.setRepsTotal(orZero(from.repsTotal()));
+        to.setMaxWeight(orZero(from.maxWeight()));
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static final class Totals {
+        double volume;
+        int setsCount;
+        long repsTotal;
+        double maxWeight;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sgt.fitapi.service;
+
+// Chart downsampling with Largest-Triangle-Three-Buckets (Steinarsson, 2013): keeps the first and last point
+// and, from each of threshold - 2 equal buckets in between, the point forming the largest triangle with the
+// point kept before it and the average of the next bucket. Peaks and troughs survive, unlike plain averaging.
+final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    // x must be ascending. Returns the indices to keep, ascending; all of them when there are no more than threshold.
+    static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("threshold must be at least 3");
+        }
+        int n = x.length;
+        if (threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        // Buckets cover the points between the first and the last
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (just the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min(Math.max((int) Math.floor((bucket + 2) * bucketSize) + 1, nextStart + 1), n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[count++] = chosen;
+            previous = chosen;
+        }
+
+        kept[count] = n - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,295 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.repository.ExerciseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Read-mostly, in-memory copy of the exercises table with precomputed indexes.
+// Serves GET /exercises lookups and searches with the same matching rules as ExerciseSpecs,
+// without a database round trip. Exercises handed out are shared: treat them as read-only.
+@Component
+public class ExerciseCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ExerciseCatalog.class);
+    private static final int GRAM = 3;
+    // pg_trgm's default pg_trgm.word_similarity_threshold
+    private static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+
+    private final ExerciseRepository repo;
+    private final long refreshIntervalMillis;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
+    // One reload at a time; readers only wait for it while there is no snapshot yet
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Set after a committed exercise write on this node (see ExerciseCatalogInvalidator)
+    private volatile boolean stale;
+
+    @Autowired
+    public ExerciseCatalog(ExerciseRepository repo,
+                           @Value("${fitapi.exercise-catalog.refresh-interval:10m}") Duration refreshInterval) {
+        this(repo, refreshInterval, Clock.systemUTC());
+    }
+
+    public ExerciseCatalog(ExerciseRepository repo, Duration refreshInterval, Clock clock) {
+        this.repo = repo;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public Optional<Exercise> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Snapshot current = current();
+        Integer position = current.positionById.get(id);
+        return position != null ? Optional.of(current.exercises[position]) : Optional.empty();
+    }
+
+    // Case-insensitive exact name match (names are unique, see uk_exercise_name)
+    public Optional<Exercise> findByName(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        Snapshot current = current();
+        Integer position = current.positionByLowerName.get(lower(name.trim()));
+        return position != null ? Optional.of(current.exercises[position]) : Optional.empty();
+    }
+
+    // Same semantics as ExerciseSpecs: blank/null filters are ignored, name is a case-insensitive
+    // substring match, muscle group and equipment are case-insensitive equality. Results are in ID order.
+    public List<Exercise> search(String name, String muscleGroup, String equipment, Boolean isIsometric) {
+        Snapshot current = current();
+        BitSet matches = filter(current, muscleGroup, equipment, isIsometric);
+
+        String needle = null;
+        if (name != null && !name.isBlank()) {
+            needle = lower(name);
+            // Every trigram of the needle must occur in a match; the intersection is then verified below
+            for (int i = 0; i + GRAM <= needle.length() && !matches.isEmpty(); i++) {
+                and(matches, current.byTrigram.get(needle.substring(i, i + GRAM)));
+            }
+        }
+
+        List<Exercise> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            if (needle == null || current.lowerNames[i].contains(needle)) {
+                result.add(current.exercises[i]);
+            }
+        }
+        return result;
+    }
+
+    // In-memory stand-in for ExerciseRepository.searchBySimilarity (used when the database has no pg_trgm).
+    // Mirrors its rules with pg_trgm-style word trigrams: a name matches when it contains the query or
+    // when enough of the query's trigrams occur in it; best matches first, then by ID.
+    public List<Exercise> searchBySimilarity(String query, String muscleGroup, String equipment,
+                                             Boolean isIsometric, int limit) {
+        Snapshot current = current();
+        BitSet matches = filter(current, muscleGroup, equipment, isIsometric);
+
+        String needle = lower(query.trim());
+        Set<String> queryTrigrams = wordTrigrams(needle);
+
+        List<Ranked> ranked = new ArrayList<>();
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            Set<String> nameTrigrams = current.nameTrigrams.get(i);
+            int shared = 0;
+            for (String trigram : queryTrigrams) {
+                if (nameTrigrams.contains(trigram)) shared++;
+            }
+
+            double wordSimilarity = queryTrigrams.isEmpty() ? 0.0 : (double) shared / queryTrigrams.size();
+            int union = queryTrigrams.size() + nameTrigrams.size() - shared;
+            double similarity = union == 0 ? 0.0 : (double) shared / union;
+
+            if (current.lowerNames[i].contains(needle) || wordSimilarity >= WORD_SIMILARITY_THRESHOLD) {
+                ranked.add(new Ranked(current.exercises[i], wordSimilarity, similarity));
+            }
+        }
+
+        ranked.sort(Comparator.comparingDouble(Ranked::wordSimilarity).reversed()
+                .thenComparing(Comparator.comparingDouble(Ranked::similarity).reversed())
+                .thenComparing(r -> r.exercise().getId()));
+
+        return ranked.stream()
+                .limit(limit)
+                .map(Ranked::exercise)
+                .toList();
+    }
+
+    // Marks the catalogue for reload on the next read.
+    public void markStale() {
+        stale = true;
+    }
+
+    public void reload() {
+        reloadLock.lock();
+        try {
+            loadSnapshot();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // ===== internal helpers =====
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Nothing to serve yet: wait for whoever is loading, or load it ourselves
+            reloadLock.lock();
+            try {
+                current = snapshot;
+                return current != null ? current : loadSnapshot();
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        if ((stale || isExpired(current)) && reloadLock.tryLock()) {
+            // The first reader to notice refreshes; everyone else keeps reading the old snapshot meanwhile
+            try {
+                return snapshot == current ? loadSnapshot() : snapshot;
+            } catch (RuntimeException e) {
+                log.warn("Exercise catalogue refresh failed, serving the previous snapshot", e);
+                return current;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // Caller holds reloadLock
+    private Snapshot loadSnapshot() {
+        // Cleared before reading so a markStale() that races with the query isn't lost
+        stale = false;
+        List<Exercise> exercises;
+        try {
+            exercises = repo.findAll(Sort.by("id"));
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        Snapshot loaded = new Snapshot(exercises, clock.millis());
+        snapshot = loaded;
+        log.debug("Loaded {} exercises into the catalogue", exercises.size());
+        return loaded;
+    }
+
+    // Picks up changes made outside this node (migrations, other instances)
+    private boolean isExpired(Snapshot current) {
+        return refreshIntervalMillis > 0 && clock.millis() - current.loadedAtMillis >= refreshIntervalMillis;
+    }
+
+    private static BitSet filter(Snapshot current, String muscleGroup, String equipment, Boolean isIsometric) {
+        int size = current.exercises.length;
+
+        BitSet matches = new BitSet(size);
+        matches.set(0, size);
+
+        if (muscleGroup != null && !muscleGroup.isBlank()) {
+            and(matches, current.byMuscleGroup.get(lower(muscleGroup)));
+        }
+        if (equipment != null && !equipment.isBlank()) {
+            and(matches, current.byEquipment.get(lower(equipment)));
+        }
+        if (isIsometric != null) {
+            if (isIsometric) {
+                matches.and(current.isometric);
+            } else {
+                matches.andNot(current.isometric);
+            }
+        }
+        return matches;
+    }
+
+    // pg_trgm's trigram extraction: each alphanumeric word padded with two leading and one trailing space
+    static Set<String> wordTrigrams(String lowerText) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : lowerText.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + GRAM <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + GRAM));
+            }
+        }
+        return trigrams;
+    }
+
+    private static void and(BitSet matches, BitSet index) {
+        if (index == null) {
+            matches.clear();
+        } else {
+            matches.and(index);
+        }
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        final Exercise[] exercises;
+        final String[] lowerNames;
+        final Map<Long, Integer> positionById;
+        final Map<String, Integer> positionByLowerName;
+        final Map<String, BitSet> byMuscleGroup = new HashMap<>();
+        final Map<String, BitSet> byEquipment = new HashMap<>();
+        final Map<String, BitSet> byTrigram = new HashMap<>();
+        final BitSet isometric = new BitSet();
+        final List<Set<String>> nameTrigrams;
+        final long loadedAtMillis;
+
+        Snapshot(List<Exercise> source, long loadedAtMillis) {
+            this.exercises = source.toArray(new Exercise[0]);
+            this.lowerNames = new String[exercises.length];
+            this.positionById = new HashMap<>(exercises.length * 2);
+            this.positionByLowerName = new HashMap<>(exercises.length * 2);
+            this.nameTrigrams = new ArrayList<>(exercises.length);
+            this.loadedAtMillis = loadedAtMillis;
+
+            for (int i = 0; i < exercises.length; i++) {
+                Exercise exercise = exercises[i];
+                positionById.put(exercise.getId(), i);
+
+                if (exercise.getMuscleGroup() != null) {
+                    byMuscleGroup.computeIfAbsent(lower(exercise.getMuscleGroup()), k -> new BitSet()).set(i);
+                }
+                if (exercise.getEquipment() != null) {
+                    byEquipment.computeIfAbsent(lower(exercise.getEquipment()), k -> new BitSet()).set(i);
+                }
+                if (exercise.isIsometric()) {
+                    isometric.set(i);
+                }
+
+                String lowerName = exercise.getName() != null ? lower(exercise.getName()) : "";
+                lowerNames[i] = lowerName;
+                positionByLowerName.putIfAbsent(lowerName, i);
+                for (int g = 0; g + GRAM <= lowerName.length(); g++) {
+                    byTrigram.computeIfAbsent(lowerName.substring(g, g + GRAM), k -> new BitSet()).set(i);
+                }
+                nameTrigrams.add(wordTrigrams(lowerName));
+            }
+        }
+    }
+
+    private record Ranked(Exercise exercise, double wordSimilarity, double similarity) {}
+}
@@ -0,0 +1,39 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.model.Exercise;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA entity listener: reloads the exercise catalogue after any exercise write commits,
+// so a reload never races ahead of the transaction and caches uncommitted (or rolled back) rows.
+@Component
+public class ExerciseCatalogInvalidator {
+
+    // Resolved lazily: JPA-only contexts (e.g. @DataJpaTest slices) have no catalogue bean
+    private final ObjectProvider<ExerciseCatalog> catalog;
+
+    public ExerciseCatalogInvalidator(ObjectProvider<ExerciseCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void exerciseChanged(Exercise exercise) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalog.ifAvailable(ExerciseCatalog::markStale);
+                }
+            });
+        } else {
+            catalog.ifAvailable(ExerciseCatalog::markStale);
+        }
+    }
+}
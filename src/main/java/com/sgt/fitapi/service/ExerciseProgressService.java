@@ -0,0 +1,112 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.ExerciseProgressView;
+import com.sgt.fitapi.dto.analytics.ProgressPointView;
+import com.sgt.fitapi.dto.analytics.ProgressSet;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-session progress on one exercise for charts. One query returns the exercise's sets in range, which are
+// folded per session here and then thinned with LTTB on the estimated 1RM, so a multi-year history comes back
+// as a bounded number of points that still show the peaks.
+@Service
+public class ExerciseProgressService {
+
+    // Bounds used when from/to are omitted
+    private static final Instant EARLIEST = Instant.parse("1900-01-01T00:00:00Z");
+    private static final Instant LATEST = Instant.parse("9999-01-01T00:00:00Z");
+
+    private final WorkoutSetRepository setRepo;
+    private final PersonalRecordService recordService;
+
+    public ExerciseProgressService(WorkoutSetRepository setRepo, PersonalRecordService recordService) {
+        this.setRepo = setRepo;
+        this.recordService = recordService;
+    }
+
+    // from/to are inclusive local dates and may be null for an open range
+    @Transactional(readOnly = true)
+    public ExerciseProgressView progress(Long userId, Exercise exercise, LocalDate from, LocalDate to, int maxPoints) {
+        // Widened by the largest zone offset; sessions are then filtered on their own local date
+        Instant lower = from != null
+                ? from.atStartOfDay(ZoneOffset.UTC).toInstant().minus(DailyRollupService.MAX_ZONE_OFFSET)
+                : EARLIEST;
+        Instant upper = to != null
+                ? to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(DailyRollupService.MAX_ZONE_OFFSET)
+                : LATEST;
+
+        OneRepMaxFormula formula = recordService.formula();
+        List<ProgressPointView> sessions = perSession(
+                setRepo.findProgressSets(userId, exercise.getId(), lower, upper), from, to, formula);
+
+        ExerciseProgressView view = new ExerciseProgressView();
+        view.exerciseId = exercise.getId();
+        view.exerciseName = exercise.getName();
+        view.from = from;
+        view.to = to;
+        view.formula = formula.label();
+        view.sessionsCount = sessions.size();
+        view.points = downsample(sessions, maxPoints);
+        view.downsampled = view.points.size() < sessions.size();
+        return view;
+    }
+
+    // Sets must arrive grouped by session in start order (see WorkoutSetRepository.findProgressSets)
+    static List<ProgressPointView> perSession(List<ProgressSet> sets, LocalDate from, LocalDate to,
+                                              OneRepMaxFormula formula) {
+        List<ProgressPointView> points = new ArrayList<>();
+        ProgressPointView current = null;
+        for (ProgressSet set : sets) {
+            if (current == null || !current.sessionId.equals(set.sessionId())) {
+                LocalDate day = DailyRollupService.localDate(set.startedAt(), set.timezone());
+                if (from != null && day.isBefore(from) || to != null && day.isAfter(to)) {
+                    current = null;
+                    continue;
+                }
+                current = new ProgressPointView();
+                current.sessionId = set.sessionId();
+                current.startedAt = set.startedAt().atOffset(ZoneOffset.UTC);
+                current.localDate = day;
+                points.add(current);
+            }
+
+            double weight = set.weight() != null ? set.weight() : 0.0;
+            int reps = set.reps() != null ? set.reps() : 0;
+            if (current.setsCount == 0 || weight > current.topSetWeight
+                    || weight == current.topSetWeight && reps > current.topSetReps) {
+                current.topSetWeight = weight;
+                current.topSetReps = reps;
+            }
+            current.volume += weight * reps;
+            current.estimatedOneRepMax = Math.max(current.estimatedOneRepMax, formula.estimate(weight, reps));
+            current.setsCount++;
+        }
+        return points;
+    }
+
+    static List<ProgressPointView> downsample(List<ProgressPointView> points, int maxPoints) {
+        if (points.size() <= maxPoints) {
+            return points;
+        }
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            x[i] = points.get(i).startedAt.toInstant().toEpochMilli();
+            y[i] = points.get(i).estimatedOneRepMax;
+        }
+
+        List<ProgressPointView> kept = new ArrayList<>(maxPoints);
+        for (int index : Downsampling.largestTriangleThreeBuckets(x, y, maxPoints)) {
+            kept.add(points.get(index));
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.repository.ExerciseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Similarity-ranked exercise search. On Postgres this runs against the pg_trgm index (V4 migration),
+// so latency tracks the number of matches rather than the size of the table; other databases
+// (H2 in tests and local runs) fall back to the in-memory catalogue.
+@Service
+public class ExerciseSearchService {
+
+    private final ExerciseRepository repo;
+    private final ExerciseCatalog catalog;
+    private final boolean trigramIndexAvailable;
+
+    public ExerciseSearchService(ExerciseRepository repo,
+                                 ExerciseCatalog catalog,
+                                 EntityManagerFactory emf) {
+        this.repo = repo;
+        this.catalog = catalog;
+        this.trigramIndexAvailable = emf.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    public List<Exercise> searchBySimilarity(String query, String muscleGroup, String equipment,
+                                             Boolean isIsometric, int limit) {
+        if (trigramIndexAvailable) {
+            return repo.searchBySimilarity(query.trim(), blankToNull(muscleGroup), blankToNull(equipment),
+                    isIsometric, limit);
+        }
+        return catalog.searchBySimilarity(query, muscleGroup, equipment, isIsometric, limit);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sgt.fitapi.service;
+
+import java.util.Locale;
+
+// Estimated one-rep max from a set of reps at a weight, chosen with fitapi.records.one-rep-max-formula.
+// A single rep is its own 1RM; sets with no reps or no load don't estimate anything.
+public enum OneRepMaxFormula {
+    // weight * (1 + reps / 30)
+    EPLEY {
+        @Override
+        double estimateMany(double weight, int reps) {
+            return weight * (1 + reps / 30.0);
+        }
+    },
+    // weight * 36 / (37 - reps); reps are capped at 36 where the formula stops being defined
+    BRZYCKI {
+        @Override
+        double estimateMany(double weight, int reps) {
+            return weight * 36.0 / (37 - Math.min(reps, 36));
+        }
+    };
+
+    public double estimate(double weight, int reps) {
+        if (reps <= 0 || weight <= 0) {
+            return 0.0;
+        }
+        return reps == 1 ? weight : estimateMany(weight, reps);
+    }
+
+    abstract double estimateMany(double weight, int reps);
+
+    public static OneRepMaxFormula parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("one-rep max formula must be 'epley' or 'brzycki'");
+        }
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
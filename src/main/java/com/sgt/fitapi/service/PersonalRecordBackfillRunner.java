@@ -0,0 +1,73 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.repository.PersonalRecordBackfillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Builds personal records for users queued in personal_record_backfill (history written before the records existed),
+// after first queueing users whose estimated 1RMs were computed with a different fitapi.records.one-rep-max-formula.
+// Runs on a background thread so startup isn't held up; record reads scan a user's sets until they're done.
+// Disable with --fitapi.records.backfill=false (or FITAPI_RECORDS_BACKFILL=false).
+@Component
+@ConditionalOnProperty(name = "fitapi.records.backfill", havingValue = "true", matchIfMissing = true)
+public class PersonalRecordBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonalRecordBackfillRunner.class);
+    private static final int PAGE_SIZE = 100;
+
+    private final PersonalRecordBackfillRepository backfillRepo;
+    private final PersonalRecordService recordService;
+
+    public PersonalRecordBackfillRunner(PersonalRecordBackfillRepository backfillRepo,
+                                        PersonalRecordService recordService) {
+        this.backfillRepo = backfillRepo;
+        this.recordService = recordService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(this::backfillAll, "personal-record-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfillAll() {
+        long users = 0;
+        long records = 0;
+        try {
+            int requeued = recordService.enqueueOtherFormula();
+            if (requeued > 0) {
+                log.info("Queued {} users for a personal record rebuild after a one-rep max formula change", requeued);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not check personal records for a one-rep max formula change", e);
+        }
+        while (true) {
+            // Finished users leave the queue, so the first page is always the remaining work
+            List<Long> userIds = backfillRepo.findUserIds(PageRequest.ofSize(PAGE_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // One transaction per user keeps the user lock short while traffic is being served
+            for (Long userId : userIds) {
+                try {
+                    records += recordService.backfill(userId);
+                    users++;
+                } catch (RuntimeException e) {
+                    log.error("Personal record backfill failed for user {}; record reads keep scanning sets", userId, e);
+                    return;
+                }
+            }
+        }
+        if (users > 0) {
+            log.info("Backfilled personal records for {} exercises across {} users", records, users);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.records.*;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.PersonalRecord;
+import com.sgt.fitapi.model.PersonalRecordBackfill;
+import com.sgt.fitapi.model.PersonalRepRecord;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Keeps personal_records and personal_rep_records in step with workout_sets (called by WorkoutWriteService).
+// A new set can only raise a record, so adds are compared with the stored rows; when a set that holds a record
+// goes away, or its session moves in time, only that exercise is recomputed from the user's sets.
+// Ties go to the set that got there first (session start, then set ID), so maintenance and backfill agree.
+// Every change takes the user's row lock first, like DailyRollupService.
+@Service
+public class PersonalRecordService {
+
+    private final PersonalRecordRepository recordRepo;
+    private final PersonalRepRecordRepository repRecordRepo;
+    private final PersonalRecordBackfillRepository backfillRepo;
+    private final WorkoutSetRepository setRepo;
+    private final UserRepository userRepo;
+    private final ExerciseCatalog catalog;
+    private final OneRepMaxFormula formula;
+
+    @Autowired
+    public PersonalRecordService(PersonalRecordRepository recordRepo,
+                                 PersonalRepRecordRepository repRecordRepo,
+                                 PersonalRecordBackfillRepository backfillRepo,
+                                 WorkoutSetRepository setRepo,
+                                 UserRepository userRepo,
+                                 ExerciseCatalog catalog,
+                                 @Value("${fitapi.records.one-rep-max-formula:epley}") String formula) {
+        this(recordRepo, repRecordRepo, backfillRepo, setRepo, userRepo, catalog, OneRepMaxFormula.parse(formula));
+    }
+
+    public PersonalRecordService(PersonalRecordRepository recordRepo,
+                                 PersonalRepRecordRepository repRecordRepo,
+                                 PersonalRecordBackfillRepository backfillRepo,
+                                 WorkoutSetRepository setRepo,
+                                 UserRepository userRepo,
+                                 ExerciseCatalog catalog,
+                                 OneRepMaxFormula formula) {
+        this.recordRepo = recordRepo;
+        this.repRecordRepo = repRecordRepo;
+        this.backfillRepo = backfillRepo;
+        this.setRepo = setRepo;
+        this.userRepo = userRepo;
+        this.catalog = catalog;
+        this.formula = formula;
+    }
+
+    // The configured estimate, also used for progress charts
+    public OneRepMaxFormula formula() {
+        return formula;
+    }
+
+    // ========= Reads =========
+
+    // Every exercise the user has records for, by exercise name
+    @Transactional(readOnly = true)
+    public List<PersonalRecordView> records(Long userId) {
+        Collection<PersonalRecord> records = isBackfilled(userId)
+                ? recordRepo.findByIdUserId(userId)
+                : fold(userId, setRepo.findRecordCandidatesForUser(userId)).records.values();
+
+        List<PersonalRecordView> views = new ArrayList<>(records.size());
+        for (PersonalRecord record : records) {
+            PersonalRecordView view = new PersonalRecordView();
+            fill(view, record.getId().getExerciseId(), record);
+            views.add(view);
+        }
+        views.sort(Comparator.comparing((PersonalRecordView view) -> view.exerciseName,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(view -> view.exerciseId));
+        return views;
+    }
+
+    // Records for one exercise, including the best reps at every weight; marks are null if it was never done
+    @Transactional(readOnly = true)
+    public ExerciseRecordsView exerciseRecords(Long userId, Long exerciseId) {
+        Records records = isBackfilled(userId)
+                ? load(userId, List.of(exerciseId))
+                : fold(userId, setRepo.findRecordCandidates(userId, List.of(exerciseId)));
+
+        ExerciseRecordsView view = new ExerciseRecordsView();
+        fill(view, exerciseId, records.records.get(exerciseId));
+        records.reps.values().stream()
+                .sorted(Comparator.comparing(rep -> rep.getId().getWeight()))
+                .forEach(rep -> view.repRecords.add(setView(rep.getId().getWeight(), rep.getReps(),
+                        rep.getSetId(), rep.getAchievedAt())));
+        return view;
+    }
+
+    // ========= Incremental maintenance =========
+
+    @Transactional
+    public void recordSetsAdded(WorkoutSession session, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+        Long userId = session.getUserId();
+        userRepo.lockById(userId);
+        List<RecordCandidate> candidates = candidates(session, sets);
+        Records stored = load(userId, exerciseIds(candidates));
+
+        // Estimates from a different formula can't be compared with new ones
+        Set<Long> rebuild = stored.otherFormula(formula);
+        offer(stored, candidates, rebuild);
+        recompute(userId, rebuild, stored);
+    }
+
+    // Called after the sets are deleted (the recompute query flushes the deletes first)
+    @Transactional
+    public void recordSetsRemoved(Long userId, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+        userRepo.lockById(userId);
+        List<RecordCandidate> candidates = candidates(null, sets);
+        Records stored = load(userId, exerciseIds(candidates));
+        recompute(userId, stored.heldBy(setIds(candidates)), stored);
+    }
+
+    // The session's start time was edited, which changes when its sets' records were achieved and who wins ties.
+    // The session must already be saved with its new values.
+    @Transactional
+    public void recordSessionMoved(WorkoutSession session, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+        Long userId = session.getUserId();
+        userRepo.lockById(userId);
+        List<RecordCandidate> candidates = candidates(session, sets);
+        Records stored = load(userId, exerciseIds(candidates));
+
+        // A record held by one of these sets may now belong to an earlier set; any other set may now win a tie
+        Set<Long> rebuild = stored.heldBy(setIds(candidates));
+        rebuild.addAll(stored.otherFormula(formula));
+        offer(stored, candidates, rebuild);
+        recompute(userId, rebuild, stored);
+    }
+
+    // ========= Backfill =========
+
+    // False while the user's history predates the records and hasn't been backfilled yet
+    @Transactional(readOnly = true)
+    public boolean isBackfilled(Long userId) {
+        return !backfillRepo.existsById(userId);
+    }
+
+    // Replaces all of a user's records with ones recomputed from workout_sets
+    @Transactional
+    public int backfill(Long userId) {
+        userRepo.lockById(userId);
+        recordRepo.deleteByUserId(userId);
+        repRecordRepo.deleteByUserId(userId);
+
+        Records records = fold(userId, setRepo.findRecordCandidatesForUser(userId));
+        recordRepo.saveAll(records.records.values());
+        repRecordRepo.saveAll(records.reps.values());
+        backfillRepo.deleteById(userId);
+        return records.records.size();
+    }
+
+    // Queues users whose estimated 1RMs came from another formula (fitapi.records.one-rep-max-formula changed)
+    @Transactional
+    public int enqueueOtherFormula() {
+        int queued = 0;
+        for (Long userId : recordRepo.findUserIdsWithOtherFormula(formula.label())) {
+            if (!backfillRepo.existsById(userId)) {
+                backfillRepo.save(new PersonalRecordBackfill(userId));
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    // ===== internal helpers =====
+
+    private void offer(Records stored, List<RecordCandidate> candidates, Set<Long> skip) {
+        for (RecordCandidate candidate : candidates) {
+            if (!skip.contains(candidate.exerciseId())) {
+                stored.offer(candidate, formula);
+            }
+        }
+        // New rows need an insert; loaded ones are already managed and flush on commit
+        recordRepo.saveAll(stored.records.values().stream().filter(PersonalRecord::isNew).toList());
+        repRecordRepo.saveAll(stored.reps.values().stream().filter(PersonalRepRecord::isNew).toList());
+    }
+
+    // Rebuilds some exercises from workout_sets, updating the stored rows in place rather than delete + insert
+    private void recompute(Long userId, Set<Long> exerciseIds, Records stored) {
+        if (exerciseIds.isEmpty()) {
+            return;
+        }
+        Records actual = fold(userId, setRepo.findRecordCandidates(userId, exerciseIds));
+
+        for (Long exerciseId : exerciseIds) {
+            PersonalRecord current = stored.records.get(exerciseId);
+            PersonalRecord rebuilt = actual.records.get(exerciseId);
+            if (rebuilt == null) {
+                if (current != null) {
+                    recordRepo.delete(current);
+                }
+            } else if (current == null) {
+                recordRepo.save(rebuilt);
+            } else {
+                current.setHeaviest(rebuilt.getHeaviestWeight(), rebuilt.getHeaviestWeightReps(),
+                        rebuilt.getHeaviestWeightSetId(), rebuilt.getHeaviestWeightAt());
+                current.setBestE1rm(rebuilt.getBestE1rm(), rebuilt.getFormula(), rebuilt.getBestE1rmWeight(),
+                        rebuilt.getBestE1rmReps(), rebuilt.getBestE1rmSetId(), rebuilt.getBestE1rmAt());
+            }
+        }
+
+        for (PersonalRepRecord current : stored.reps.values()) {
+            if (exerciseIds.contains(current.getId().getExerciseId()) && !actual.reps.containsKey(current.getId())) {
+                repRecordRepo.delete(current);
+            }
+        }
+        for (PersonalRepRecord rebuilt : actual.reps.values()) {
+            PersonalRepRecord current = stored.reps.get(rebuilt.getId());
+            if (current == null) {
+                repRecordRepo.save(rebuilt);
+            } else {
+                current.setBest(rebuilt.getReps(), rebuilt.getSetId(), rebuilt.getAchievedAt());
+            }
+        }
+    }
+
+    private Records load(Long userId, Collection<Long> exerciseIds) {
+        Records records = new Records(userId);
+        for (PersonalRecord record : recordRepo.findForExercises(userId, exerciseIds)) {
+            records.records.put(record.getId().getExerciseId(), record);
+        }
+        for (PersonalRepRecord rep : repRecordRepo.findForExercises(userId, exerciseIds)) {
+            records.reps.put(rep.getId(), rep);
+        }
+        return records;
+    }
+
+    private Records fold(Long userId, List<RecordCandidate> candidates) {
+        Records records = new Records(userId);
+        for (RecordCandidate candidate : candidates) {
+            records.offer(candidate, formula);
+        }
+        return records;
+    }
+
+    // session may be null when only the set IDs and exercises matter
+    private static List<RecordCandidate> candidates(WorkoutSession session, List<WorkoutSet> sets) {
+        Instant startedAt = session != null ? session.getStartedAt() : null;
+        List<RecordCandidate> candidates = new ArrayList<>(sets.size());
+        for (WorkoutSet ws : sets) {
+            candidates.add(new RecordCandidate(ws.getId(), ws.getExercise().getId(),
+                    ws.getWeight() != null ? ws.getWeight() : 0.0,
+                    ws.getReps() != null ? ws.getReps() : 0,
+                    startedAt));
+        }
+        return candidates;
+    }
+
+    private static Set<Long> exerciseIds(List<RecordCandidate> candidates) {
+        Set<Long> ids = new LinkedHashSet<>();
+        candidates.forEach(candidate -> ids.add(candidate.exerciseId()));
+        return ids;
+    }
+
+    private static Set<Long> setIds(List<RecordCandidate> candidates) {
+        Set<Long> ids = new HashSet<>();
+        candidates.forEach(candidate -> ids.add(candidate.setId()));
+        return ids;
+    }
+
+    private void fill(PersonalRecordView view, Long exerciseId, PersonalRecord record) {
+        view.exerciseId = exerciseId;
+        view.exerciseName = catalog.findById(exerciseId).map(Exercise::getName).orElse(null);
+        if (record == null) {
+            return;
+        }
+        view.heaviest = setView(record.getHeaviestWeight(), record.getHeaviestWeightReps(),
+                record.getHeaviestWeightSetId(), record.getHeaviestWeightAt());
+
+        OneRepMaxView oneRepMax = new OneRepMaxView();
+        oneRepMax.estimate = record.getBestE1rm();
+        oneRepMax.formula = record.getFormula();
+        oneRepMax.weight = record.getBestE1rmWeight();
+        oneRepMax.reps = record.getBestE1rmReps();
+        oneRepMax.setId = record.getBestE1rmSetId();
+        oneRepMax.achievedAt = record.getBestE1rmAt().atOffset(ZoneOffset.UTC);
+        view.bestEstimatedOneRepMax = oneRepMax;
+    }
+
+    private static RecordSetView setView(double weight, int reps, Long setId, Instant achievedAt) {
+        RecordSetView view = new RecordSetView();
+        view.weight = weight;
+        view.reps = reps;
+        view.setId = setId;
+        view.achievedAt = achievedAt.atOffset(ZoneOffset.UTC);
+        return view;
+    }
+
+    // Records for some exercises of one user, either loaded (managed) or folded from sets (new)
+    private static final class Records {
+        final Long userId;
+        final Map<Long, PersonalRecord> records = new LinkedHashMap<>();
+        final Map<PersonalRepRecord.Key, PersonalRepRecord> reps = new LinkedHashMap<>();
+
+        Records(Long userId) {
+            this.userId = userId;
+        }
+
+        // Keeps whichever of the candidate and the current holder is better, or earlier when they tie
+        void offer(RecordCandidate candidate, OneRepMaxFormula formula) {
+            double e1rm = formula.estimate(candidate.weight(), candidate.reps());
+
+            PersonalRecord record = records.get(candidate.exerciseId());
+            if (record == null) {
+                record = new PersonalRecord(userId, candidate.exerciseId());
+                records.put(candidate.exerciseId(), record);
+            }
+            int heavier = record.getHeaviestWeightSetId() == null ? 1
+                    : compare(candidate.weight(), candidate.reps(), record.getHeaviestWeight(), record.getHeaviestWeightReps());
+            if (heavier > 0 || heavier == 0 && earlier(candidate, record.getHeaviestWeightAt(), record.getHeaviestWeightSetId())) {
+                record.setHeaviest(candidate.weight(), candidate.reps(), candidate.setId(), candidate.startedAt());
+            }
+            int stronger = record.getBestE1rmSetId() == null ? 1 : Double.compare(e1rm, record.getBestE1rm());
+            if (stronger > 0 || stronger == 0 && earlier(candidate, record.getBestE1rmAt(), record.getBestE1rmSetId())) {
+                record.setBestE1rm(e1rm, formula.label(), candidate.weight(), candidate.reps(),
+                        candidate.setId(), candidate.startedAt());
+            }
+
+            PersonalRepRecord.Key key = new PersonalRepRecord.Key(userId, candidate.exerciseId(), candidate.weight());
+            PersonalRepRecord rep = reps.get(key);
+            if (rep == null) {
+                rep = new PersonalRepRecord(userId, candidate.exerciseId(), candidate.weight());
+                reps.put(key, rep);
+                rep.setBest(candidate.reps(), candidate.setId(), candidate.startedAt());
+            } else if (candidate.reps() > rep.getReps()
+                    || candidate.reps() == rep.getReps() && earlier(candidate, rep.getAchievedAt(), rep.getSetId())) {
+                rep.setBest(candidate.reps(), candidate.setId(), candidate.startedAt());
+            }
+        }
+
+        // Exercises with a record held by one of the given sets
+        Set<Long> heldBy(Set<Long> setIds) {
+            Set<Long> exerciseIds = new HashSet<>();
+            for (PersonalRecord record : records.values()) {
+                if (setIds.contains(record.getHeaviestWeightSetId()) || setIds.contains(record.getBestE1rmSetId())) {
+                    exerciseIds.add(record.getId().getExerciseId());
+                }
+            }
+            for (PersonalRepRecord rep : reps.values()) {
+                if (setIds.contains(rep.getSetId())) {
+                    exerciseIds.add(rep.getId().getExerciseId());
+                }
+            }
+            return exerciseIds;
+        }
+
+        Set<Long> otherFormula(OneRepMaxFormula formula) {
+            Set<Long> exerciseIds = new HashSet<>();
+            for (PersonalRecord record : records.values()) {
+                if (!formula.label().equals(record.getFormula())) {
+                    exerciseIds.add(record.getId().getExerciseId());
+                }
+            }
+            return exerciseIds;
+        }
+
+        private static int compare(double weight, int reps, double otherWeight, int otherReps) {
+            int byWeight = Double.compare(weight, otherWeight);
+            return byWeight != 0 ? byWeight : Integer.compare(reps, otherReps);
+        }
+
+        private static boolean earlier(RecordCandidate candidate, Instant at, Long setId) {
+            int byTime = candidate.startedAt().compareTo(at);
+            return byTime < 0 || byTime == 0 && candidate.setId() < setId;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Streams a user's full history (sessions with their sets) in keyset pages of whole sessions.
+// Each page is one short query; its rows are written after the connection is back in the pool,
+// so a slow download never pins a database connection. Heap use is bounded by one page.
+@Service
+public class WorkoutExportService {
+
+    // Sessions without sets still produce a row (left joins); rows arrive grouped by session.
+    // The LIMIT applies to sessions, so a session's sets never straddle two pages.
+    private static final String PAGE_SQL = """
+            select s.id as session_id, s.started_at, s.ended_at, s.timezone, s.notes as session_notes,
+                   ws.id as set_id, ws.exercise_id, e.name as exercise_name, ws.set_number,
+                   ws.reps, ws.weight, ws.rpe, ws.rest_seconds, ws.notes as set_notes
+            from (select id, started_at, ended_at, timezone, notes
+                  from workout_sessions
+                  where user_id = ?%s
+                  order by started_at, id
+                  limit ?) s
+            left join workout_sets ws on ws.workout_session_id = s.id
+            left join exercises e on e.id = ws.exercise_id
+            order by s.started_at, s.id, ws.set_number, ws.id
+            """;
+    private static final String FIRST_PAGE_SQL = PAGE_SQL.formatted("");
+    // Resumes after the last (started_at, id) of the previous page
+    private static final String NEXT_PAGE_SQL =
+            PAGE_SQL.formatted(" and (started_at > ? or (started_at = ? and id > ?))");
+
+    private static final String CSV_HEADER = "session_id,started_at,ended_at,timezone,session_notes,"
+            + "set_id,exercise_id,exercise_name,set_number,reps,weight,rpe,rest_seconds,set_notes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+    private final JsonFactory jsonFactory;
+
+    public WorkoutExportService(DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                @Value("${fitapi.export.page-size:100}") int pageSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.pageSize = pageSize;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    // One JSON object per line: the session fields plus a "sets" array, like GET /workouts/{id}/full.
+    public void writeNdjson(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by "\n" instead of the default single space between root values
+            json.setRootValueSeparator(null);
+
+            NdjsonRows rows = new NdjsonRows(json, userId);
+            forEachRow(userId, rows::write);
+            rows.finish();
+        }
+    }
+
+    // One row per set; sessions without sets get a single row with empty set columns.
+    public void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        forEachRow(userId, row -> {
+            writer.write(csv(row.sessionId()));
+            writer.write(',');
+            writer.write(csv(instant(row.startedAt())));
+            writer.write(',');
+            writer.write(csv(instant(row.endedAt())));
+            writer.write(',');
+            writer.write(csv(row.timezone()));
+            writer.write(',');
+            writer.write(csv(row.sessionNotes()));
+            writer.write(',');
+            writer.write(csv(row.setId()));
+            writer.write(',');
+            writer.write(csv(row.exerciseId()));
+            writer.write(',');
+            writer.write(csv(row.exerciseName()));
+            writer.write(',');
+            writer.write(csv(row.setNumber()));
+            writer.write(',');
+            writer.write(csv(row.reps()));
+            writer.write(',');
+            writer.write(csv(row.weight()));
+            writer.write(',');
+            writer.write(csv(row.rpe()));
+            writer.write(',');
+            writer.write(csv(row.restSeconds()));
+            writer.write(',');
+            writer.write(csv(row.setNotes()));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    // ===== internal helpers =====
+
+    // One joined row: a session with one of its sets, or with null set columns when it has none
+    private record ExportRow(long sessionId, OffsetDateTime startedAt, OffsetDateTime endedAt,
+                             String timezone, String sessionNotes,
+                             Long setId, Long exerciseId, String exerciseName, Integer setNumber,
+                             Integer reps, Double weight, Double rpe, Integer restSeconds, String setNotes) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ExportRow row) throws IOException;
+    }
+
+    // Writes a session when its first row arrives and closes it when the next session (or the end) is reached
+    private static final class NdjsonRows {
+        private final JsonGenerator json;
+        private final Long userId;
+        private long currentSession = -1;
+
+        NdjsonRows(JsonGenerator json, Long userId) {
+            this.json = json;
+            this.userId = userId;
+        }
+
+        void write(ExportRow row) throws IOException {
+            if (row.sessionId() != currentSession) {
+                if (currentSession != -1) {
+                    endSession(json);
+                }
+                startSession(json, row, userId);
+                currentSession = row.sessionId();
+            }
+            if (row.setId() != null) {
+                writeSet(json, row);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentSession != -1) {
+                endSession(json);
+            }
+        }
+    }
+
+    // Pages are read independently, so a session edited mid-export may be skipped or seen twice
+    // if its startedAt moves across the cursor; that is the price of not holding one long snapshot.
+    private void forEachRow(Long userId, RowWriter writer) throws IOException {
+        ExportRow last = null;
+        while (true) {
+            List<ExportRow> page = last == null
+                    ? jdbcTemplate.query(FIRST_PAGE_SQL, WorkoutExportService::mapRow, userId, pageSize)
+                    : jdbcTemplate.query(NEXT_PAGE_SQL, WorkoutExportService::mapRow,
+                            userId, last.startedAt(), last.startedAt(), last.sessionId(), pageSize);
+
+            int sessions = 0;
+            long previousSession = -1;
+            for (ExportRow row : page) {
+                if (row.sessionId() != previousSession) {
+                    sessions++;
+                    previousSession = row.sessionId();
+                }
+                writer.write(row);
+            }
+            if (sessions < pageSize) {
+                return;
+            }
+            last = page.get(page.size() - 1);
+        }
+    }
+
+    private static ExportRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ExportRow(
+                rs.getLong("session_id"),
+                rs.getObject("started_at", OffsetDateTime.class),
+                rs.getObject("ended_at", OffsetDateTime.class),
+                rs.getString("timezone"),
+                rs.getString("session_notes"),
+                nullableLong(rs, "set_id"),
+                nullableLong(rs, "exercise_id"),
+                rs.getString("exercise_name"),
+                nullableInt(rs, "set_number"),
+                nullableInt(rs, "reps"),
+                nullableDouble(rs, "weight"),
+                nullableDouble(rs, "rpe"),
+                nullableInt(rs, "rest_seconds"),
+                rs.getString("set_notes"));
+    }
+
+    private static void startSession(JsonGenerator json, ExportRow row, Long userId) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", row.sessionId());
+        json.writeNumberField("userId", userId);
+        json.writeStringField("startedAt", instant(row.startedAt()));
+        json.writeStringField("endedAt", instant(row.endedAt()));
+        json.writeStringField("timezone", row.timezone());
+        json.writeStringField("notes", row.sessionNotes());
+        json.writeArrayFieldStart("sets");
+    }
+
+    private static void endSession(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeSet(JsonGenerator json, ExportRow row) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", row.setId());
+        json.writeNumberField("exerciseId", row.exerciseId());
+        json.writeStringField("exerciseName", row.exerciseName());
+        writeNullableInt(json, "setNumber", row.setNumber());
+        writeNullableInt(json, "reps", row.reps());
+        writeNullableDouble(json, "weight", row.weight());
+        writeNullableDouble(json, "rpe", row.rpe());
+        writeNullableInt(json, "restSeconds", row.restSeconds());
+        json.writeStringField("notes", row.setNotes());
+        json.writeEndObject();
+    }
+
+    private static void writeNullableInt(JsonGenerator json, String field, Integer value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeNullableDouble(JsonGenerator json, String field, Double value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    // Same ISO-8601 UTC form Jackson produces for the session views
+    private static String instant(OffsetDateTime value) {
+        return value != null ? value.toInstant().toString() : null;
+    }
+
+    // RFC 4180 quoting; null becomes an empty field
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,121 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.WorkoutImportFailure;
+import com.sgt.fitapi.dto.workout.WorkoutImportStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Import job status on the workout_import_jobs and workout_import_failures tables (V11), so any node can
+// answer a status poll. Statements run in autocommit; nothing here joins the import's write transactions.
+@Component
+public class WorkoutImportJobStore {
+
+    static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkoutImportJobStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void insert(Long userId, WorkoutImportStatus status, Instant now) {
+        jdbcTemplate.update("""
+                        INSERT INTO workout_import_jobs (job_id, user_id, format, state, error, lines_read,
+                            sessions_imported, sets_imported, failure_count, started_at, updated_at, finished_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""",
+                status.jobId, userId, status.format, status.state, truncate(status.error), status.linesRead,
+                status.sessionsImported, status.setsImported, status.failureCount, status.startedAt, utc(now),
+                status.finishedAt);
+    }
+
+    // Overwrites the counters with a newer snapshot and appends the failures reported since the last save,
+    // numbered from firstSeq
+    public void update(WorkoutImportStatus status, List<WorkoutImportFailure> newFailures, int firstSeq, Instant now) {
+        jdbcTemplate.update("""
+                        UPDATE workout_import_jobs
+                        SET state = ?, error = ?, lines_read = ?, sessions_imported = ?, sets_imported = ?,
+                            failure_count = ?, updated_at = ?, finished_at = ?
+                        WHERE job_id = ?""",
+                status.state, truncate(status.error), status.linesRead, status.sessionsImported, status.setsImported,
+                status.failureCount, utc(now), status.finishedAt, status.jobId);
+        if (newFailures.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(newFailures.size());
+        for (int i = 0; i < newFailures.size(); i++) {
+            WorkoutImportFailure failure = newFailures.get(i);
+            rows.add(new Object[]{status.jobId, firstSeq + i, failure.line, truncate(failure.message)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO workout_import_failures (job_id, seq, line, message) VALUES (?, ?, ?, ?)",
+                rows);
+    }
+
+    // A RUNNING job last saved before staleBefore lost its node and is reported as FAILED
+    public Optional<WorkoutImportStatus> find(String jobId, Long userId, Instant staleBefore) {
+        List<WorkoutImportStatus> found = jdbcTemplate.query("""
+                        SELECT job_id, format, state, error, lines_read, sessions_imported, sets_imported,
+                            failure_count, started_at, updated_at, finished_at
+                        FROM workout_import_jobs
+                        WHERE job_id = ? AND user_id = ?""",
+                (rs, rowNum) -> toStatus(rs, staleBefore), jobId, userId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        WorkoutImportStatus status = found.get(0);
+        status.failures = jdbcTemplate.query(
+                "SELECT line, message FROM workout_import_failures WHERE job_id = ? ORDER BY seq",
+                (rs, rowNum) -> new WorkoutImportFailure(rs.getLong("line"), rs.getString("message")), jobId);
+        return Optional.of(status);
+    }
+
+    public void delete(String jobId) {
+        jdbcTemplate.update("DELETE FROM workout_import_jobs WHERE job_id = ?", jobId);
+    }
+
+    // Finished jobs, and running ones whose node went away, by last activity; failures cascade
+    public int deleteInactiveSince(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM workout_import_jobs WHERE updated_at < ?", utc(cutoff));
+    }
+
+    // ===== internal helpers =====
+
+    private static WorkoutImportStatus toStatus(ResultSet rs, Instant staleBefore) throws SQLException {
+        WorkoutImportStatus status = new WorkoutImportStatus();
+        status.jobId = rs.getString("job_id");
+        status.format = rs.getString("format");
+        status.state = rs.getString("state");
+        status.error = rs.getString("error");
+        status.linesRead = rs.getLong("lines_read");
+        status.sessionsImported = rs.getLong("sessions_imported");
+        status.setsImported = rs.getLong("sets_imported");
+        status.failureCount = rs.getLong("failure_count");
+        status.startedAt = rs.getObject("started_at", OffsetDateTime.class);
+        status.finishedAt = rs.getObject("finished_at", OffsetDateTime.class);
+
+        OffsetDateTime updatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+        if ("RUNNING".equals(status.state) && updatedAt.toInstant().isBefore(staleBefore)) {
+            status.state = "FAILED";
+            status.error = "Import interrupted";
+            status.finishedAt = updatedAt;
+        }
+        return status;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,320 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.dto.workout.WorkoutImportSession;
+import com.sgt.fitapi.dto.workout.WorkoutImportSet;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Incremental parsers for import files. Both formats are read record by record, and every record is
+// capped at MAX_RECORD_CHARS, so memory stays bounded however large the upload is.
+final class WorkoutImportReader {
+
+    static final int MAX_RECORD_CHARS = 1 << 20;
+    static final int MAX_SETS_PER_SESSION = 1_000;
+
+    interface Sink {
+        void session(long line, WorkoutImportSession session) throws InterruptedException;
+
+        void failure(long line, String message);
+
+        // Called once per physical line consumed, for progress reporting
+        default void lineRead() {
+        }
+    }
+
+    private WorkoutImportReader() {
+    }
+
+    // One session object per line, as written by GET /workouts/export?format=ndjson
+    static void readNdjson(Reader in, ObjectMapper objectMapper, Sink sink) throws IOException, InterruptedException {
+        StringBuilder record = new StringBuilder();
+        long line = 0;
+        while (true) {
+            record.setLength(0);
+            int end = readRecord(in, record, false);
+            if (end == EOF && record.isEmpty()) {
+                return;
+            }
+            line++;
+            sink.lineRead();
+
+            if (end == TOO_LONG) {
+                sink.failure(line, "Line exceeds " + MAX_RECORD_CHARS + " characters");
+            } else if (!record.toString().isBlank()) {
+                try {
+                    WorkoutImportSession session = objectMapper.readValue(record.toString(), WorkoutImportSession.class);
+                    if (session.sets == null) {
+                        session.sets = new ArrayList<>();
+                    }
+                    if (session.sets.size() > MAX_SETS_PER_SESSION) {
+                        sink.failure(line, "More than " + MAX_SETS_PER_SESSION + " sets in one session");
+                    } else {
+                        for (WorkoutImportSet set : session.sets) {
+                            if (set != null) set.line = line;
+                        }
+                        session.sets.removeIf(Objects::isNull);
+                        sink.session(line, session);
+                    }
+                } catch (JsonProcessingException e) {
+                    sink.failure(line, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+
+            if (end == EOF) {
+                return;
+            }
+        }
+    }
+
+    // One row per set, as written by GET /workouts/export?format=csv. Consecutive rows with the same
+    // session_id (or, without that column, the same started_at) form one session.
+    static void readCsv(Reader in, Sink sink) throws IOException, InterruptedException {
+        CsvRecords records = new CsvRecords(in, sink);
+
+        List<String> header = records.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("started_at") || !columns.containsKey("timezone")) {
+            sink.failure(1, "Header must include started_at and timezone");
+            return;
+        }
+        String groupColumn = columns.containsKey("session_id") ? "session_id" : "started_at";
+
+        String currentKey = null;
+        long currentLine = 0;
+        WorkoutImportSession current = null;
+        // Rows of a session whose own fields could not be read are skipped as a group
+        String skipKey = null;
+
+        List<String> row;
+        while ((row = records.next()) != null) {
+            long line = records.recordLine;
+            if (records.tooLong) {
+                sink.failure(line, "Row exceeds " + MAX_RECORD_CHARS + " characters");
+                continue;
+            }
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+
+            Row r = new Row(row, columns);
+            String key = r.text(groupColumn);
+            if (skipKey != null && skipKey.equals(key)) {
+                continue;
+            }
+            skipKey = null;
+
+            if (current == null || !Objects.equals(key, currentKey)) {
+                if (current != null) {
+                    sink.session(currentLine, current);
+                }
+                currentKey = key;
+                currentLine = line;
+                try {
+                    current = new WorkoutImportSession();
+                    current.startedAt = r.timestamp("started_at");
+                    current.endedAt = r.timestamp("ended_at");
+                    current.timezone = r.text("timezone");
+                    current.notes = r.text("session_notes");
+                } catch (IllegalArgumentException e) {
+                    sink.failure(line, e.getMessage());
+                    current = null;
+                    skipKey = key;
+                    continue;
+                }
+            }
+
+            if (!r.hasSet()) {
+                continue;
+            }
+            if (current.sets.size() >= MAX_SETS_PER_SESSION) {
+                sink.failure(line, "More than " + MAX_SETS_PER_SESSION + " sets in one session");
+                continue;
+            }
+            try {
+                WorkoutImportSet set = new WorkoutImportSet();
+                set.line = line;
+                set.exerciseId = r.longValue("exercise_id");
+                set.exerciseName = r.text("exercise_name");
+                set.setNumber = r.intValue("set_number");
+                set.reps = r.intValue("reps");
+                set.weight = r.doubleValue("weight");
+                set.rpe = r.doubleValue("rpe");
+                set.restSeconds = r.intValue("rest_seconds");
+                set.notes = r.text("set_notes");
+                current.sets.add(set);
+            } catch (IllegalArgumentException e) {
+                sink.failure(line, e.getMessage());
+            }
+        }
+
+        if (current != null) {
+            sink.session(currentLine, current);
+        }
+    }
+
+    // ===== internal helpers =====
+
+    private static final int NEWLINE = 0;
+    private static final int EOF = 1;
+    private static final int TOO_LONG = 2;
+
+    // Reads up to the next unquoted newline. CSV mode honours quotes (fields may span lines).
+    // Oversized records are consumed to their end but not buffered.
+    private static int readRecord(Reader in, StringBuilder record, boolean csvQuotes) throws IOException {
+        boolean quoted = false;
+        boolean tooLong = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (csvQuotes && c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                break;
+            }
+            if (record.length() >= MAX_RECORD_CHARS) {
+                tooLong = true;
+                continue;
+            }
+            record.append((char) c);
+        }
+        if (!record.isEmpty() && record.charAt(record.length() - 1) == '\r') {
+            record.setLength(record.length() - 1);
+        }
+        if (tooLong) return TOO_LONG;
+        return c == -1 ? EOF : NEWLINE;
+    }
+
+    private static final class CsvRecords {
+        private final Reader in;
+        private final Sink sink;
+        private final StringBuilder buffer = new StringBuilder();
+        private long nextLine = 1;
+        private boolean eof;
+
+        long recordLine;
+        boolean tooLong;
+
+        CsvRecords(Reader in, Sink sink) {
+            this.in = in;
+            this.sink = sink;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            buffer.setLength(0);
+            int end = readRecord(in, buffer, true);
+            if (end == EOF) {
+                eof = true;
+                if (buffer.isEmpty()) {
+                    return null;
+                }
+            }
+            recordLine = nextLine;
+            long physicalLines = 1 + buffer.chars().filter(ch -> ch == '\n').count();
+            nextLine += physicalLines;
+            for (long i = 0; i < physicalLines; i++) {
+                sink.lineRead();
+            }
+            tooLong = end == TOO_LONG;
+            return tooLong ? List.of("") : split(buffer);
+        }
+
+        // RFC 4180 field splitting ("" inside quotes is a literal quote)
+        private static List<String> split(CharSequence record) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                char ch = record.charAt(i);
+                if (quoted) {
+                    if (ch == '"') {
+                        if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(ch);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // Typed access to a CSV row by column name; blank or missing cells read as null
+    private record Row(List<String> cells, Map<String, Integer> columns) {
+
+        String text(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(index);
+            return value.isBlank() ? null : value;
+        }
+
+        boolean hasSet() {
+            return text("exercise_id") != null || text("exercise_name") != null
+                    || text("reps") != null || text("weight") != null;
+        }
+
+        OffsetDateTime timestamp(String column) {
+            String value = text(column);
+            try {
+                return value != null ? OffsetDateTime.parse(value) : null;
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        Long longValue(String column) {
+            String value = text(column);
+            try {
+                return value != null ? Long.valueOf(value.trim()) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        Integer intValue(String column) {
+            String value = text(column);
+            try {
+                return value != null ? Integer.valueOf(value.trim()) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        Double doubleValue(String column) {
+            String value = text(column);
+            try {
+                return value != null ? Double.valueOf(value.trim()) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+}
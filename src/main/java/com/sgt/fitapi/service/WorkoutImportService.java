@@ -0,0 +1,391 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.dto.workout.*;
+import com.sgt.fitapi.mapper.WorkoutMapper;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.WorkoutSession;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk history import. The uploading request thread parses the file and validates each session;
+// a persister thread drains a bounded queue and writes sessions in batched transactions through
+// WorkoutWriteService. When persistence falls behind, the full queue blocks the parser and therefore
+// the upload itself, so memory stays bounded by the queue size rather than the file size.
+// Job status is saved to WorkoutImportJobStore so a poll can reach any node; the uploading node
+// answers from its live counters while the job runs there.
+@Service
+public class WorkoutImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutImportService.class);
+
+    static final int QUEUE_CAPACITY = 64;
+    static final int BATCH_SESSIONS = 50;
+    private static final int MAX_REPORTED_FAILURES = 100;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    // A running job saves at least this often; one that hasn't for STALE_AFTER lost its node
+    static final Duration HEARTBEAT = Duration.ofSeconds(15);
+    private static final Duration STALE_AFTER = HEARTBEAT.multipliedBy(8);
+    // Suggested wait for a turned-away upload; imports run for seconds to minutes, not milliseconds
+    public static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+    private static final PendingSession END = new PendingSession(0, null, Map.of(), List.of());
+
+    private final WorkoutWriteService writeService;
+    private final ExerciseCatalog catalog;
+    private final WorkoutImportJobStore jobStore;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final ExecutorService persisters;
+
+    // Jobs still running on this node
+    private final ConcurrentHashMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public WorkoutImportService(WorkoutWriteService writeService,
+                                ExerciseCatalog catalog,
+                                WorkoutImportJobStore jobStore,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${fitapi.import.max-concurrent:2}") int maxConcurrent) {
+        this.writeService = writeService;
+        this.catalog = catalog;
+        this.jobStore = jobStore;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        // No queueing: an import either gets a persister thread now or is turned away
+        this.persisters = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "workout-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Parses the upload on the calling thread and returns once it has been read completely;
+    // the last batches may still be persisting (see getStatus). Throws RejectedExecutionException,
+    // before reading anything, when every persister is busy.
+    public WorkoutImportStatus importHistory(Long userId, String format, InputStream body) {
+        jobStore.deleteInactiveSince(Instant.now().minus(FINISHED_JOB_RETENTION));
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, format);
+        BlockingQueue<PendingSession> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        jobStore.insert(userId, job.toStatus(), Instant.now());
+        jobs.put(job.id, job);
+        try {
+            persisters.execute(() -> persist(job, queue));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            jobStore.delete(job.id);
+            throw e;
+        }
+
+        WorkoutImportReader.Sink sink = new WorkoutImportReader.Sink() {
+            @Override
+            public void session(long line, WorkoutImportSession session) throws InterruptedException {
+                PendingSession pending = prepare(job, line, session);
+                if (pending != null) {
+                    enqueue(job, queue, pending);
+                }
+            }
+
+            @Override
+            public void failure(long line, String message) {
+                job.fail(line, message);
+            }
+
+            @Override
+            public void lineRead() {
+                job.linesRead.incrementAndGet();
+            }
+        };
+
+        Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if ("csv".equalsIgnoreCase(format)) {
+                WorkoutImportReader.readCsv(reader, sink);
+            } else {
+                WorkoutImportReader.readNdjson(reader, objectMapper, sink);
+            }
+        } catch (IOException e) {
+            job.uploadFailed("Upload interrupted: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.uploadFailed("Import interrupted");
+        } catch (CancellationException e) {
+            // The persister gave up; its reason is already recorded
+        } finally {
+            // Whatever was parsed is still written; the persister stops at the marker.
+            // The interrupt flag is held back so an interrupted upload still delivers it.
+            boolean interrupted = Thread.interrupted();
+            try {
+                enqueue(job, queue, END);
+            } catch (CancellationException e) {
+                // The persister already stopped; nothing is left to drain the queue
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Lines read and upload failures; the persister saves its own progress
+        return save(job);
+    }
+
+    public Optional<WorkoutImportStatus> getStatus(String jobId, Long userId) {
+        ImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.userId.equals(userId) ? Optional.of(job.toStatus()) : Optional.empty();
+        }
+        return jobStore.find(jobId, userId, Instant.now().minus(STALE_AFTER));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        persisters.shutdown();
+        persisters.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // ===== internal helpers =====
+
+    // Validates a parsed session and resolves its exercises (from the in-memory catalogue, no queries).
+    // Invalid sets are reported and dropped; an invalid session is reported and dropped whole.
+    private PendingSession prepare(ImportJob job, long line, WorkoutImportSession session) {
+        List<String> sessionErrors = new ArrayList<>();
+        for (ConstraintViolation<CreateWorkoutSessionRequest> violation : validator.validate((CreateWorkoutSessionRequest) session)) {
+            sessionErrors.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (sessionErrors.isEmpty() && session.endedAt != null && session.endedAt.isBefore(session.startedAt)) {
+            sessionErrors.add("endedAt must be >= startedAt");
+        }
+        if (!sessionErrors.isEmpty()) {
+            job.fail(line, "Session skipped: " + String.join(", ", sessionErrors));
+            return null;
+        }
+
+        Map<Long, Exercise> exercises = new HashMap<>();
+        List<CreateWorkoutSetRequest> sets = new ArrayList<>(session.sets.size());
+        for (WorkoutImportSet set : session.sets) {
+            Optional<Exercise> exercise = set.exerciseId != null
+                    ? catalog.findById(set.exerciseId)
+                    : catalog.findByName(set.exerciseName);
+            if (exercise.isEmpty()) {
+                job.fail(set.line, "Set skipped: unknown exercise "
+                        + (set.exerciseId != null ? set.exerciseId : "'" + set.exerciseName + "'"));
+                continue;
+            }
+            set.exerciseId = exercise.get().getId();
+
+            Set<ConstraintViolation<CreateWorkoutSetRequest>> violations = validator.validate((CreateWorkoutSetRequest) set);
+            if (!violations.isEmpty()) {
+                List<String> errors = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .toList();
+                job.fail(set.line, "Set skipped: " + String.join(", ", errors));
+                continue;
+            }
+
+            exercises.put(exercise.get().getId(), exercise.get());
+            sets.add(set);
+        }
+        return new PendingSession(line, session, exercises, sets);
+    }
+
+    private static void enqueue(ImportJob job, BlockingQueue<PendingSession> queue, PendingSession pending)
+            throws InterruptedException {
+        // Blocks while the persister is behind; bail out if it has stopped
+        while (!queue.offer(pending, 1, TimeUnit.SECONDS)) {
+            if (job.finished()) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    private void persist(ImportJob job, BlockingQueue<PendingSession> queue) {
+        List<PendingSession> batch = new ArrayList<>(BATCH_SESSIONS);
+        try {
+            boolean done = false;
+            while (!done) {
+                PendingSession next;
+                while ((next = queue.poll(HEARTBEAT.toMillis(), TimeUnit.MILLISECONDS)) == null) {
+                    save(job);
+                }
+                batch.add(next);
+                queue.drainTo(batch, BATCH_SESSIONS - 1);
+
+                int end = batch.indexOf(END);
+                if (end >= 0) {
+                    batch.subList(end, batch.size()).clear();
+                    done = true;
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(job, batch);
+                    batch.clear();
+                    save(job);
+                }
+            }
+            job.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.abort("Import interrupted");
+        } catch (RuntimeException e) {
+            log.error("Import {} failed", job.id, e);
+            job.abort("Import failed: " + e.getMessage());
+        } finally {
+            save(job);
+            jobs.remove(job.id);
+        }
+    }
+
+    // Writes the job's current counters and new failures. Synchronised on the job so the uploader and the
+    // persister never save an older snapshot over a newer one. Progress is best effort: a failed save is
+    // logged and the next one catches up.
+    private WorkoutImportStatus save(ImportJob job) {
+        synchronized (job) {
+            WorkoutImportStatus status = job.toStatus();
+            try {
+                jobStore.update(status, status.failures.subList(job.savedFailures, status.failures.size()),
+                        job.savedFailures, Instant.now());
+                job.savedFailures = status.failures.size();
+            } catch (RuntimeException e) {
+                log.warn("Could not save progress of import {}", job.id, e);
+            }
+            return status;
+        }
+    }
+
+    // One transaction per batch; if it fails, retry the sessions one by one to isolate the bad row.
+    private void writeBatch(ImportJob job, List<PendingSession> batch) {
+        try {
+            tx.executeWithoutResult(status -> batch.forEach(pending -> write(job, pending)));
+            for (PendingSession pending : batch) {
+                job.recordWritten(pending);
+            }
+        } catch (RuntimeException batchFailure) {
+            for (PendingSession pending : batch) {
+                try {
+                    tx.executeWithoutResult(status -> write(job, pending));
+                    job.recordWritten(pending);
+                } catch (RuntimeException e) {
+                    job.fail(pending.line, "Session skipped: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(ImportJob job, PendingSession pending) {
+        // Entities are built inside the transaction so a rolled-back batch leaves nothing half-initialised
+        WorkoutSession saved = writeService.createSession(WorkoutMapper.fromCreateRequest(pending.session, job.userId));
+        if (!pending.sets.isEmpty()) {
+            writeService.addSets(saved, pending.exercises, pending.sets);
+        }
+    }
+
+    private record PendingSession(long line,
+                                  CreateWorkoutSessionRequest session,
+                                  Map<Long, Exercise> exercises,
+                                  List<CreateWorkoutSetRequest> sets) {
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final Long userId;
+        final String format;
+        final Instant startedAt = Instant.now();
+
+        final AtomicLong linesRead = new AtomicLong();
+        final AtomicLong sessionsImported = new AtomicLong();
+        final AtomicLong setsImported = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final List<WorkoutImportFailure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        volatile String state = "RUNNING";
+        volatile String error;
+        volatile Instant finishedAt;
+        // Failures already in the store; guarded by the job's monitor
+        int savedFailures;
+
+        ImportJob(String id, Long userId, String format) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format.toLowerCase(Locale.ROOT);
+        }
+
+        void fail(long line, String message) {
+            failureCount.incrementAndGet();
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(new WorkoutImportFailure(line, message));
+            }
+        }
+
+        void recordWritten(PendingSession pending) {
+            sessionsImported.incrementAndGet();
+            setsImported.addAndGet(pending.sets.size());
+        }
+
+        synchronized void complete() {
+            if (finishedAt == null) {
+                state = error == null ? "COMPLETED" : "FAILED";
+                finishedAt = Instant.now();
+            }
+        }
+
+        // Upload problems: what was parsed is still written, but the job ends as FAILED
+        synchronized void uploadFailed(String message) {
+            if (error == null) {
+                error = message;
+            }
+        }
+
+        // Persistence problems end the job immediately
+        synchronized void abort(String message) {
+            uploadFailed(message);
+            if (finishedAt == null) {
+                state = "FAILED";
+                finishedAt = Instant.now();
+            }
+        }
+
+        boolean finished() {
+            return finishedAt != null;
+        }
+
+        WorkoutImportStatus toStatus() {
+            WorkoutImportStatus status = new WorkoutImportStatus();
+            status.jobId = id;
+            status.format = format;
+            status.state = state;
+            status.error = error;
+            status.linesRead = linesRead.get();
+            status.sessionsImported = sessionsImported.get();
+            status.setsImported = setsImported.get();
+            status.failureCount = failureCount.get();
+            synchronized (failures) {
+                status.failures = new ArrayList<>(failures);
+            }
+            status.startedAt = startedAt.atOffset(ZoneOffset.UTC);
+            status.finishedAt = finishedAt != null ? finishedAt.atOffset(ZoneOffset.UTC) : null;
+            return status;
+        }
+    }
+}
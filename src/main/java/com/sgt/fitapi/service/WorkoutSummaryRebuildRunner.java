@@ -0,0 +1,50 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Drift repair: recomputes every materialised session summary from workout_sets.
+// Run once with --fitapi.summaries.rebuild=true (or FITAPI_SUMMARIES_REBUILD=true).
+@Component
+@ConditionalOnProperty(name = "fitapi.summaries.rebuild", havingValue = "true")
+public class WorkoutSummaryRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutSummaryRebuildRunner.class);
+    private static final int PAGE_SIZE = 500;
+
+    private final WorkoutSessionRepository sessionRepo;
+    private final WorkoutSummaryService summaryService;
+
+    public WorkoutSummaryRebuildRunner(WorkoutSessionRepository sessionRepo,
+                                       WorkoutSummaryService summaryService) {
+        this.sessionRepo = sessionRepo;
+        this.summaryService = summaryService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long rebuilt = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = sessionRepo.findIdsAfter(afterId, PageRequest.ofSize(PAGE_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            // One transaction per session keeps locks short while traffic is being served
+            for (Long id : ids) {
+                summaryService.rebuild(id);
+            }
+            rebuilt += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Rebuilt {} workout session summaries", rebuilt);
+    }
+}
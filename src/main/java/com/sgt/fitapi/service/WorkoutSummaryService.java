@@ -3,28 +3,58 @@ package com.sgt.fitapi.service;
 import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
 import com.sgt.fitapi.dto.workout.WorkoutSummaryView;
 import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSessionExerciseSummary;
+import com.sgt.fitapi.model.WorkoutSessionSummary;
 import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.WorkoutSessionExerciseSummaryRepository;
 import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSessionSummaryRepository;
 import com.sgt.fitapi.repository.WorkoutSetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class WorkoutSummaryService {
 
     private final WorkoutSessionRepository sessionRepo;
     private final WorkoutSetRepository setRepo;
+    private final WorkoutSessionSummaryRepository summaryRepo;
+    private final WorkoutSessionExerciseSummaryRepository exerciseSummaryRepo;
+
+    private final Timer storedSummaries;
+    private final Timer computedSummaries;
 
     public WorkoutSummaryService(WorkoutSessionRepository sessionRepo,
-                                 WorkoutSetRepository setRepo) {
+                                 WorkoutSetRepository setRepo,
+                                 WorkoutSessionSummaryRepository summaryRepo,
+                                 WorkoutSessionExerciseSummaryRepository exerciseSummaryRepo,
+                                 MeterRegistry meterRegistry) {
         this.sessionRepo = sessionRepo;
         this.setRepo = setRepo;
+        this.summaryRepo = summaryRepo;
+        this.exerciseSummaryRepo = exerciseSummaryRepo;
+        // "computed" growing relative to "stored" means summaries are missing and being rebuilt on read
+        storedSummaries = Timer.builder("workout.summary.duration")
+                .tag("source", "stored")
+                .description("Time to build a workout summary response")
+                .register(meterRegistry);
+        computedSummaries = Timer.builder("workout.summary.duration")
+                .tag("source", "computed")
+                .description("Time to build a workout summary response")
+                .register(meterRegistry);
     }
 
+    @Transactional(readOnly = true)
     public WorkoutSummaryView calculateSummary(Long workoutId, Long userId) {
+        long start = System.nanoTime();
         // Enforce ownership here to prevent cross-tenant access if new callers skip controller checks.
         WorkoutSession session = sessionRepo.findByIdAndUserId(workoutId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
@@ -32,7 +62,24 @@ public class WorkoutSummaryService {
                         "WorkoutSession not found: " + workoutId
                 ));
 
-        List<WorkoutSet> sets = setRepo.findByWorkoutSessionId(workoutId);
+        // Served from the materialised summary. Sessions without one are aggregated but not stored:
+        // rows are only created by set writes and the rebuild runner, so concurrent reads can't race to insert
+        WorkoutSessionSummary totals;
+        List<ExerciseVolumeView> perExercise;
+
+        Optional<WorkoutSessionSummary> stored = summaryRepo.findById(workoutId);
+        Timer timer;
+        if (stored.isPresent()) {
+            totals = stored.get();
+            perExercise = exerciseSummaryRepo.findBreakdown(workoutId);
+            timer = storedSummaries;
+        } else {
+            perExercise = setRepo.sumVolumeByExercise(workoutId);
+            totals = new WorkoutSessionSummary(workoutId);
+            totals.setTotalVolume(perExercise.stream().mapToDouble(ev -> ev.volume).sum());
+            totals.setSetsCount((int) setRepo.countByWorkoutSessionId(workoutId));
+            timer = computedSummaries;
+        }
 
         WorkoutSummaryView summary = new WorkoutSummaryView();
         summary.id = session.getId();
@@ -42,40 +89,129 @@ public class WorkoutSummaryService {
         summary.timezone = session.getTimezone();
         summary.notes = session.getNotes();
 
+        summary.totalVolume = totals.getTotalVolume();
+        summary.setsCount = totals.getSetsCount();
+        summary.uniqueExercises = perExercise.size();
+        summary.exerciseBreakdown = new ArrayList<>(perExercise);
+
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return summary;
+    }
+
+    // ========= Incremental maintenance (called by WorkoutWriteService) =========
+
+    @Transactional
+    public void initialise(Long workoutSessionId) {
+        summaryRepo.save(new WorkoutSessionSummary(workoutSessionId));
+    }
+
+    @Transactional
+    public void recordSetsAdded(Long workoutSessionId, List<WorkoutSet> sets) {
+        if (sets.isEmpty()) {
+            return;
+        }
+
+        WorkoutSessionSummary summary = summaryRepo.findForUpdate(workoutSessionId).orElse(null);
+        if (summary == null) {
+            // No materialised row yet: the sets are already flushed, so aggregate from scratch
+            rebuild(workoutSessionId);
+            return;
+        }
+
+        Map<Long, ExerciseVolumeView> deltas = aggregate(sets);
+
+        List<WorkoutSessionExerciseSummary.Key> keys = deltas.keySet().stream()
+                .map(exerciseId -> new WorkoutSessionExerciseSummary.Key(workoutSessionId, exerciseId))
+                .toList();
+        Map<Long, WorkoutSessionExerciseSummary> existing = new HashMap<>();
+        for (WorkoutSessionExerciseSummary row : exerciseSummaryRepo.findAllById(keys)) {
+            existing.put(row.getId().getExerciseId(), row);
+        }
+
+        double totalDelta = 0.0;
+        for (ExerciseVolumeView delta : deltas.values()) {
+            totalDelta += delta.volume;
+
+            WorkoutSessionExerciseSummary row = existing.get(delta.exerciseId);
+            if (row == null) {
+                row = new WorkoutSessionExerciseSummary(workoutSessionId, delta.exerciseId);
+            }
+            row.setVolume(row.getVolume() + delta.volume);
+            row.setSetsCount(row.getSetsCount() + delta.setsCount);
+            exerciseSummaryRepo.save(row);
+        }
+
+        summary.setTotalVolume(summary.getTotalVolume() + totalDelta);
+        summary.setSetsCount(summary.getSetsCount() + sets.size());
+        summary.setUpdatedAt(Instant.now());
+    }
+
+    // Subtracting doubles would drift from the GROUP BY total over add/delete cycles, so removals
+    // recompute the session from its remaining sets (the query flushes the pending deletes first).
+    @Transactional
+    public void recordSetsRemoved(Long workoutSessionId, List<WorkoutSet> sets) {
+        if (!sets.isEmpty()) {
+            rebuild(workoutSessionId);
+        }
+    }
+
+    // Recomputes a session's summary from its sets; used for removals, drift repair and legacy sessions.
+    // Rows are reconciled through the persistence context rather than bulk-deleted, so entities the
+    // calling write transaction holds stay managed.
+    @Transactional
+    public void rebuild(Long workoutSessionId) {
+        WorkoutSessionSummary summary = summaryRepo.findForUpdate(workoutSessionId)
+                .orElseGet(() -> new WorkoutSessionSummary(workoutSessionId));
+        List<ExerciseVolumeView> perExercise = setRepo.sumVolumeByExercise(workoutSessionId);
+        long setsCount = setRepo.countByWorkoutSessionId(workoutSessionId);
+
+        Map<Long, WorkoutSessionExerciseSummary> stale = new HashMap<>();
+        for (WorkoutSessionExerciseSummary row : exerciseSummaryRepo.findByIdWorkoutSessionId(workoutSessionId)) {
+            stale.put(row.getId().getExerciseId(), row);
+        }
+
         double totalVolume = 0.0;
-        Map<Long, ExerciseVolumeView> perExercise = new HashMap<>();
+        for (ExerciseVolumeView ev : perExercise) {
+            totalVolume += ev.volume;
+
+            WorkoutSessionExerciseSummary row = stale.remove(ev.exerciseId);
+            if (row == null) {
+                row = new WorkoutSessionExerciseSummary(workoutSessionId, ev.exerciseId);
+            }
+            row.setVolume(ev.volume);
+            row.setSetsCount(ev.setsCount);
+            exerciseSummaryRepo.save(row);
+        }
+        exerciseSummaryRepo.deleteAll(stale.values());
+
+        summary.setTotalVolume(totalVolume);
+        summary.setSetsCount((int) setsCount);
+        summary.setUpdatedAt(Instant.now());
+        summaryRepo.save(summary);
+    }
 
+    // ===== internal helpers =====
+
+    // Same rules as WorkoutSetRepository.sumVolumeByExercise: sets missing reps or weight don't contribute
+    static Map<Long, ExerciseVolumeView> aggregate(List<WorkoutSet> sets) {
+        Map<Long, ExerciseVolumeView> perExercise = new LinkedHashMap<>();
         for (WorkoutSet ws : sets) {
             Integer reps = ws.getReps();
             Double weight = ws.getWeight();
 
             if (reps == null || weight == null) continue;
 
-            double setVolume = reps * weight;
-            totalVolume += setVolume;
-
             Long exerciseId = ws.getExercise().getId();
-            String exerciseName = ws.getExercise().getName();
-
-            ExerciseVolumeView ev = perExercise.getOrDefault(exerciseId, null);
+            ExerciseVolumeView ev = perExercise.get(exerciseId);
             if (ev == null) {
                 ev = new ExerciseVolumeView();
                 ev.exerciseId = exerciseId;
-                ev.exerciseName = exerciseName;
-                ev.volume = 0.0;
-                ev.setsCount = 0;
                 perExercise.put(exerciseId, ev);
             }
 
-            ev.volume += setVolume;
+            ev.volume += reps * weight;
             ev.setsCount++;
         }
-
-        summary.totalVolume = totalVolume;
-        summary.setsCount = sets.size();
-        summary.uniqueExercises = perExercise.size();
-        summary.exerciseBreakdown = new ArrayList<>(perExercise.values());
-
-        return summary;
+        return perExercise;
     }
 }
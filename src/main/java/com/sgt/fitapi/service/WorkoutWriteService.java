@@ -0,0 +1,115 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.CreateWorkoutSetRequest;
+import com.sgt.fitapi.mapper.WorkoutMapper;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Single write path for sessions and sets, so derived data (summaries, daily rollups, personal records) and the
+// session version (ETag) change in the same transaction.
+// Callers are expected to have checked ownership already.
+@Service
+public class WorkoutWriteService {
+
+    private final WorkoutSessionRepository sessionRepo;
+    private final WorkoutSetRepository setRepo;
+    private final WorkoutSummaryService summaryService;
+    private final DailyRollupService rollupService;
+    private final PersonalRecordService recordService;
+
+    public WorkoutWriteService(WorkoutSessionRepository sessionRepo,
+                               WorkoutSetRepository setRepo,
+                               WorkoutSummaryService summaryService,
+                               DailyRollupService rollupService,
+                               PersonalRecordService recordService) {
+        this.sessionRepo = sessionRepo;
+        this.setRepo = setRepo;
+        this.summaryService = summaryService;
+        this.rollupService = rollupService;
+        this.recordService = recordService;
+    }
+
+    @Transactional
+    public WorkoutSession createSession(WorkoutSession session) {
+        WorkoutSession saved = sessionRepo.save(session);
+        summaryService.initialise(saved.getId());
+        return saved;
+    }
+
+    // previousStartedAt/previousTimezone are the values before the caller applied its changes
+    @Transactional
+    public WorkoutSession updateSession(WorkoutSession session, Instant previousStartedAt, String previousTimezone) {
+        // @Version: the UPDATE only applies if nobody changed the session since it was loaded.
+        // Flushed here so a conflict surfaces now and the caller's ETag carries the bumped version.
+        WorkoutSession saved = sessionRepo.saveAndFlush(session);
+        boolean startChanged = !saved.getStartedAt().equals(previousStartedAt);
+        if (startChanged || !saved.getTimezone().equals(previousTimezone)) {
+            List<WorkoutSet> sets = setRepo.findByWorkoutSessionId(saved.getId());
+            rollupService.recordSessionMoved(saved, previousStartedAt, previousTimezone, sets);
+            // Records only care about the instant, not the local day
+            if (startChanged) {
+                recordService.recordSessionMoved(saved, sets);
+            }
+        }
+        return saved;
+    }
+
+    // Sets go with the session (ON DELETE CASCADE); their rollup totals are taken out first.
+    // Fails with an optimistic locking exception if the session changed since it was loaded.
+    @Transactional
+    public void deleteSession(WorkoutSession session) {
+        List<WorkoutSet> sets = setRepo.findByWorkoutSessionId(session.getId());
+        setRepo.deleteAll(sets);
+        sessionRepo.delete(session);
+        rollupService.recordSetsRemoved(session, sets);
+        recordService.recordSetsRemoved(session.getUserId(), sets);
+    }
+
+    @Transactional
+    public WorkoutSet addSet(WorkoutSession session, Exercise exercise, CreateWorkoutSetRequest body) {
+        WorkoutSet saved = setRepo.save(WorkoutMapper.fromCreateSetRequest(session, exercise, body));
+        sessionRepo.incrementVersion(session.getId());
+        summaryService.recordSetsAdded(session.getId(), List.of(saved));
+        rollupService.recordSetsAdded(session, List.of(saved));
+        recordService.recordSetsAdded(session, List.of(saved));
+        return saved;
+    }
+
+    // Inserts all sets in one transaction (JDBC-batched by Hibernate) and applies a single summary delta.
+    // exercisesById must contain every exerciseId referenced by bodies.
+    @Transactional
+    public List<WorkoutSet> addSets(WorkoutSession session,
+                                    Map<Long, Exercise> exercisesById,
+                                    List<CreateWorkoutSetRequest> bodies) {
+        List<WorkoutSet> sets = new ArrayList<>(bodies.size());
+        for (CreateWorkoutSetRequest body : bodies) {
+            sets.add(WorkoutMapper.fromCreateSetRequest(session, exercisesById.get(body.exerciseId), body));
+        }
+
+        List<WorkoutSet> saved = setRepo.saveAll(sets);
+        sessionRepo.incrementVersion(session.getId());
+        summaryService.recordSetsAdded(session.getId(), saved);
+        rollupService.recordSetsAdded(session, saved);
+        recordService.recordSetsAdded(session, saved);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteSet(WorkoutSet set) {
+        setRepo.delete(set);
+        sessionRepo.incrementVersion(set.getWorkoutSession().getId());
+        summaryService.recordSetsRemoved(set.getWorkoutSession().getId(), List.of(set));
+        rollupService.recordSetsRemoved(set.getWorkoutSession(), List.of(set));
+        recordService.recordSetsRemoved(set.getWorkoutSession().getUserId(), List.of(set));
+    }
+}
@@ -0,0 +1,11 @@
+-- Failed login attempts per (lower-cased) email, shared by every node so the limit doesn't
+-- multiply with the replica count. A row is one fixed window: it restarts with the first failure
+-- after the window has passed and is deleted on a successful login or by the periodic sweep.
+CREATE TABLE IF NOT EXISTS login_attempts (
+    attempt_key VARCHAR(320) PRIMARY KEY,
+    window_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    failures INTEGER NOT NULL
+);
+
+-- Sweep deletes expired windows
+CREATE INDEX IF NOT EXISTS idx_login_attempts_window_start ON login_attempts (window_start);
@@ -0,0 +1,38 @@
+-- Progress of bulk history imports, shared by every node so a status poll can land on any replica
+-- and survives a restart. The uploading node writes it after each batch and on a heartbeat; a RUNNING
+-- row whose heartbeat has stopped is reported as FAILED. Rows are deleted an hour after they finish.
+CREATE TABLE IF NOT EXISTS workout_import_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    format VARCHAR(16) NOT NULL,
+    state VARCHAR(16) NOT NULL,
+    error VARCHAR(1000),
+
+    lines_read BIGINT NOT NULL,
+    sessions_imported BIGINT NOT NULL,
+    sets_imported BIGINT NOT NULL,
+    failure_count BIGINT NOT NULL,
+
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Retention deletes by last activity
+CREATE INDEX IF NOT EXISTS idx_workout_import_jobs_updated_at ON workout_import_jobs (updated_at);
+
+-- The first reported row failures of each job, in the order they were found
+CREATE TABLE IF NOT EXISTS workout_import_failures (
+    job_id VARCHAR(36) NOT NULL,
+    seq INTEGER NOT NULL,
+    line BIGINT NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+
+    CONSTRAINT pk_workout_import_failures
+        PRIMARY KEY (job_id, seq),
+
+    CONSTRAINT fk_workout_import_failures_job
+        FOREIGN KEY (job_id)
+        REFERENCES workout_import_jobs (job_id)
+        ON DELETE CASCADE
+);
@@ -0,0 +1,55 @@
+-- Materialised per-session summaries, maintained incrementally on set writes
+
+-- Session totals (one row per session)
+CREATE TABLE IF NOT EXISTS workout_session_summaries (
+    workout_session_id BIGINT PRIMARY KEY,
+    total_volume DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sets_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_session_summaries_session
+        FOREIGN KEY (workout_session_id)
+        REFERENCES workout_sessions (id)
+        ON DELETE CASCADE
+);
+
+-- Per-exercise breakdown within a session
+CREATE TABLE IF NOT EXISTS workout_session_exercise_summaries (
+    workout_session_id BIGINT NOT NULL,
+    exercise_id BIGINT NOT NULL,
+    volume DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sets_count INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_session_exercise_summaries
+        PRIMARY KEY (workout_session_id, exercise_id),
+
+    CONSTRAINT fk_session_exercise_summaries_session
+        FOREIGN KEY (workout_session_id)
+        REFERENCES workout_sessions (id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_session_exercise_summaries_exercise
+        FOREIGN KEY (exercise_id)
+        REFERENCES exercises (id)
+        ON DELETE RESTRICT
+);
+
+-- Backfill existing sessions so reads never have to fall back to aggregation
+INSERT INTO workout_session_summaries (workout_session_id, total_volume, sets_count, updated_at)
+SELECT s.id,
+       COALESCE(SUM(ws.reps * ws.weight), 0),
+       COUNT(ws.id),
+       NOW()
+FROM workout_sessions s
+LEFT JOIN workout_sets ws ON ws.workout_session_id = s.id
+GROUP BY s.id
+ON CONFLICT (workout_session_id) DO NOTHING;
+
+INSERT INTO workout_session_exercise_summaries (workout_session_id, exercise_id, volume, sets_count)
+SELECT ws.workout_session_id,
+       ws.exercise_id,
+       SUM(ws.reps * ws.weight),
+       COUNT(*)
+FROM workout_sets ws
+GROUP BY ws.workout_session_id, ws.exercise_id
+ON CONFLICT (workout_session_id, exercise_id) DO NOTHING;
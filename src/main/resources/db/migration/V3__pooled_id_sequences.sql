@@ -0,0 +1,15 @@
+-- Sequence-based ID allocation so Hibernate can batch inserts (IDENTITY forces a round trip per row).
+-- The BIGSERIAL sequences are kept and step by the entities' allocationSize (50); with the pooled-lo
+-- optimiser each nextval reserves [value, value + 49] for the application. Column defaults stay in
+-- place, so plain SQL inserts still draw unique IDs from the same sequences.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE exercises_id_seq INCREMENT BY 50;
+ALTER SEQUENCE workout_sessions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE workout_sets_id_seq INCREMENT BY 50;
+
+-- Start the next block above every existing ID
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 1));
+SELECT setval('exercises_id_seq', COALESCE((SELECT MAX(id) FROM exercises), 1));
+SELECT setval('workout_sessions_id_seq', COALESCE((SELECT MAX(id) FROM workout_sessions), 1));
+SELECT setval('workout_sets_id_seq', COALESCE((SELECT MAX(id) FROM workout_sets), 1));
@@ -0,0 +1,8 @@
+-- Trigram index for exercise name search.
+-- Serves both the substring filter (lower(name) LIKE '%q%') and similarity ranking
+-- (word_similarity / <%), neither of which can use a b-tree index.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_exercises_name_trgm
+    ON exercises USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,42 @@
+-- Per-user, per-local-day, per-exercise totals for long-range analytics.
+-- Maintained incrementally on set writes; the local date is taken in the session's own timezone.
+CREATE TABLE IF NOT EXISTS user_daily_exercise_rollups (
+    user_id BIGINT NOT NULL,
+    local_date DATE NOT NULL,
+    exercise_id BIGINT NOT NULL,
+    volume DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sets_count INTEGER NOT NULL DEFAULT 0,
+    reps_total BIGINT NOT NULL DEFAULT 0,
+    max_weight DOUBLE PRECISION NOT NULL DEFAULT 0,
+
+    -- Range reads are (user_id, local_date BETWEEN ...), served by the primary key
+    CONSTRAINT pk_user_daily_exercise_rollups
+        PRIMARY KEY (user_id, local_date, exercise_id),
+
+    CONSTRAINT fk_daily_rollups_user
+        FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_daily_rollups_exercise
+        FOREIGN KEY (exercise_id)
+        REFERENCES exercises (id)
+        ON DELETE RESTRICT
+);
+
+-- Users whose history predates the rollups. DailyRollupBackfillRunner works through this table in the
+-- background; until a user's row is gone, analytics for that user are computed from workout_sets.
+-- Timezones are free text, so local dates are computed in the application rather than here.
+CREATE TABLE IF NOT EXISTS user_daily_rollup_backfill (
+    user_id BIGINT PRIMARY KEY,
+
+    CONSTRAINT fk_daily_rollup_backfill_user
+        FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE
+);
+
+INSERT INTO user_daily_rollup_backfill (user_id)
+SELECT DISTINCT user_id
+FROM workout_sessions
+ON CONFLICT (user_id) DO NOTHING;
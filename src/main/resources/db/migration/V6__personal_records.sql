@@ -0,0 +1,70 @@
+-- Personal records per user and exercise, maintained incrementally on set writes.
+-- Each record points at the set that first achieved it; achieved_at is that set's session start.
+CREATE TABLE IF NOT EXISTS personal_records (
+    user_id BIGINT NOT NULL,
+    exercise_id BIGINT NOT NULL,
+
+    heaviest_weight DOUBLE PRECISION NOT NULL,
+    heaviest_weight_reps INTEGER NOT NULL,
+    heaviest_weight_set_id BIGINT NOT NULL,
+    heaviest_weight_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    -- Estimated one-rep max; formula records which estimate produced it
+    best_e1rm DOUBLE PRECISION NOT NULL,
+    best_e1rm_weight DOUBLE PRECISION NOT NULL,
+    best_e1rm_reps INTEGER NOT NULL,
+    best_e1rm_set_id BIGINT NOT NULL,
+    best_e1rm_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    formula VARCHAR(32) NOT NULL,
+
+    CONSTRAINT pk_personal_records
+        PRIMARY KEY (user_id, exercise_id),
+
+    CONSTRAINT fk_personal_records_user
+        FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_personal_records_exercise
+        FOREIGN KEY (exercise_id)
+        REFERENCES exercises (id)
+        ON DELETE RESTRICT
+);
+
+-- Best reps at each weight an exercise has been done with
+CREATE TABLE IF NOT EXISTS personal_rep_records (
+    user_id BIGINT NOT NULL,
+    exercise_id BIGINT NOT NULL,
+    weight DOUBLE PRECISION NOT NULL,
+    reps INTEGER NOT NULL,
+    set_id BIGINT NOT NULL,
+    achieved_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_personal_rep_records
+        PRIMARY KEY (user_id, exercise_id, weight),
+
+    CONSTRAINT fk_personal_rep_records_user
+        FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_personal_rep_records_exercise
+        FOREIGN KEY (exercise_id)
+        REFERENCES exercises (id)
+        ON DELETE RESTRICT
+);
+
+-- Users whose history predates the records; PersonalRecordBackfillRunner works through this in the background
+CREATE TABLE IF NOT EXISTS personal_record_backfill (
+    user_id BIGINT PRIMARY KEY,
+
+    CONSTRAINT fk_personal_record_backfill_user
+        FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE
+);
+
+INSERT INTO personal_record_backfill (user_id)
+SELECT DISTINCT user_id
+FROM workout_sessions
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,9 @@
+-- Covering index for per-exercise reads within a user's sessions (GET /exercises/{id}/progress): sessions
+-- come from idx_workout_sessions_user_started, then each session's sets for the exercise are read from this
+-- index alone, without visiting workout_sets rows.
+-- Same leading columns as idx_workout_sets_session_exercise, which it replaces.
+
+CREATE INDEX IF NOT EXISTS idx_workout_sets_session_exercise_load
+    ON workout_sets (workout_session_id, exercise_id) INCLUDE (weight, reps);
+
+DROP INDEX IF EXISTS idx_workout_sets_session_exercise;
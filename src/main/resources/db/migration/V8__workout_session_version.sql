@@ -0,0 +1,3 @@
+-- Version of a session and its sets, bumped on every write; conditional GETs use it as the ETag
+ALTER TABLE workout_sessions
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Optimistic locking for sets (workout_sessions.version already exists, see V8)
+ALTER TABLE workout_sets
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
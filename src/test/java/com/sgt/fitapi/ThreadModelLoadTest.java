@@ -0,0 +1,185 @@
+package com.sgt.fitapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.repository.ExerciseRepository;
+import com.sgt.fitapi.service.ExerciseCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Opt-in load comparison of the two request thread models: mvn test -Dtest=ThreadModelLoadTest -Dfitapi.benchmarks=true
+// Boots the application twice, once as configured in application.yml (Tomcat capped at 50 platform threads) and once
+// with the virtual-threads profile, and drives each with the same burst of concurrent clients reading and adding sets.
+// The virtual-thread run needs a Java 21 JVM (./mvnw -Pjava21 ...). Embedded H2 has no network round trips, so its
+// numbers mostly reflect CPU and lock contention; export SPRING_DATASOURCE_URL/USERNAME/PASSWORD (plus
+// SPRING_FLYWAY_ENABLED=true) to run against the docker-compose Postgres, where request threads block on JDBC.
+@EnabledIfSystemProperty(named = "fitapi.benchmarks", matches = "true")
+class ThreadModelLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int SESSIONS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void platformThreadsVersusVirtualThreads() throws Exception {
+        Result platform = run("local");
+        print("platform threads (threads.max=50)", platform);
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("[thread-model] virtual threads: skipped, needs a Java 21 JVM");
+            return;
+        }
+        Result virtual = run("local,virtual-threads");
+        print("virtual threads", virtual);
+    }
+
+    private Result run(String profiles) throws Exception {
+        try (ConfigurableApplicationContext context = start(profiles)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Exercise exercise = context.getBean(ExerciseRepository.class)
+                    .save(new Exercise("Load Test Squat", "Quads", "Barbell", false, "COMPOUND"));
+            context.getBean(ExerciseCatalog.class).reload();
+
+            String token = token(baseUrl);
+            List<Long> sessions = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                JsonNode session = call(baseUrl, token, "POST", "/workouts",
+                        "{\"startedAt\":\"" + Instant.parse("2025-01-01T10:00:00Z").plus(Duration.ofDays(i)) + "\",\"timezone\":\"UTC\"}");
+                sessions.add(session.get("id").asLong());
+            }
+
+            drive(baseUrl, token, exercise.getId(), sessions, WARMUP);
+            return drive(baseUrl, token, exercise.getId(), sessions, MEASUREMENT);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String profiles) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=" + profiles,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.jpa.show-sql=false",
+                // One user drives all the load; the per-user limits would cap it
+                "--fitapi.rate-limit.enabled=false",
+                "--jwt.secret=load-test-secret-load-test-secret-load-test"));
+        if (System.getenv("SPRING_DATASOURCE_URL") == null) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.hikari.data-source-properties.sslmode=",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        return new SpringApplicationBuilder(FitapiApplication.class).run(args.toArray(String[]::new));
+    }
+
+    // CLIENTS concurrent loops, 4 reads of the full workout view for every set added; non-2xx responses count as errors
+    private Result drive(String baseUrl, String token, long exerciseId, List<Long> sessions, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicLong errors = new AtomicLong();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sessionId = sessions.get(random.nextInt(sessions.size()));
+                        long begin = System.nanoTime();
+                        int status = random.nextInt(5) == 0
+                                ? send(baseUrl, token, "POST", "/workouts/" + sessionId + "/sets",
+                                        "{\"exerciseId\":" + exerciseId + ",\"setNumber\":1,\"reps\":5,\"weight\":100.0}").statusCode()
+                                : send(baseUrl, token, "GET", "/workouts/" + sessionId + "/full", null).statusCode();
+                        if (status / 100 != 2) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - begin;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+            assertTrue(all.length > 0, "no requests completed");
+            return new Result(all.length / (double) duration.toSeconds(), all[all.length / 2],
+                    all[(int) Math.min(all.length - 1, Math.ceil(all.length * 0.99) - 1)], errors.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private String token(String baseUrl) throws Exception {
+        String credentials = "{\"email\":\"load@example.com\",\"password\":\"Password123!\"";
+        call(baseUrl, null, "POST", "/api/auth/register", credentials + ",\"displayName\":\"Load\"}");
+        return call(baseUrl, null, "POST", "/api/auth/login", credentials + "}").get("token").asText();
+    }
+
+    private JsonNode call(String baseUrl, String token, String method, String path, String json) throws Exception {
+        HttpResponse<String> response = send(baseUrl, token, method, path, json);
+        assertEquals(2, response.statusCode() / 100, () -> method + " " + path + " -> " + response.statusCode());
+        return response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(String baseUrl, String token, String method, String path, String json)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("[thread-model] %s: %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors%n",
+                label, result.throughput, result.p50Nanos / 1e6, result.p99Nanos / 1e6, result.errors);
+    }
+
+    private record Result(double throughput, long p50Nanos, long p99Nanos, long errors) {
+    }
+}
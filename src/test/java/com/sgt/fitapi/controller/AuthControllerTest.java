@@ -0,0 +1,80 @@
+package com.sgt.fitapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.dto.auth.AuthResponse;
+import com.sgt.fitapi.dto.auth.LoginRequest;
+import com.sgt.fitapi.dto.auth.RegisterRequest;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.repository.UserRepository;
+import com.sgt.fitapi.security.JwtService;
+import com.sgt.fitapi.security.LoginRateLimiter;
+import com.sgt.fitapi.security.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthControllerTest {
+
+    // Low cost factor keeps the test fast
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    private final PasswordHashingService hashing = new PasswordHashingService(encoder, 1, 4, Duration.ofSeconds(1),
+            new SimpleMeterRegistry());
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LoginRateLimiter loginRateLimiter = mock(LoginRateLimiter.class);
+    private final AuthController controller = new AuthController(userRepository, hashing,
+            new JwtService("test-secret-that-is-long-enough-for-hs256", 60_000, 100, new ObjectMapper(),
+                    new SimpleMeterRegistry()),
+            loginRateLimiter, new SimpleAsyncTaskExecutor("auth-completion-"));
+
+    @Test
+    void registrationIsSavedOffTheHashingPool() throws Exception {
+        AtomicReference<String> savedOn = new AtomicReference<>();
+        when(userRepository.save(any())).thenAnswer(invocation -> {
+            savedOn.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+        RegisterRequest request = new RegisterRequest();
+        request.email = "lifter@example.com";
+        request.password = "Str0ngPassw0rd!";
+        request.displayName = "Lifter";
+
+        ResponseEntity<AuthResponse> response = controller.register(request).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertTrue(savedOn.get().startsWith("auth-completion-"), savedOn.get());
+    }
+
+    @Test
+    void failedLoginIsRecordedOffTheHashingPool() throws Exception {
+        User user = new User("lifter@example.com", encoder.encode("Str0ngPassw0rd!"), "Lifter");
+        when(userRepository.findByEmail("lifter@example.com")).thenReturn(Optional.of(user));
+        AtomicReference<String> recordedOn = new AtomicReference<>();
+        doAnswer(invocation -> {
+            recordedOn.set(Thread.currentThread().getName());
+            return null;
+        }).when(loginRateLimiter).onFailure("lifter@example.com");
+        LoginRequest request = new LoginRequest();
+        request.email = "lifter@example.com";
+        request.password = "wrong";
+
+        ResponseEntity<AuthResponse> response = controller.login(request).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertTrue(recordedOn.get().startsWith("auth-completion-"), recordedOn.get());
+    }
+}
@@ -0,0 +1,323 @@
+package com.sgt.fitapi.controller;
+
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.repository.*;
+import com.sgt.fitapi.service.DailyRollupService;
+import com.sgt.fitapi.service.PersonalRecordService;
+import com.sgt.fitapi.service.WorkoutExportService;
+import com.sgt.fitapi.service.WorkoutSummaryService;
+import com.sgt.fitapi.service.WorkoutWriteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The controller over real repositories and services on embedded H2, so ETags come from the actual @Version
+// column. Each test runs in one rolled-back transaction; the services' @Transactional boundaries don't apply.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class WorkoutSessionControllerTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    @Autowired
+    private ExerciseRepository exerciseRepo;
+
+    @Autowired
+    private WorkoutSessionSummaryRepository summaryRepo;
+
+    @Autowired
+    private WorkoutSessionExerciseSummaryRepository exerciseSummaryRepo;
+
+    @Autowired
+    private UserDailyExerciseRollupRepository rollupRepo;
+
+    @Autowired
+    private DailyRollupBackfillRepository backfillRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private MockMvc mvc;
+    private WorkoutWriteService writeService;
+    private User owner;
+    private Exercise squat;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        em.persist(owner);
+        squat = new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND");
+        em.persist(squat);
+        em.flush();
+
+        WorkoutSummaryService summaryService = new WorkoutSummaryService(sessionRepo, setRepo, summaryRepo, exerciseSummaryRepo,
+                new SimpleMeterRegistry());
+        DailyRollupService rollupService = new DailyRollupService(rollupRepo, backfillRepo, setRepo, userRepo);
+        writeService = spy(new WorkoutWriteService(sessionRepo, setRepo, summaryService, rollupService,
+                mock(PersonalRecordService.class)));
+        WorkoutSessionController controller = new WorkoutSessionController(sessionRepo, setRepo, exerciseRepo,
+                summaryService, writeService, mock(WorkoutExportService.class),
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ===== ETag / If-None-Match =====
+
+    @Test
+    void readsCarryAnETagAndRevalidateTo304() throws Exception {
+        Long id = createSession().getId();
+        String etag = mvc.perform(get("/workouts/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Weak comparison: the W/ form, "*" and a list containing the tag all count as a match
+        for (String ifNoneMatch : new String[]{etag, "W/" + etag, "*", "\"stale\", " + etag}) {
+            mvc.perform(get("/workouts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andExpect(content().string(""));
+        }
+
+        mvc.perform(get("/workouts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-999\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void setWritesChangeTheSessionETag() throws Exception {
+        Long id = createSession().getId();
+        String before = mvc.perform(get("/workouts/{id}/full", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(post("/workouts/{id}/sets", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"exerciseId\":" + squat.getId() + ",\"setNumber\":1,\"reps\":5,\"weight\":100.0}"))
+                .andExpect(status().isCreated());
+
+        String after = mvc.perform(get("/workouts/{id}/full", id).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+
+        // One tag covers the session, its full view and its summary
+        mvc.perform(get("/workouts/{id}/summary", id).header(HttpHeaders.IF_NONE_MATCH, after))
+                .andExpect(status().isNotModified());
+    }
+
+    // ===== If-Match =====
+
+    @Test
+    void staleIfMatchIsRejectedWith412() throws Exception {
+        Long id = createSession().getId();
+        String stale = "\"" + id + "-999\"";
+
+        mvc.perform(put("/workouts/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, stale)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_BODY))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(delete("/workouts/{id}", id).header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(writeService, never()).updateSession(any(), any(), any());
+        verify(writeService, never()).deleteSession(any());
+    }
+
+    @Test
+    void midAirVersionConflictIsRejectedWith412() throws Exception {
+        Long id = createSession().getId();
+        doThrow(new OptimisticLockingFailureException("changed concurrently"))
+                .when(writeService).updateSession(any(), any(), any());
+        doThrow(new OptimisticLockingFailureException("changed concurrently"))
+                .when(writeService).deleteSession(any());
+
+        // The If-Match check passes; the write itself loses the race
+        String etag = mvc.perform(get("/workouts/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(put("/workouts/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_BODY))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(delete("/workouts/{id}", id).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void unconditionalWriteThatLosesTheRaceIsRejectedWith409() throws Exception {
+        Long id = createSession().getId();
+        doThrow(new OptimisticLockingFailureException("changed concurrently"))
+                .when(writeService).updateSession(any(), any(), any());
+        doThrow(new OptimisticLockingFailureException("changed concurrently"))
+                .when(writeService).deleteSession(any());
+
+        // No If-Match was sent, so there is no precondition to fail
+        mvc.perform(put("/workouts/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_BODY))
+                .andExpect(status().isConflict());
+        mvc.perform(delete("/workouts/{id}", id))
+                .andExpect(status().isConflict());
+    }
+
+    // Notes only: a moved start would run a rollup query that flushes the UPDATE anyway
+    @Test
+    void updateReturnsTheNewETag() throws Exception {
+        WorkoutSession session = createSession();
+        Long id = session.getId();
+        long versionBefore = session.getVersion();
+        String etag = mvc.perform(get("/workouts/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String updated = mvc.perform(put("/workouts/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startedAt\":\"2025-03-10T08:00:00Z\",\"timezone\":\"UTC\",\"notes\":\"Felt strong\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes").value("Felt strong"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(ETags.forSession(id, versionBefore + 1), updated);
+        // The returned tag is the one the next read produces, so it works straight away as If-Match
+        mvc.perform(get("/workouts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isNotModified());
+        mvc.perform(delete("/workouts/{id}", id).header(HttpHeaders.IF_MATCH, updated))
+                .andExpect(status().isNoContent());
+    }
+
+    // ===== POST /{id}/sets:batch =====
+
+    @Test
+    void batchCreatesEverySetInRequestOrder() throws Exception {
+        Long id = createSession().getId();
+
+        mvc.perform(post("/workouts/{id}/sets:batch", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + setJson(squat.getId(), 1, 5) + "," + setJson(squat.getId(), 2, 3) + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.created.length()").value(2))
+                .andExpect(jsonPath("$.created[0].setNumber").value(1))
+                .andExpect(jsonPath("$.created[1].setNumber").value(2))
+                .andExpect(jsonPath("$.created[1].exerciseName").value("Back Squat"));
+
+        assertEquals(2, setRepo.findByWorkoutSessionId(id).size());
+    }
+
+    @Test
+    void batchOutsideTheSizeLimitsIsRejected() throws Exception {
+        Long id = createSession().getId();
+        String oversized = IntStream.rangeClosed(1, WorkoutSessionController.MAX_BATCH_SETS + 1)
+                .mapToObj(n -> setJson(squat.getId(), n, 5))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mvc.perform(post("/workouts/{id}/sets:batch", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(oversized))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/workouts/{id}/sets:batch", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(writeService, never()).addSets(any(), any(), any());
+    }
+
+    @Test
+    void batchReportsEveryInvalidItemByIndexAndInsertsNothing() throws Exception {
+        Long id = createSession().getId();
+        String body = "[" + setJson(squat.getId(), 1, 5) + ","
+                + "{\"exerciseId\":" + squat.getId() + ",\"setNumber\":2,\"reps\":-1,\"weight\":100.0,\"rpe\":11},"
+                + setJson(999_999L, 3, 5) + "]";
+
+        mvc.perform(post("/workouts/{id}/sets:batch", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created").doesNotExist())
+                .andExpect(jsonPath("$.errors.length()").value(3))
+                .andExpect(jsonPath("$.errors[*].index", contains(1, 1, 2)))
+                .andExpect(jsonPath("$.errors[?(@.index == 1)].field", containsInAnyOrder("reps", "rpe")))
+                .andExpect(jsonPath("$.errors[2].field").value("exerciseId"))
+                .andExpect(jsonPath("$.errors[2].message").value("Exercise not found: 999999"));
+
+        // All or nothing: the valid first item isn't inserted either
+        verify(writeService, never()).addSets(any(), any(), any());
+        assertEquals(0, setRepo.findByWorkoutSessionId(id).size());
+    }
+
+    private static String setJson(Long exerciseId, int setNumber, int reps) {
+        return "{\"exerciseId\":" + exerciseId + ",\"setNumber\":" + setNumber
+                + ",\"reps\":" + reps + ",\"weight\":100.0}";
+    }
+
+    private static final String UPDATE_BODY =
+            "{\"startedAt\":\"2025-03-10T09:00:00Z\",\"timezone\":\"Europe/London\"}";
+
+    private WorkoutSession createSession() {
+        WorkoutSession session = writeService.createSession(
+                new WorkoutSession(owner.getId(), Instant.parse("2025-03-10T08:00:00Z"), "UTC", null));
+        em.flush();
+        return session;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sgt.fitapi.controller;
+
+import com.sgt.fitapi.dto.workout.WorkoutSetView;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import com.sgt.fitapi.service.WorkoutWriteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WorkoutSetControllerTest {
+
+    private final WorkoutSetRepository setRepo = mock(WorkoutSetRepository.class);
+    private final WorkoutWriteService writeService = mock(WorkoutWriteService.class);
+
+    private MockMvc mvc;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        ReflectionTestUtils.setField(owner, "id", 7L);
+        WorkoutSetController controller =
+                new WorkoutSetController(setRepo, mock(WorkoutSessionRepository.class), writeService);
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deleteReturns204() throws Exception {
+        when(setRepo.findByIdAndWorkoutSessionUserId(3L, 7L)).thenReturn(Optional.of(set()));
+
+        mvc.perform(delete("/workout-sets/{id}", 3L))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void deleteThatLosesTheRaceReturns404() throws Exception {
+        WorkoutSet set = set();
+        when(setRepo.findByIdAndWorkoutSessionUserId(3L, 7L)).thenReturn(Optional.of(set));
+        // Another request deleted the row between our read and our delete
+        doThrow(new OptimisticLockingFailureException("already deleted")).when(writeService).deleteSet(set);
+
+        mvc.perform(delete("/workout-sets/{id}", 3L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getSendsAnETagAndRevalidatesTo304() throws Exception {
+        when(setRepo.findVersionByIdAndUserId(3L, 7L)).thenReturn(Optional.of(0L));
+        when(setRepo.findViewByIdAndUserId(3L, 7L)).thenReturn(Optional.of(new WorkoutSetView()));
+
+        mvc.perform(get("/workout-sets/{id}", 3L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"set-3-0\""));
+
+        mvc.perform(get("/workout-sets/{id}", 3L).header(HttpHeaders.IF_NONE_MATCH, "\"set-3-0\""))
+                .andExpect(status().isNotModified());
+        verify(setRepo, times(1)).findViewByIdAndUserId(3L, 7L);
+    }
+
+    @Test
+    void deleteWithAStaleIfMatchReturns412() throws Exception {
+        when(setRepo.findByIdAndWorkoutSessionUserId(3L, 7L)).thenReturn(Optional.of(set()));
+
+        mvc.perform(delete("/workout-sets/{id}", 3L).header(HttpHeaders.IF_MATCH, "\"set-3-1\""))
+                .andExpect(status().isPreconditionFailed());
+        verify(writeService, never()).deleteSet(any());
+
+        mvc.perform(delete("/workout-sets/{id}", 3L).header(HttpHeaders.IF_MATCH, "\"set-3-0\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void conditionalDeleteThatLosesTheRaceReturns412() throws Exception {
+        WorkoutSet set = set();
+        when(setRepo.findByIdAndWorkoutSessionUserId(3L, 7L)).thenReturn(Optional.of(set));
+        doThrow(new OptimisticLockingFailureException("already deleted")).when(writeService).deleteSet(set);
+
+        mvc.perform(delete("/workout-sets/{id}", 3L).header(HttpHeaders.IF_MATCH, "\"set-3-0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private WorkoutSet set() {
+        WorkoutSet set = new WorkoutSet();
+        set.setWorkoutSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-10T08:00:00Z"), "UTC", null));
+        ReflectionTestUtils.setField(set, "id", 3L);
+        ReflectionTestUtils.setField(set, "version", 0L);
+        return set;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sgt.fitapi.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestLoggingFilterTest {
+
+    @Test
+    void accessRecordIsValidJsonOnceTheAppenderWrapsIt() throws Exception {
+        String record = RequestLoggingFilter.accessRecord("0123456789abcdef", "GET", "/workouts/\"1\"\\x\n", 200, 1_234_567);
+
+        JsonNode json = new ObjectMapper().readTree("{\"ts\":\"2025-01-01T00:00:00.000Z\"," + record + "}");
+
+        assertEquals("/workouts/\"1\"\\x\n", json.get("path").asText());
+        assertEquals(200, json.get("status").asInt());
+        assertEquals(1_234, json.get("durationUs").asLong());
+    }
+
+    @Test
+    void onlyFastSuccessesAreSampled() {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Duration.ofMillis(500));
+
+        assertFalse(filter.sampled(200, TimeUnit.MILLISECONDS.toNanos(20)));
+        assertTrue(filter.sampled(404, TimeUnit.MILLISECONDS.toNanos(20)));
+        assertTrue(filter.sampled(200, TimeUnit.MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    void unsafeClientRequestIdsAreReplaced() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(1.0, Duration.ofMillis(500));
+
+        assertEquals("client-id_1.2", requestId(filter, "client-id_1.2"));
+        String replaced = requestId(filter, "bad\"id\n");
+        assertNotEquals("bad\"id\n", replaced);
+        assertTrue(replaced.matches("[0-9a-f]{16}"));
+    }
+
+    private static String requestId(RequestLoggingFilter filter, String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/workouts");
+        request.addHeader("X-Request-Id", header);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getHeader("X-Request-Id");
+    }
+}
@@ -0,0 +1,34 @@
+package com.sgt.fitapi.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+// Maps every entity against the schema built by the real Flyway migrations (ddl-auto=validate), so a column
+// name or type that only create-drop agrees with fails here instead of in Postgres. The scripts run on H2
+// with continue-on-error: Postgres-only statements (pg_trgm, ON CONFLICT seeds) are skipped, while a missing
+// or misnamed table or column still fails validation.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.continue-on-error=true",
+        "spring.sql.init.schema-locations="
+                + "classpath:db/migration/V1__init.sql,"
+                + "classpath:db/migration/V2__workout_session_summaries.sql,"
+                + "classpath:db/migration/V3__pooled_id_sequences.sql,"
+                + "classpath:db/migration/V4__exercise_name_trigram_index.sql,"
+                + "classpath:db/migration/V5__user_daily_exercise_rollups.sql,"
+                + "classpath:db/migration/V6__personal_records.sql,"
+                + "classpath:db/migration/V7__workout_sets_progress_index.sql,"
+                + "classpath:db/migration/V8__workout_session_version.sql,"
+                + "classpath:db/migration/V9__workout_set_version.sql,"
+                + "classpath:db/migration/V10__login_attempts.sql,"
+                + "classpath:db/migration/V11__workout_import_jobs.sql"
+})
+class MigrationMappingTest {
+
+    @Test
+    void entitiesMatchTheMigratedSchema() {
+        // The context only starts if Hibernate's schema validation passed
+    }
+}
@@ -0,0 +1,171 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.dto.workout.WorkoutSessionCursor;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class WorkoutSessionRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    private User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        User other = new User("other@example.com", "hashed-password", "Other");
+        em.persist(owner);
+        em.persist(other);
+
+        Instant base = Instant.parse("2025-01-01T10:00:00.123456Z");
+        for (int i = 0; i < 25; i++) {
+            // Every third session shares its start time with the previous one to exercise the id tie-breaker
+            Instant startedAt = base.plusSeconds(3600L * (i - i / 3));
+            em.persist(new WorkoutSession(owner.getId(), startedAt, "UTC", null));
+            em.persist(new WorkoutSession(other.getId(), startedAt, "UTC", null));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void keysetPagesWalkAllSessionsInOrderWithoutCountQueries() {
+        Specification<WorkoutSession> mine = WorkoutSessionSpecs.userEquals(owner.getId());
+        List<Long> expected = sessionRepo.findAll(mine, WorkoutSessionRepository.KEYSET_ORDER).stream()
+                .map(WorkoutSession::getId)
+                .toList();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> walked = new ArrayList<>();
+        WorkoutSessionCursor cursor = null;
+        int pages = 0;
+        while (true) {
+            Specification<WorkoutSession> spec = cursor == null
+                    ? mine
+                    : mine.and(WorkoutSessionSpecs.after(cursor.startedAt(), cursor.id()));
+            List<WorkoutSession> page = sessionRepo.findKeysetPage(spec, 7);
+            pages++;
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(s -> walked.add(s.getId()));
+
+            WorkoutSession last = page.get(page.size() - 1);
+            // Round-trip through the opaque token as clients do
+            cursor = WorkoutSessionCursor.decode(new WorkoutSessionCursor(last.getStartedAt(), last.getId()).encode());
+        }
+
+        assertEquals(25, expected.size());
+        assertEquals(expected, walked);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetPagesSplitATieOnStartedAtWithoutSkippingOrRepeating() {
+        User tied = new User("tied@example.com", "hashed-password", "Tied");
+        em.persist(tied);
+        Instant newest = Instant.parse("2025-02-01T10:00:00Z");
+        Instant shared = Instant.parse("2025-01-31T10:00:00Z");
+        em.persist(new WorkoutSession(tied.getId(), newest, "UTC", null));
+        // Five sessions on one start time: pages of two cut the tie after its first, third and fifth row
+        for (int i = 0; i < 5; i++) {
+            em.persist(new WorkoutSession(tied.getId(), shared, "UTC", null));
+        }
+        em.persist(new WorkoutSession(tied.getId(), shared.minusSeconds(60), "UTC", null));
+        em.flush();
+        em.clear();
+
+        Specification<WorkoutSession> mine = WorkoutSessionSpecs.userEquals(tied.getId());
+        List<Long> expected = sessionRepo.findAll(mine, WorkoutSessionRepository.KEYSET_ORDER).stream()
+                .map(WorkoutSession::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Specification<WorkoutSession> spec = mine;
+        List<WorkoutSession> page;
+        while (!(page = sessionRepo.findKeysetPage(spec, 2)).isEmpty()) {
+            page.forEach(s -> walked.add(s.getId()));
+            pageSizes.add(page.size());
+            WorkoutSession last = page.get(page.size() - 1);
+            spec = mine.and(WorkoutSessionSpecs.after(last.getStartedAt(), last.getId()));
+        }
+
+        assertEquals(7, expected.size());
+        assertEquals(expected, walked);
+        assertEquals(List.of(2, 2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkoutSessionCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutSessionCursor.decode("!!"));
+    }
+
+    @Test
+    void versionLookupIsScopedToTheOwnerAndSeesIncrements() {
+        WorkoutSession session = sessionRepo.findAll(WorkoutSessionSpecs.userEquals(owner.getId())).get(0);
+        em.clear();
+
+        assertEquals(Optional.of(0L), sessionRepo.findVersionByIdAndUserId(session.getId(), owner.getId()));
+        assertEquals(Optional.empty(), sessionRepo.findVersionByIdAndUserId(session.getId(), owner.getId() + 1));
+
+        sessionRepo.incrementVersion(session.getId());
+        sessionRepo.incrementVersion(session.getId());
+
+        assertEquals(Optional.of(2L), sessionRepo.findVersionByIdAndUserId(session.getId(), owner.getId()));
+    }
+
+    @Test
+    void staleSessionUpdatesAreRejected() {
+        WorkoutSession first = sessionRepo.findAll(WorkoutSessionSpecs.userEquals(owner.getId())).get(0);
+        em.clear();
+
+        // Two devices read the same version; the first to write wins
+        WorkoutSession deviceA = sessionRepo.findById(first.getId()).orElseThrow();
+        em.detach(deviceA);
+        WorkoutSession deviceB = sessionRepo.findById(first.getId()).orElseThrow();
+        em.detach(deviceB);
+
+        deviceA.setNotes("from A");
+        sessionRepo.saveAndFlush(deviceA);
+        em.clear();
+        assertEquals(Optional.of(1L), sessionRepo.findVersionByIdAndUserId(first.getId(), owner.getId()));
+
+        deviceB.setNotes("from B");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> sessionRepo.saveAndFlush(deviceB));
+    }
+}
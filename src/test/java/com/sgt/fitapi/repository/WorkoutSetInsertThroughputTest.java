@@ -0,0 +1,123 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Opt-in throughput check for bulk set inserts: mvn test -Dtest=WorkoutSetInsertThroughputTest -Dfitapi.benchmarks=true
+// Compares a flush per row (one round trip per insert) with saveAll + a single flush (JDBC-batched).
+// Numbers are from embedded H2, so only the ratio between the two modes is meaningful.
+@EnabledIfSystemProperty(named = "fitapi.benchmarks", matches = "true")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class WorkoutSetInsertThroughputTest {
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    private WorkoutSession session;
+    private Exercise exercise;
+
+    @BeforeEach
+    void seed() {
+        User owner = new User("bench@example.com", "hashed-password", "Bench");
+        em.persist(owner);
+        session = new WorkoutSession(owner.getId(), Instant.parse("2025-01-15T10:00:00Z"), "UTC", null);
+        em.persist(session);
+        exercise = new Exercise("Bench Exercise", "Chest", "Barbell", false, "COMPOUND");
+        em.persist(exercise);
+        em.flush();
+    }
+
+    @Test
+    void bulkSetInsertThroughput() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm-up
+        insertRowAtATime(ROWS);
+        insertBatched(ROWS);
+
+        long rowAtATimeNanos = 0;
+        long batchedNanos = 0;
+        long rowAtATimeStatements = 0;
+        long batchedStatements = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            insertRowAtATime(ROWS);
+            rowAtATimeNanos += System.nanoTime() - start;
+            rowAtATimeStatements += statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            start = System.nanoTime();
+            insertBatched(ROWS);
+            batchedNanos += System.nanoTime() - start;
+            batchedStatements += statistics.getPrepareStatementCount();
+        }
+
+        System.out.printf("[insert-throughput] row-at-a-time: %,.0f rows/s, %d statements per %d rows%n",
+                rowsPerSecond(rowAtATimeNanos), rowAtATimeStatements / ROUNDS, ROWS);
+        System.out.printf("[insert-throughput] saveAll batched: %,.0f rows/s, %d statements per %d rows%n",
+                rowsPerSecond(batchedNanos), batchedStatements / ROUNDS, ROWS);
+    }
+
+    private void insertRowAtATime(int rows) {
+        for (int i = 0; i < rows; i++) {
+            WorkoutSet set = newSet(i);
+            em.persist(set);
+            em.flush();
+            em.detach(set);
+        }
+        em.clear();
+        session = em.merge(session);
+        exercise = em.merge(exercise);
+    }
+
+    private void insertBatched(int rows) {
+        List<WorkoutSet> sets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            sets.add(newSet(i));
+        }
+        setRepo.saveAll(sets);
+        em.flush();
+        em.clear();
+        session = em.merge(session);
+        exercise = em.merge(exercise);
+    }
+
+    private WorkoutSet newSet(int i) {
+        return new WorkoutSet(session, exercise, i + 1, 5, 100.0);
+    }
+
+    private static double rowsPerSecond(long totalNanos) {
+        return (double) ROWS * ROUNDS / (totalNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.sgt.fitapi.repository;
+
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.dto.workout.WorkoutSetView;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class WorkoutSetRepositoryTest {
+
+    private static final int SET_COUNT = 30;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    private Statistics statistics;
+    private WorkoutSession session;
+    private User owner;
+    private final List<Exercise> exercises = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        em.persist(owner);
+
+        session = new WorkoutSession(owner.getId(), Instant.parse("2025-01-15T10:00:00Z"), "UTC", null);
+        em.persist(session);
+
+        for (int i = 0; i < 5; i++) {
+            Exercise exercise = new Exercise("Exercise " + i, "Chest", "Barbell", false, "COMPOUND");
+            em.persist(exercise);
+            exercises.add(exercise);
+        }
+
+        for (int i = 0; i < SET_COUNT; i++) {
+            em.persist(new WorkoutSet(session, exercises.get(i % exercises.size()), i + 1, 5, 100.0));
+        }
+
+        em.flush();
+        em.clear();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void sessionSetViewsLoadInASingleStatement() {
+        List<WorkoutSetView> views = setRepo.findViewsByWorkoutSessionId(session.getId());
+
+        assertEquals(SET_COUNT, views.size());
+        assertTrue(views.stream().allMatch(v -> v.exerciseName != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exerciseFilteredSetViewsLoadInASingleStatement() {
+        Long exerciseId = exercises.get(0).getId();
+
+        List<WorkoutSetView> views = setRepo.findViewsByWorkoutSessionIdAndExerciseId(session.getId(), exerciseId);
+
+        assertEquals(SET_COUNT / exercises.size(), views.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void entityVariantFetchesExercisesWithTheSets() {
+        List<WorkoutSet> sets = setRepo.findByWorkoutSessionId(session.getId());
+        sets.forEach(set -> set.getExercise().getName());
+
+        assertEquals(SET_COUNT, sets.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void volumeIsAggregatedPerExerciseInTheDatabase() {
+        List<ExerciseVolumeView> perExercise = setRepo.sumVolumeByExercise(session.getId());
+
+        assertEquals(exercises.size(), perExercise.size());
+        for (ExerciseVolumeView ev : perExercise) {
+            assertEquals(SET_COUNT / exercises.size(), ev.setsCount);
+            assertEquals(ev.setsCount * 5 * 100.0, ev.volume, 0.001);
+        }
+        assertEquals(SET_COUNT, setRepo.countByWorkoutSessionId(session.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bulkInsertsAreBatched() {
+        WorkoutSession managed = em.find(WorkoutSession.class, session.getId());
+        Exercise exercise = em.find(Exercise.class, exercises.get(0).getId());
+        statistics.clear();
+
+        List<WorkoutSet> sets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sets.add(new WorkoutSet(managed, exercise, SET_COUNT + i + 1, 5, 100.0));
+        }
+        setRepo.saveAll(sets);
+        em.flush();
+
+        // 200 rows at batch_size 50 with pooled-lo IDs: 4 sequence calls + 4 insert batches
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void singleSetViewIsScopedToOwner() {
+        Long setId = setRepo.findViewsByWorkoutSessionId(session.getId()).get(0).id;
+        statistics.clear();
+
+        assertTrue(setRepo.findViewByIdAndUserId(setId, owner.getId()).isPresent());
+        assertTrue(setRepo.findViewByIdAndUserId(setId, owner.getId() + 1).isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.sgt.fitapi.security;
+
+import com.sgt.fitapi.security.ApiRateLimiter.Limit;
+import com.sgt.fitapi.security.ApiRateLimiter.RouteClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApiRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burstThenSustainedRatePerUserAndRouteClass() {
+        // 3-request burst, one token every second
+        ApiRateLimiter limiter = limiter(new Limit(3, 60));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, limiter.acquire(1L, RouteClass.WRITE));
+        }
+        assertEquals(Duration.ofSeconds(1), limiter.acquire(1L, RouteClass.WRITE));
+
+        // Other users and other route classes have their own buckets
+        assertEquals(Duration.ZERO, limiter.acquire(2L, RouteClass.WRITE));
+        assertEquals(Duration.ZERO, limiter.acquire(1L, RouteClass.READ));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(Duration.ofMillis(600), limiter.acquire(1L, RouteClass.WRITE));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(Duration.ZERO, limiter.acquire(1L, RouteClass.WRITE));
+
+        assertEquals(2.0, registry.get("api.rate.limit.requests").tags("route_class", "write", "result", "rejected")
+                .functionCounter().count());
+
+        // Fully refilled users are forgotten
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.sweep();
+        assertEquals(0, limiter.trackedUsers());
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBurst() throws Exception {
+        ApiRateLimiter limiter = limiter(new Limit(100, 1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.acquire(1L, RouteClass.READ).isZero()) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    void routeClassFollowsMethodAndPath() {
+        assertEquals(RouteClass.READ, ApiRateLimitFilter.routeClass(new MockHttpServletRequest("GET", "/workouts/1/full")));
+        assertEquals(RouteClass.EXPORT, ApiRateLimitFilter.routeClass(new MockHttpServletRequest("GET", "/workouts/export")));
+        assertEquals(RouteClass.WRITE, ApiRateLimitFilter.routeClass(new MockHttpServletRequest("POST", "/workouts/1/sets")));
+        assertEquals(RouteClass.WRITE, ApiRateLimitFilter.routeClass(new MockHttpServletRequest("DELETE", "/workout-sets/7")));
+    }
+
+    private ApiRateLimiter limiter(Limit limit) {
+        return new ApiRateLimiter(Map.of(RouteClass.READ, limit, RouteClass.WRITE, limit, RouteClass.EXPORT, limit),
+                nanos::get);
+    }
+}
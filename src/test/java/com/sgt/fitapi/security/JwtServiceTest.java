@@ -0,0 +1,93 @@
+package com.sgt.fitapi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+
+    private final User user = new User("lifter@example.com", "hashed-password", "Lifter");
+
+    @Test
+    void verifyReturnsIssuedClaims() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user);
+
+        JwtClaims claims = jwtService.verify(token);
+
+        assertEquals("lifter@example.com", claims.subject());
+        assertNotNull(claims.issuedAt());
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+        assertTrue(jwtService.isTokenValid(token, user));
+        assertEquals("lifter@example.com", jwtService.extractUsername(token));
+    }
+
+    @Test
+    void verifiedClaimsAreCached() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user);
+
+        assertSame(jwtService.verify(token), jwtService.verify(token));
+    }
+
+    @Test
+    void tamperedTokensAreRejectedEvenAfterTheOriginalWasCached() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user);
+        jwtService.verify(token);
+
+        String other = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry())
+                .generateToken(new User("intruder@example.com", "hashed-password", "Intruder"));
+        String[] parts = token.split("\\.");
+        String[] otherParts = other.split("\\.");
+        String forged = parts[0] + "." + otherParts[1] + "." + parts[2];
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(forged));
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(token + "x"));
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify("not-a-jwt"));
+    }
+
+    @Test
+    void tokensSignedWithAnotherSecretAreRejected() {
+        String token = new JwtService("another-secret-entirely-for-signing", 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry())
+                .generateToken(user);
+
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), new SimpleMeterRegistry());
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(token));
+        assertFalse(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        JwtService jwtService = new JwtService(SECRET, -120_000, 100, new ObjectMapper(), new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user);
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(token));
+        assertFalse(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void verificationsAreTimedAndCacheHitsCounted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, new ObjectMapper(), registry);
+        String token = jwtService.generateToken(user);
+
+        jwtService.verify(token);
+        jwtService.verify(token);
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(token + "x"));
+
+        assertEquals(1, registry.get("jwt.verification.duration").tag("result", "valid").timer().count());
+        assertEquals(1, registry.get("jwt.verification.duration").tag("result", "invalid").timer().count());
+        assertEquals(1.0, registry.get("jwt.verification.cache.hits").functionCounter().count());
+    }
+}
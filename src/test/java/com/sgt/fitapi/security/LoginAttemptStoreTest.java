@@ -0,0 +1,135 @@
+package com.sgt.fitapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The JDBC store runs against embedded H2 with the real V10 migration applied.
+// Not transactional: the stress threads must see each other's committed rows.
+@JdbcTest(properties = "spring.flyway.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginAttemptStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcLoginAttemptStore jdbcStore;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V10__login_attempts.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).update("DELETE FROM login_attempts");
+        jdbcStore = new JdbcLoginAttemptStore(dataSource);
+    }
+
+    @Test
+    void concurrentFailuresAreNeverLost() throws Exception {
+        assertEquals(16 * 50, hammer(new InMemoryLoginAttemptStore(1_000), 16, 50));
+        assertEquals(16 * 50, hammer(jdbcStore, 16, 50));
+    }
+
+    @Test
+    void windowsRestartAfterExpiryAndAreSwept() {
+        for (LoginAttemptStore store : List.of(new InMemoryLoginAttemptStore(1_000), jdbcStore)) {
+            LoginRateLimiter limiter = new LoginRateLimiter(store, 3, WINDOW, Clock.fixed(NOW, ZoneOffset.UTC),
+                    new SimpleMeterRegistry());
+            for (int i = 0; i < 3; i++) {
+                limiter.onFailure("a@example.com");
+            }
+            assertThrows(TooManyLoginAttemptsException.class, () -> limiter.throwIfBlocked("a@example.com"));
+            limiter.throwIfBlocked("b@example.com");
+
+            // The window has passed: the block lifts and the next failure starts over
+            Instant later = NOW.plus(WINDOW).plusSeconds(1);
+            assertEquals(0, store.failures("a@example.com", later.minus(WINDOW)));
+            store.recordFailure("a@example.com", later, later.minus(WINDOW));
+            assertEquals(1, store.failures("a@example.com", later.minus(WINDOW)));
+
+            store.recordFailure("c@example.com", NOW, NOW.minus(WINDOW));
+            assertEquals(1, store.sweep(later.minus(WINDOW)));
+            assertEquals(0, store.failures("c@example.com", NOW.minus(WINDOW)));
+
+            limiter.onSuccess("a@example.com");
+            assertEquals(0, store.failures("a@example.com", later.minus(WINDOW)));
+        }
+    }
+
+    @Test
+    void inMemoryStoreStaysBounded() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(100);
+        Instant cutoff = NOW.minus(WINDOW);
+        for (int i = 0; i < 5; i++) {
+            store.recordFailure("attacked@example.com", NOW, cutoff);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            store.recordFailure("spray-" + i + "@example.com", NOW, cutoff);
+        }
+
+        assertTrue(store.size() <= 100);
+        // Single stray failures are evicted before a window that is close to blocking
+        assertEquals(5, store.failures("attacked@example.com", cutoff));
+    }
+
+    @Test
+    void inMemoryStoreFreesABatchAtTheCap() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(100);
+        Instant cutoff = NOW.minus(WINDOW);
+        for (int i = 0; i < 101; i++) {
+            store.recordFailure("spray-" + i + "@example.com", NOW, cutoff);
+        }
+
+        // One pass dropped a tenth of the capacity, so the next 9 new keys need no scan at all
+        assertEquals(91, store.size());
+    }
+
+    // threads x failures concurrent failures on one key; returns the count the store ends up with
+    private static int hammer(LoginAttemptStore store, int threads, int failures) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < failures; i++) {
+                        store.recordFailure("contended@example.com", NOW, NOW.minus(WINDOW));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return store.failures("contended@example.com", NOW.minus(WINDOW));
+    }
+}
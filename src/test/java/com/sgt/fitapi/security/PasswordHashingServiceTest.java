@@ -0,0 +1,73 @@
+package com.sgt.fitapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void hashesAndVerifiesOffTheCallingThread() throws Exception {
+        // Low cost factor keeps the test fast
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService hashing =
+                new PasswordHashingService(new BCryptPasswordEncoder(4), 1, 4, Duration.ofSeconds(1), registry);
+
+        String hash = hashing.encode("Str0ngPassw0rd!").get(5, TimeUnit.SECONDS);
+
+        assertTrue(hashing.matches("Str0ngPassw0rd!", hash).get(5, TimeUnit.SECONDS));
+        assertFalse(hashing.matches("wrong", hash).get(5, TimeUnit.SECONDS));
+        assertEquals(2, registry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void refusesWorkOnceThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService hashing = new PasswordHashingService(blocking, 1, 1, Duration.ofSeconds(2), registry);
+
+        CompletableFuture<String> running = hashing.encode("a");
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = hashing.encode("b");
+        assertEquals(1.0, registry.get("password.hashing.queue.depth").gauge().value());
+
+        assertThrows(RejectedExecutionException.class, () -> hashing.encode("c"));
+        assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+        assertEquals(Duration.ofSeconds(2), hashing.retryAfter());
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+        hashing.shutdown();
+    }
+}
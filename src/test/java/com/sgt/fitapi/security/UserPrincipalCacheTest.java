@@ -0,0 +1,125 @@
+package com.sgt.fitapi.security;
+
+import com.sgt.fitapi.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UserPrincipalCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserDetails> loader = email -> {
+        loads.incrementAndGet();
+        return new User(email, "hashed-password", "Test User");
+    };
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 10, clock);
+
+        UserDetails first = cache.get("a@example.com", loader);
+        UserDetails second = cache.get("a@example.com", loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofSeconds(30), 10, clock);
+
+        cache.get("a@example.com", loader);
+        clock.advance(Duration.ofSeconds(31));
+        cache.get("a@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 10, clock);
+
+        cache.get("a@example.com", loader);
+        cache.invalidate("a@example.com");
+        cache.get("a@example.com", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void sizeIsBounded() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 2, clock);
+
+        cache.get("a@example.com", loader);
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("b@example.com", loader);
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("c@example.com", loader);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+
+        // "a" expired soonest, so it was the one evicted
+        cache.get("a@example.com", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void reloadedEntriesAreEvictedByTheirNewAge() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 2, clock);
+
+        cache.get("a@example.com", loader);
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("b@example.com", loader);
+        cache.invalidate("a@example.com");
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("a@example.com", loader);
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("c@example.com", loader);
+
+        // The first "a" was superseded, so "b" is now the oldest live entry
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.evictionCount());
+        cache.get("a@example.com", loader);
+        assertEquals(4, loads.get());
+        cache.get("b@example.com", loader);
+        assertEquals(5, loads.get());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.VolumeAnalyticsView;
+import com.sgt.fitapi.dto.analytics.VolumeBucketView;
+import com.sgt.fitapi.model.DailyRollupBackfill;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AnalyticsServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    @Autowired
+    private UserDailyExerciseRollupRepository rollupRepo;
+
+    @Autowired
+    private DailyRollupBackfillRepository backfillRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private DailyRollupService rollupService;
+    private AnalyticsService analyticsService;
+    private User owner;
+    private Exercise squat;
+
+    @BeforeEach
+    void seed() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        User other = new User("other@example.com", "hashed-password", "Other");
+        em.persist(owner);
+        em.persist(other);
+
+        squat = new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND");
+        Exercise bench = new Exercise("Barbell Bench Press", "Chest", "Barbell", false, "COMPOUND");
+        em.persist(squat);
+        em.persist(bench);
+
+        // Sunday 23:30 UTC is already Monday in Tokyo, so this session belongs to the second week
+        WorkoutSession tokyo = new WorkoutSession(owner.getId(), Instant.parse("2025-01-05T23:30:00Z"), "Asia/Tokyo", null);
+        WorkoutSession utc = new WorkoutSession(owner.getId(), Instant.parse("2025-01-01T10:00:00Z"), "UTC", null);
+        WorkoutSession outOfRange = new WorkoutSession(owner.getId(), Instant.parse("2025-02-01T10:00:00Z"), "UTC", null);
+        WorkoutSession notMine = new WorkoutSession(other.getId(), Instant.parse("2025-01-01T10:00:00Z"), "UTC", null);
+        em.persist(tokyo);
+        em.persist(utc);
+        em.persist(outOfRange);
+        em.persist(notMine);
+
+        em.persist(new WorkoutSet(utc, squat, 1, 5, 100.0));
+        em.persist(new WorkoutSet(utc, bench, 2, 5, 60.0));
+        em.persist(new WorkoutSet(utc, bench, 3, 10, 20.0));
+        em.persist(new WorkoutSet(tokyo, squat, 1, 3, 120.0));
+        em.persist(new WorkoutSet(outOfRange, squat, 1, 5, 100.0));
+        em.persist(new WorkoutSet(notMine, squat, 1, 5, 200.0));
+        em.flush();
+        em.clear();
+
+        rollupService = new DailyRollupService(rollupRepo, backfillRepo, setRepo, userRepo);
+        analyticsService = new AnalyticsService(setRepo, sessionRepo, rollupRepo, rollupService);
+    }
+
+    @Test
+    void usersAwaitingBackfillAreServedFromRawSetsInOneAggregateQuery() {
+        em.persist(new DailyRollupBackfill(owner.getId()));
+        em.flush();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        VolumeAnalyticsView view = analyticsService.volume(owner.getId(),
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2025-01-19"), AnalyticsBucket.WEEK, null);
+
+        // Backfill check + the GROUP BY over workout_sets
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertWeeklyVolume(view);
+    }
+
+    @Test
+    void backfilledUsersAreServedFromDailyRollups() {
+        rollupService.backfill(owner.getId());
+        em.flush();
+        em.clear();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        VolumeAnalyticsView view = analyticsService.volume(owner.getId(),
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2025-01-19"), AnalyticsBucket.WEEK, null);
+
+        // Backfill check + rollup range read + session start times; none of them reads workout_sets rows per set
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertWeeklyVolume(view);
+        assertEquals(120.0, view.buckets.get(1).exercises.get(0).maxWeight);
+        assertEquals(20, view.buckets.get(0).repsTotal);
+    }
+
+    @Test
+    void monthlyVolumeCanBeRestrictedToOneExercise() {
+        rollupService.backfill(owner.getId());
+
+        VolumeAnalyticsView view = analyticsService.volume(owner.getId(),
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2025-02-28"), AnalyticsBucket.MONTH, squat.getId());
+
+        assertEquals(2, view.buckets.size());
+        assertEquals(860.0, view.buckets.get(0).totalVolume);
+        assertEquals(2, view.buckets.get(0).setsCount);
+        assertEquals(2, view.buckets.get(0).sessionsCount);
+        assertEquals(500.0, view.buckets.get(1).totalVolume);
+        assertEquals(1, view.buckets.get(1).exercises.size());
+    }
+
+    private static void assertWeeklyVolume(VolumeAnalyticsView view) {
+        assertEquals(3, view.buckets.size());
+
+        VolumeBucketView first = view.buckets.get(0);
+        assertEquals(LocalDate.parse("2024-12-30"), first.start);
+        assertEquals(LocalDate.parse("2025-01-05"), first.end);
+        assertEquals(1000.0, first.totalVolume);
+        assertEquals(3, first.setsCount);
+        assertEquals(1, first.sessionsCount);
+        assertEquals("Back Squat", first.exercises.get(0).exerciseName);
+        assertEquals(2, first.exercises.get(1).setsCount);
+
+        VolumeBucketView second = view.buckets.get(1);
+        assertEquals(360.0, second.totalVolume);
+        assertEquals(1, second.sessionsCount);
+
+        assertEquals(0, view.buckets.get(2).setsCount);
+        assertEquals(1360.0, view.totalVolume);
+        assertEquals(2, view.sessionsCount);
+    }
+}
@@ -0,0 +1,169 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.VolumeAnalyticsView;
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.model.DailyRollupBackfill;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Opt-in comparison for GET /analytics/volume: mvn test -Dtest=AnalyticsVolumeBenchmarkTest -Dfitapi.benchmarks=true
+// Seeds five years of training (4 sessions a week, 20 sets each) and compares the old client pattern of listing
+// sessions and fetching a summary per session, one GROUP BY over workout_sets, and the daily rollups.
+// Numbers are from embedded H2, so only the ratio between the two approaches is meaningful.
+@EnabledIfSystemProperty(named = "fitapi.benchmarks", matches = "true")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AnalyticsVolumeBenchmarkTest {
+
+    private static final int WEEKS = 52 * 5;
+    private static final int SESSIONS_PER_WEEK = 4;
+    private static final int SETS_PER_SESSION = 20;
+    private static final int ROUNDS = 5;
+
+    private static final LocalDate FROM = LocalDate.parse("2020-01-06");
+    private static final LocalDate TO = FROM.plusWeeks(WEEKS).minusDays(1);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    @Autowired
+    private UserDailyExerciseRollupRepository rollupRepo;
+
+    @Autowired
+    private DailyRollupBackfillRepository backfillRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private DailyRollupService rollupService;
+    private AnalyticsService analyticsService;
+    private User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = new User("bench@example.com", "hashed-password", "Bench");
+        em.persist(owner);
+
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Exercise exercise = new Exercise("Exercise " + i, "Group " + i % 4, "Barbell", false, "COMPOUND");
+            em.persist(exercise);
+            exercises.add(exercise);
+        }
+
+        Instant start = FROM.atStartOfDay(ZoneOffset.UTC).toInstant().plus(18, ChronoUnit.HOURS);
+        for (int week = 0; week < WEEKS; week++) {
+            List<WorkoutSet> sets = new ArrayList<>();
+            for (int day = 0; day < SESSIONS_PER_WEEK; day++) {
+                Instant startedAt = start.plus(week * 7L + day * 2L, ChronoUnit.DAYS);
+                WorkoutSession session = new WorkoutSession(owner.getId(), startedAt, "America/New_York", null);
+                em.persist(session);
+                for (int i = 0; i < SETS_PER_SESSION; i++) {
+                    sets.add(new WorkoutSet(session, exercises.get((day * 2 + i / 5) % 8), i + 1, 5, 60.0 + week % 40));
+                }
+            }
+            setRepo.saveAll(sets);
+            em.flush();
+            em.clear();
+        }
+
+        rollupService = new DailyRollupService(rollupRepo, backfillRepo, setRepo, userRepo);
+        analyticsService = new AnalyticsService(setRepo, sessionRepo, rollupRepo, rollupService);
+    }
+
+    @Test
+    void perSessionSummariesVersusSingleQueryVersusRollups() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // Raw path first: the user is queued for backfill
+        em.persist(new DailyRollupBackfill(owner.getId()));
+        em.flush();
+        double expected = perSessionTotal();
+        VolumeAnalyticsView raw = analyticsService.volume(owner.getId(), FROM, TO, AnalyticsBucket.WEEK, null);
+        assertEquals(expected, raw.totalVolume, 0.001);
+        assertEquals(WEEKS * SESSIONS_PER_WEEK, raw.sessionsCount);
+
+        long[] perSession = measure(statistics, this::perSessionTotal);
+        long[] singleQuery = measure(statistics,
+                () -> analyticsService.volume(owner.getId(), FROM, TO, AnalyticsBucket.WEEK, null));
+
+        rollupService.backfill(owner.getId());
+        em.flush();
+        em.clear();
+        VolumeAnalyticsView rolledUp = analyticsService.volume(owner.getId(), FROM, TO, AnalyticsBucket.WEEK, null);
+        assertEquals(expected, rolledUp.totalVolume, 0.001);
+        assertEquals(raw.sessionsCount, rolledUp.sessionsCount);
+
+        long[] rollups = measure(statistics,
+                () -> analyticsService.volume(owner.getId(), FROM, TO, AnalyticsBucket.WEEK, null));
+
+        print("per-session summaries", perSession);
+        print("single query + bucketing", singleQuery);
+        print("daily rollups + bucketing", rollups);
+    }
+
+    // Average {nanos, statements} over ROUNDS runs
+    private long[] measure(Statistics statistics, Runnable action) {
+        long nanos = 0;
+        long statements = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long begin = System.nanoTime();
+            action.run();
+            nanos += System.nanoTime() - begin;
+            statements += statistics.getPrepareStatementCount();
+            em.clear();
+        }
+        return new long[]{nanos / ROUNDS, statements / ROUNDS};
+    }
+
+    private static void print(String label, long[] result) {
+        System.out.printf("[analytics-volume] %s: %.1f ms, %d statements%n", label, result[0] / 1e6, result[1]);
+    }
+
+    // What clients did before: list the sessions, then aggregate each one separately
+    private double perSessionTotal() {
+        double total = 0;
+        for (WorkoutSession session : sessionRepo.findAll(WorkoutSessionSpecs.userEquals(owner.getId()))) {
+            for (ExerciseVolumeView ev : setRepo.sumVolumeByExercise(session.getId())) {
+                total += ev.volume;
+            }
+        }
+        em.clear();
+        return total;
+    }
+}
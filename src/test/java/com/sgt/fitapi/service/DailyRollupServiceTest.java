@@ -0,0 +1,160 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.CreateWorkoutSetRequest;
+import com.sgt.fitapi.model.*;
+import com.sgt.fitapi.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DailyRollupServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    @Autowired
+    private WorkoutSessionSummaryRepository summaryRepo;
+
+    @Autowired
+    private WorkoutSessionExerciseSummaryRepository exerciseSummaryRepo;
+
+    @Autowired
+    private UserDailyExerciseRollupRepository rollupRepo;
+
+    @Autowired
+    private DailyRollupBackfillRepository backfillRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private DailyRollupService rollupService;
+    private WorkoutWriteService writeService;
+    private User owner;
+    private Exercise squat;
+    private Exercise bench;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        em.persist(owner);
+        squat = new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND");
+        bench = new Exercise("Barbell Bench Press", "Chest", "Barbell", false, "COMPOUND");
+        em.persist(squat);
+        em.persist(bench);
+        em.flush();
+
+        rollupService = new DailyRollupService(rollupRepo, backfillRepo, setRepo, userRepo);
+        WorkoutSummaryService summaryService = new WorkoutSummaryService(sessionRepo, setRepo, summaryRepo, exerciseSummaryRepo,
+                new SimpleMeterRegistry());
+        // Personal records have their own test
+        writeService = new WorkoutWriteService(sessionRepo, setRepo, summaryService, rollupService,
+                mock(PersonalRecordService.class));
+    }
+
+    @Test
+    void incrementalMaintenanceMatchesABackfillAfterEveryKindOfWrite() {
+        // Same UTC day, different local days
+        WorkoutSession morning = writeService.createSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-10T08:00:00Z"), "UTC", null));
+        WorkoutSession tokyo = writeService.createSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-10T20:00:00Z"), "Asia/Tokyo", null));
+
+        writeService.addSets(morning, Map.of(squat.getId(), squat, bench.getId(), bench), List.of(
+                set(squat, 1, 5, 100.0), set(squat, 2, 5, 120.0), set(bench, 3, 8, 60.0)));
+        WorkoutSet heavy = writeService.addSet(tokyo, squat, set(squat, 1, 3, 140.0));
+        writeService.addSet(tokyo, squat, set(squat, 2, 3, 130.0));
+        assertMatchesBackfill();
+
+        Map<String, String> rows = snapshot();
+        assertEquals("volume=1100.0 sets=2 reps=10 max=120.0", rows.get("2025-03-10/" + squat.getId()));
+        assertEquals("volume=810.0 sets=2 reps=6 max=140.0", rows.get("2025-03-11/" + squat.getId()));
+
+        // Removing the heaviest set needs the day's max recomputed. The session summary is recomputed in the
+        // same transaction without detaching the entities the caller holds.
+        WorkoutSet managedHeavy = setRepo.findById(heavy.getId()).orElseThrow();
+        writeService.deleteSet(managedHeavy);
+        assertTrue(em.contains(managedHeavy.getWorkoutSession()));
+        assertEquals(390.0, summaryRepo.findById(tokyo.getId()).orElseThrow().getTotalVolume());
+        assertMatchesBackfill();
+        assertEquals("volume=390.0 sets=1 reps=3 max=130.0", snapshot().get("2025-03-11/" + squat.getId()));
+
+        // Moving the Tokyo session to UTC puts it on the 10th (reloaded like the controller does: set writes bumped its version)
+        WorkoutSession edited = sessionRepo.findById(tokyo.getId()).orElseThrow();
+        Instant startedAt = edited.getStartedAt();
+        edited.setTimezone("UTC");
+        writeService.updateSession(edited, startedAt, "Asia/Tokyo");
+        assertMatchesBackfill();
+        assertEquals("volume=1490.0 sets=3 reps=13 max=130.0", snapshot().get("2025-03-10/" + squat.getId()));
+
+        // Loaded (managed) the way the controller hands it over
+        writeService.deleteSession(sessionRepo.findById(morning.getId()).orElseThrow());
+        assertMatchesBackfill();
+        assertEquals(1, snapshot().size());
+    }
+
+    @Test
+    void backfillDequeuesTheUser() {
+        em.persist(new DailyRollupBackfill(owner.getId()));
+        em.flush();
+        assertEquals(false, rollupService.isBackfilled(owner.getId()));
+
+        rollupService.backfill(owner.getId());
+
+        assertEquals(true, rollupService.isBackfilled(owner.getId()));
+    }
+
+    // ===== helpers =====
+
+    private void assertMatchesBackfill() {
+        em.flush();
+        em.clear();
+        Map<String, String> incremental = snapshot();
+
+        rollupService.backfill(owner.getId());
+        em.flush();
+        em.clear();
+
+        assertEquals(snapshot(), incremental);
+    }
+
+    private Map<String, String> snapshot() {
+        Map<String, String> rows = new TreeMap<>();
+        for (UserDailyExerciseRollup row : rollupRepo.findAll()) {
+            LocalDate day = row.getId().getLocalDate();
+            rows.put(day + "/" + row.getId().getExerciseId(), "volume=" + row.getVolume() + " sets=" + row.getSetsCount()
+                    + " reps=" + row.getRepsTotal() + " max=" + row.getMaxWeight());
+        }
+        return rows;
+    }
+
+    private static CreateWorkoutSetRequest set(Exercise exercise, int setNumber, int reps, double weight) {
+        CreateWorkoutSetRequest body = new CreateWorkoutSetRequest();
+        body.exerciseId = exercise.getId();
+        body.setNumber = setNumber;
+        body.reps = reps;
+        body.weight = weight;
+        return body;
+    }
+}
@@ -0,0 +1,181 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.repository.ExerciseRepository;
+import com.sgt.fitapi.repository.ExerciseSpecs;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Checks the in-memory catalogue against the ExerciseSpecs queries it replaces (embedded H2).
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ExerciseCatalogTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ExerciseRepository repo;
+
+    private ExerciseCatalog catalog;
+
+    @BeforeEach
+    void seed() {
+        em.persist(new Exercise("Barbell Bench Press", "Chest", "Barbell", false, "COMPOUND"));
+        em.persist(new Exercise("Incline Dumbbell Press", "Chest", "Dumbbells", false, "COMPOUND"));
+        em.persist(new Exercise("Push-Up", "Chest", "Bodyweight", false, "COMPOUND"));
+        em.persist(new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND"));
+        em.persist(new Exercise("Overhead Press", "Shoulders", "Barbell", false, "COMPOUND"));
+        em.persist(new Exercise("Lateral Raise", "Shoulders", "Dumbbells", false, "ISOLATION"));
+        em.persist(new Exercise("Plank", "Core", "Bodyweight", true, "ISOMETRIC"));
+        em.persist(new Exercise("Wall Sit", null, null, true, "ISOMETRIC"));
+        em.flush();
+
+        catalog = new ExerciseCatalog(repo, Duration.ZERO);
+    }
+
+    @Test
+    void searchMatchesSpecifications() {
+        String[] names = {null, "", " ", "p", "PR", "press", "ess", "bench press", "Push-", "xyz"};
+        String[] groups = {null, "chest", "SHOULDERS", "legs"};
+        String[] equipment = {null, "barbell", "Dumbbells"};
+        Boolean[] isometric = {null, true, false};
+
+        for (String name : names) {
+            for (String group : groups) {
+                for (String eq : equipment) {
+                    for (Boolean iso : isometric) {
+                        List<Long> expected = ids(repo.findAll(Specification.allOf(
+                                ExerciseSpecs.nameContains(name),
+                                ExerciseSpecs.muscleGroupEquals(group),
+                                ExerciseSpecs.equipmentEquals(eq),
+                                ExerciseSpecs.isIsometricEquals(iso)
+                        ), Sort.by("id")));
+
+                        List<Long> actual = ids(catalog.search(name, group, eq, iso));
+
+                        assertEquals(expected, actual, () -> "search=" + name + " muscleGroup=" + group
+                                + " equipment=" + eq + " isIsometric=" + iso);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void findByIdServesFromSnapshotAndReloadsWhenStale() {
+        Long id = repo.findAll(Sort.by("id")).get(0).getId();
+        assertTrue(catalog.findById(id).isPresent());
+        assertFalse(catalog.findById(-1L).isPresent());
+
+        Exercise added = new Exercise("Farmer Carry", "Grip", "Dumbbells", false, "CARRY");
+        em.persist(added);
+        em.flush();
+
+        assertFalse(catalog.findById(added.getId()).isPresent());
+        catalog.markStale();
+        assertEquals("Farmer Carry", catalog.findById(added.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void readersKeepTheOldSnapshotWhileOneThreadReloads() throws Exception {
+        ExerciseRepository slowRepo = mock(ExerciseRepository.class);
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Exercise plank = exercise(1L, "Plank");
+        Exercise carry = exercise(2L, "Farmer Carry");
+        when(slowRepo.findAll(any(Sort.class)))
+                .thenReturn(List.of(plank))
+                .thenAnswer(inv -> {
+                    reloading.countDown();
+                    release.await();
+                    return List.of(plank, carry);
+                });
+
+        AtomicLong now = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(inv -> now.get());
+        ExerciseCatalog slowCatalog = new ExerciseCatalog(slowRepo, Duration.ofMinutes(10), clock);
+        slowCatalog.load();
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Exercise>> refreshed = refresher.submit(() -> slowCatalog.findById(2L));
+            assertTrue(reloading.await(5, TimeUnit.SECONDS));
+
+            // Served straight from the previous snapshot instead of queueing behind the reload
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertEquals("Plank", slowCatalog.findById(1L).orElseThrow().getName());
+                assertFalse(slowCatalog.findById(2L).isPresent());
+            });
+
+            release.countDown();
+            assertEquals("Farmer Carry", refreshed.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+            assertTrue(slowCatalog.findById(2L).isPresent());
+            verify(slowRepo, times(2)).findAll(any(Sort.class));
+        } finally {
+            release.countDown();
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    void similaritySearchToleratesTyposAndRanksClosestFirst() {
+        assertEquals("Lateral Raise", catalog.searchBySimilarity("latteral rase", null, null, null, 10).get(0).getName());
+        assertEquals("Barbell Bench Press", catalog.searchBySimilarity("bench pres", null, null, null, 10).get(0).getName());
+
+        List<Exercise> presses = catalog.searchBySimilarity("press", "chest", null, null, 10);
+        assertEquals(List.of("Barbell Bench Press", "Incline Dumbbell Press"),
+                presses.stream().map(Exercise::getName).sorted().toList());
+
+        assertEquals(1, catalog.searchBySimilarity("press", null, null, null, 1).size());
+        assertTrue(catalog.searchBySimilarity("deadlift", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void wordTrigramsFollowPgTrgm() {
+        assertEquals(Set.of("  p", " pu", "pus", "ush", "sh ", "  u", " up", "up "),
+                ExerciseCatalog.wordTrigrams("push-up"));
+    }
+
+    private static Exercise exercise(Long id, String name) {
+        Exercise exercise = new Exercise(name, null, null, false, null);
+        ReflectionTestUtils.setField(exercise, "id", id);
+        return exercise;
+    }
+
+    private static List<Long> ids(List<Exercise> exercises) {
+        return exercises.stream().map(Exercise::getId).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.analytics.ProgressPointView;
+import com.sgt.fitapi.dto.analytics.ProgressSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExerciseProgressServiceTest {
+
+    @Test
+    void setsAreFoldedPerSessionAndFilteredOnLocalDate() {
+        List<ProgressSet> sets = List.of(
+                // 2025-03-01 in Tokyo, 2025-02-28 in UTC
+                new ProgressSet(1L, Instant.parse("2025-02-28T20:00:00Z"), "Asia/Tokyo", 100.0, 5),
+                new ProgressSet(1L, Instant.parse("2025-02-28T20:00:00Z"), "Asia/Tokyo", 120.0, 2),
+                new ProgressSet(1L, Instant.parse("2025-02-28T20:00:00Z"), "Asia/Tokyo", 120.0, 3),
+                new ProgressSet(2L, Instant.parse("2025-03-01T09:00:00Z"), "UTC", 60.0, 10),
+                new ProgressSet(3L, Instant.parse("2025-02-28T09:00:00Z"), "UTC", 200.0, 1));
+
+        List<ProgressPointView> points = ExerciseProgressService.perSession(sets,
+                LocalDate.parse("2025-03-01"), LocalDate.parse("2025-03-01"), OneRepMaxFormula.EPLEY);
+
+        assertEquals(2, points.size());
+        ProgressPointView tokyo = points.get(0);
+        assertEquals(LocalDate.parse("2025-03-01"), tokyo.localDate);
+        assertEquals(120.0, tokyo.topSetWeight);
+        assertEquals(3, tokyo.topSetReps);
+        assertEquals(3, tokyo.setsCount);
+        assertEquals(500.0 + 240.0 + 360.0, tokyo.volume, 0.001);
+        assertEquals(132.0, tokyo.estimatedOneRepMax, 0.001);
+        assertEquals(80.0, points.get(1).estimatedOneRepMax, 0.001);
+    }
+
+    @Test
+    void downsamplingKeepsTheEndsAndThePeaks() {
+        List<ProgressPointView> points = new ArrayList<>();
+        Instant start = Instant.parse("2020-01-01T10:00:00Z");
+        for (int i = 0; i < 1_000; i++) {
+            ProgressPointView point = new ProgressPointView();
+            point.sessionId = (long) i;
+            point.startedAt = start.plus(i, ChronoUnit.DAYS).atOffset(ZoneOffset.UTC);
+            // Slow climb with one outlier day
+            point.estimatedOneRepMax = i == 437 ? 400.0 : 100.0 + i * 0.05;
+            points.add(point);
+        }
+
+        List<ProgressPointView> kept = ExerciseProgressService.downsample(points, 50);
+
+        assertEquals(50, kept.size());
+        assertSame(points.get(0), kept.get(0));
+        assertSame(points.get(999), kept.get(49));
+        assertTrue(kept.contains(points.get(437)));
+        for (int i = 1; i < kept.size(); i++) {
+            assertTrue(kept.get(i).sessionId > kept.get(i - 1).sessionId);
+        }
+
+        // Short series come back untouched
+        assertSame(points, ExerciseProgressService.downsample(points, 1_000));
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.largestTriangleThreeBuckets(
+                new double[]{0, 1, 2}, new double[]{5, 1, 5}, 3));
+    }
+}
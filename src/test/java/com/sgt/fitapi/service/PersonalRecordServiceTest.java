@@ -0,0 +1,222 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.records.ExerciseRecordsView;
+import com.sgt.fitapi.dto.records.PersonalRecordView;
+import com.sgt.fitapi.dto.records.RecordSetView;
+import com.sgt.fitapi.dto.workout.CreateWorkoutSetRequest;
+import com.sgt.fitapi.model.*;
+import com.sgt.fitapi.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PersonalRecordServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WorkoutSessionRepository sessionRepo;
+
+    @Autowired
+    private WorkoutSetRepository setRepo;
+
+    @Autowired
+    private ExerciseRepository exerciseRepo;
+
+    @Autowired
+    private PersonalRecordRepository recordRepo;
+
+    @Autowired
+    private PersonalRepRecordRepository repRecordRepo;
+
+    @Autowired
+    private PersonalRecordBackfillRepository backfillRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private ExerciseCatalog catalog;
+    private PersonalRecordService recordService;
+    private WorkoutWriteService writeService;
+    private User owner;
+    private Exercise squat;
+    private Exercise bench;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        em.persist(owner);
+        squat = new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND");
+        bench = new Exercise("Barbell Bench Press", "Chest", "Barbell", false, "COMPOUND");
+        em.persist(squat);
+        em.persist(bench);
+        em.flush();
+
+        catalog = new ExerciseCatalog(exerciseRepo, Duration.ZERO);
+        catalog.load();
+        recordService = service(OneRepMaxFormula.EPLEY);
+        // Summaries and rollups have their own tests
+        writeService = new WorkoutWriteService(sessionRepo, setRepo, mock(WorkoutSummaryService.class),
+                mock(DailyRollupService.class), recordService);
+    }
+
+    @Test
+    void incrementalMaintenanceMatchesABackfillAfterEveryKindOfWrite() {
+        WorkoutSession first = writeService.createSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-01T08:00:00Z"), "UTC", null));
+        WorkoutSession second = writeService.createSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-08T08:00:00Z"), "UTC", null));
+
+        List<WorkoutSet> firstSets = writeService.addSets(first, Map.of(squat.getId(), squat, bench.getId(), bench), List.of(
+                set(squat, 1, 5, 100.0), set(squat, 2, 3, 120.0), set(bench, 3, 8, 60.0)));
+        WorkoutSet firstHeavy = firstSets.get(1);
+        WorkoutSet tie = writeService.addSet(second, squat, set(squat, 1, 3, 120.0));
+        writeService.addSet(second, squat, set(squat, 2, 5, 110.0));
+        assertMatchesBackfill();
+
+        // Same weight and reps a week later: the first set keeps both records
+        ExerciseRecordsView records = recordService.exerciseRecords(owner.getId(), squat.getId());
+        assertEquals(firstHeavy.getId(), records.heaviest.setId);
+        assertEquals(firstHeavy.getId(), records.bestEstimatedOneRepMax.setId);
+        assertEquals(132.0, records.bestEstimatedOneRepMax.estimate, 0.001);
+        assertEquals("100.0x5 110.0x5 120.0x3", reps(records.repRecords));
+
+        // Deleting a set that holds records recomputes the exercise
+        writeService.deleteSet(firstHeavy);
+        assertMatchesBackfill();
+        assertEquals(tie.getId(), recordService.exerciseRecords(owner.getId(), squat.getId()).heaviest.setId);
+
+        // Moving the first session after the second re-dates the records its sets hold
+        first = sessionRepo.findById(first.getId()).orElseThrow();
+        Instant startedAt = first.getStartedAt();
+        first.setStartedAt(Instant.parse("2025-03-15T08:00:00Z"));
+        writeService.updateSession(first, startedAt, "UTC");
+        assertMatchesBackfill();
+
+        // A later tie doesn't take over
+        WorkoutSet lateTie = writeService.addSet(first, squat, set(squat, 4, 3, 120.0));
+        assertMatchesBackfill();
+        assertEquals(tie.getId(), recordService.exerciseRecords(owner.getId(), squat.getId()).heaviest.setId);
+
+        // Loaded (managed) the way the controller hands it over
+        writeService.deleteSession(sessionRepo.findById(second.getId()).orElseThrow());
+        assertMatchesBackfill();
+        records = recordService.exerciseRecords(owner.getId(), squat.getId());
+        assertEquals(lateTie.getId(), records.heaviest.setId);
+        assertEquals("100.0x5 120.0x3", reps(records.repRecords));
+    }
+
+    @Test
+    void usersAwaitingBackfillAreServedFromTheirSets() {
+        WorkoutSession session = new WorkoutSession(owner.getId(), Instant.parse("2025-03-01T08:00:00Z"), "UTC", null);
+        em.persist(session);
+        em.persist(new WorkoutSet(session, squat, 1, 5, 100.0));
+        em.persist(new WorkoutSet(session, squat, 2, 1, 125.0));
+        em.persist(new WorkoutSet(session, bench, 3, 8, 60.0));
+        em.persist(new PersonalRecordBackfill(owner.getId()));
+        em.flush();
+
+        String fromSets = describe(recordService.records(owner.getId()));
+        assertEquals("Back Squat heaviest=125.0x1 e1rm=125.0;Barbell Bench Press heaviest=60.0x8 e1rm=76.0;", fromSets);
+        String exerciseFromSets = reps(recordService.exerciseRecords(owner.getId(), squat.getId()).repRecords);
+
+        assertEquals(2, recordService.backfill(owner.getId()));
+        assertTrue(recordService.isBackfilled(owner.getId()));
+        assertEquals(fromSets, describe(recordService.records(owner.getId())));
+        assertEquals(exerciseFromSets, reps(recordService.exerciseRecords(owner.getId(), squat.getId()).repRecords));
+    }
+
+    @Test
+    void changingTheFormulaQueuesAndRebuildsEstimates() {
+        assertEquals(116.667, OneRepMaxFormula.EPLEY.estimate(100.0, 5), 0.001);
+        assertEquals(112.5, OneRepMaxFormula.BRZYCKI.estimate(100.0, 5), 0.001);
+        assertEquals(100.0, OneRepMaxFormula.BRZYCKI.estimate(100.0, 1), 0.001);
+        assertEquals(0.0, OneRepMaxFormula.EPLEY.estimate(100.0, 0), 0.001);
+
+        WorkoutSession session = writeService.createSession(new WorkoutSession(owner.getId(), Instant.parse("2025-03-01T08:00:00Z"), "UTC", null));
+        writeService.addSet(session, squat, set(squat, 1, 5, 100.0));
+        em.flush();
+        em.clear();
+
+        PersonalRecordService brzycki = service(OneRepMaxFormula.BRZYCKI);
+        assertEquals(1, brzycki.enqueueOtherFormula());
+        brzycki.backfill(owner.getId());
+
+        PersonalRecordView record = brzycki.records(owner.getId()).get(0);
+        assertEquals("brzycki", record.bestEstimatedOneRepMax.formula);
+        assertEquals(112.5, record.bestEstimatedOneRepMax.estimate, 0.001);
+    }
+
+    // ===== helpers =====
+
+    private PersonalRecordService service(OneRepMaxFormula formula) {
+        return new PersonalRecordService(recordRepo, repRecordRepo, backfillRepo, setRepo, userRepo, catalog, formula);
+    }
+
+    private void assertMatchesBackfill() {
+        em.flush();
+        em.clear();
+        Map<String, String> incremental = snapshot();
+
+        recordService.backfill(owner.getId());
+        em.flush();
+        em.clear();
+
+        assertEquals(snapshot(), incremental);
+    }
+
+    private Map<String, String> snapshot() {
+        Map<String, String> rows = new TreeMap<>();
+        for (PersonalRecord row : recordRepo.findAll()) {
+            rows.put(String.valueOf(row.getId().getExerciseId()),
+                    "heaviest=" + row.getHeaviestWeight() + "x" + row.getHeaviestWeightReps()
+                            + "#" + row.getHeaviestWeightSetId() + "@" + row.getHeaviestWeightAt()
+                            + " e1rm=" + row.getBestE1rm() + "/" + row.getFormula()
+                            + "#" + row.getBestE1rmSetId() + "@" + row.getBestE1rmAt());
+        }
+        for (PersonalRepRecord row : repRecordRepo.findAll()) {
+            rows.put(row.getId().getExerciseId() + "/" + row.getId().getWeight(),
+                    "reps=" + row.getReps() + "#" + row.getSetId() + "@" + row.getAchievedAt());
+        }
+        return rows;
+    }
+
+    private static String describe(List<PersonalRecordView> records) {
+        StringBuilder out = new StringBuilder();
+        for (PersonalRecordView record : records) {
+            out.append(record.exerciseName)
+                    .append(" heaviest=").append(record.heaviest.weight).append("x").append(record.heaviest.reps)
+                    .append(" e1rm=").append(record.bestEstimatedOneRepMax.estimate).append(";");
+        }
+        return out.toString();
+    }
+
+    private static String reps(List<RecordSetView> repRecords) {
+        return String.join(" ", repRecords.stream().map(rep -> rep.weight + "x" + rep.reps).toList());
+    }
+
+    private static CreateWorkoutSetRequest set(Exercise exercise, int setNumber, int reps, double weight) {
+        CreateWorkoutSetRequest body = new CreateWorkoutSetRequest();
+        body.exerciseId = exercise.getId();
+        body.setNumber = setNumber;
+        body.reps = reps;
+        body.weight = weight;
+        return body;
+    }
+}
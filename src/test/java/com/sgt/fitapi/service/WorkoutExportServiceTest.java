@@ -0,0 +1,123 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.User;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against embedded H2 with a Hibernate-generated schema; Flyway migrations are Postgres-specific.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class WorkoutExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private WorkoutExportService exportService;
+    private User owner;
+
+    @BeforeEach
+    void seed() {
+        owner = new User("owner@example.com", "hashed-password", "Owner");
+        User other = new User("other@example.com", "hashed-password", "Other");
+        em.persist(owner);
+        em.persist(other);
+
+        Exercise squat = new Exercise("Back Squat", "Quads", "Barbell", false, "COMPOUND");
+        em.persist(squat);
+
+        WorkoutSession legDay = new WorkoutSession(owner.getId(), Instant.parse("2025-01-15T10:00:00Z"), "UTC", "Legs, heavy");
+        WorkoutSession restDay = new WorkoutSession(owner.getId(), Instant.parse("2025-01-16T10:00:00Z"), "UTC", null);
+        WorkoutSession notMine = new WorkoutSession(other.getId(), Instant.parse("2025-01-15T12:00:00Z"), "UTC", null);
+        em.persist(legDay);
+        em.persist(restDay);
+        em.persist(notMine);
+
+        em.persist(new WorkoutSet(legDay, squat, 1, 5, 100.0));
+        em.persist(new WorkoutSet(legDay, squat, 2, 5, 105.0));
+        em.persist(new WorkoutSet(notMine, squat, 1, 3, 140.0));
+        em.flush();
+        em.clear();
+
+        // One session per page so the export has to follow the keyset cursor
+        exportService = new WorkoutExportService(dataSource, objectMapper, 1);
+    }
+
+    @Test
+    void ndjsonHasOneLinePerOwnedSessionWithNestedSets() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeNdjson(owner.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode legDay = objectMapper.readTree(lines[0]);
+        assertEquals("2025-01-15T10:00:00Z", legDay.get("startedAt").asText());
+        assertEquals("Legs, heavy", legDay.get("notes").asText());
+        assertEquals(2, legDay.get("sets").size());
+        assertEquals("Back Squat", legDay.get("sets").get(0).get("exerciseName").asText());
+        assertEquals(105.0, legDay.get("sets").get(1).get("weight").asDouble());
+        assertTrue(legDay.get("sets").get(0).get("rpe").isNull());
+
+        JsonNode restDay = objectMapper.readTree(lines[1]);
+        assertEquals(owner.getId(), restDay.get("userId").asLong());
+        assertEquals(0, restDay.get("sets").size());
+    }
+
+    @Test
+    void csvHasOneRowPerSetAndQuotesFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeCsv(owner.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("session_id,started_at"));
+        assertTrue(lines[1].contains(",\"Legs, heavy\","));
+        assertTrue(lines[1].endsWith(",Back Squat,1,5,100.0,,,"));
+        assertTrue(lines[3].endsWith(",UTC,,,,,,,,,,"));
+    }
+
+    @Test
+    void pagesResumeAfterSessionsThatShareAStartTime() throws Exception {
+        Instant sameStart = Instant.parse("2025-01-20T07:00:00Z");
+        WorkoutSession first = new WorkoutSession(owner.getId(), sameStart, "UTC", "am");
+        WorkoutSession second = new WorkoutSession(owner.getId(), sameStart, "UTC", "pm");
+        em.persist(first);
+        em.persist(second);
+        em.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeNdjson(owner.getId(), out);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertEquals(4, ids.size());
+        assertEquals(List.of(first.getId(), second.getId()), ids.subList(2, 4));
+    }
+}
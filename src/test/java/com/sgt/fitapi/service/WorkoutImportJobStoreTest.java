@@ -0,0 +1,104 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.WorkoutImportFailure;
+import com.sgt.fitapi.dto.workout.WorkoutImportStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The job store runs against embedded H2 with the real V11 migration applied
+@JdbcTest(properties = "spring.flyway.enabled=false")
+class WorkoutImportJobStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+    private static final Duration STALE_AFTER = Duration.ofMinutes(2);
+
+    @Autowired
+    private DataSource dataSource;
+
+    private WorkoutImportJobStore store;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V11__workout_import_jobs.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).update("DELETE FROM workout_import_jobs");
+        store = new WorkoutImportJobStore(dataSource);
+    }
+
+    @Test
+    void progressAndFailuresAreReadBackByTheOwnerOnly() {
+        WorkoutImportStatus status = running("job-1");
+        store.insert(7L, status, NOW);
+
+        status.linesRead = 120;
+        status.sessionsImported = 40;
+        status.setsImported = 200;
+        status.failureCount = 2;
+        store.update(status, List.of(new WorkoutImportFailure(3, "Set skipped: unknown exercise 99")), 0, NOW.plusSeconds(5));
+        store.update(status, List.of(new WorkoutImportFailure(9, "x".repeat(2_000))), 1, NOW.plusSeconds(10));
+
+        WorkoutImportStatus found = store.find("job-1", 7L, NOW.minus(STALE_AFTER)).orElseThrow();
+        assertEquals("RUNNING", found.state);
+        assertEquals(120, found.linesRead);
+        assertEquals(40, found.sessionsImported);
+        assertEquals(200, found.setsImported);
+        assertEquals(2, found.failureCount);
+        assertEquals(2, found.failures.size());
+        assertEquals(3, found.failures.get(0).line);
+        assertEquals(WorkoutImportJobStore.MAX_MESSAGE_LENGTH, found.failures.get(1).message.length());
+        assertEquals(NOW, found.startedAt.toInstant());
+
+        assertTrue(store.find("job-1", 8L, NOW.minus(STALE_AFTER)).isEmpty());
+    }
+
+    @Test
+    void aRunningJobWhoseHeartbeatStoppedIsReportedFailed() {
+        store.insert(7L, running("job-1"), NOW);
+
+        WorkoutImportStatus found = store.find("job-1", 7L, NOW.plus(STALE_AFTER)).orElseThrow();
+
+        assertEquals("FAILED", found.state);
+        assertEquals("Import interrupted", found.error);
+        assertEquals(NOW, found.finishedAt.toInstant());
+    }
+
+    @Test
+    void inactiveJobsAreDeletedWithTheirFailures() {
+        WorkoutImportStatus old = running("job-old");
+        store.insert(7L, old, NOW);
+        old.state = "COMPLETED";
+        old.finishedAt = NOW.atOffset(ZoneOffset.UTC);
+        store.update(old, List.of(new WorkoutImportFailure(1, "Session skipped")), 0, NOW);
+        store.insert(7L, running("job-new"), NOW.plus(Duration.ofHours(1)));
+
+        assertEquals(1, store.deleteInactiveSince(NOW.plus(Duration.ofMinutes(30))));
+
+        assertTrue(store.find("job-old", 7L, NOW).isEmpty());
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM workout_import_failures", Integer.class));
+        assertTrue(store.find("job-new", 7L, NOW).isPresent());
+    }
+
+    // ===== helpers =====
+
+    private static WorkoutImportStatus running(String jobId) {
+        WorkoutImportStatus status = new WorkoutImportStatus();
+        status.jobId = jobId;
+        status.format = "ndjson";
+        status.state = "RUNNING";
+        status.startedAt = NOW.atOffset(ZoneOffset.UTC);
+        return status;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sgt.fitapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sgt.fitapi.dto.workout.WorkoutImportSession;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkoutImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void ndjsonReportsBadLinesAndKeepsGoing() throws Exception {
+        String body = """
+                {"startedAt":"2025-01-15T10:00:00Z","timezone":"UTC","sets":[{"exerciseName":"Back Squat","setNumber":1,"reps":5,"weight":100.0}]}
+                {"startedAt": not json}
+
+                {"startedAt":"2025-01-16T10:00:00Z","timezone":"UTC"}
+                """;
+        RecordingSink sink = new RecordingSink();
+
+        WorkoutImportReader.readNdjson(new StringReader(body), objectMapper, sink);
+
+        assertEquals(2, sink.sessions.size());
+        assertEquals(List.of(1L, 4L), sink.lines);
+        assertEquals("Back Squat", sink.sessions.get(0).sets.get(0).exerciseName);
+        assertEquals(1L, sink.sessions.get(0).sets.get(0).line);
+        assertTrue(sink.sessions.get(1).sets.isEmpty());
+        assertEquals(List.of("2: Malformed JSON"), sink.failureKinds);
+        assertEquals(4, sink.linesRead);
+    }
+
+    @Test
+    void csvGroupsRowsBySessionAndHandlesQuotedFields() throws Exception {
+        String body = "session_id,started_at,ended_at,timezone,session_notes,set_id,exercise_id,exercise_name,set_number,reps,weight,rpe,rest_seconds,set_notes\r\n"
+                + "1,2025-01-15T10:00:00Z,,UTC,\"Legs, heavy\",10,1,Back Squat,1,5,100.0,,,\r\n"
+                + "1,2025-01-15T10:00:00Z,,UTC,\"Legs, heavy\",11,1,Back Squat,2,five,105.0,,,\r\n"
+                + "1,2025-01-15T10:00:00Z,,UTC,\"Legs, heavy\",12,1,Back Squat,3,5,110.0,,,\"felt \"\"easy\"\"\nnext time more\"\r\n"
+                + "2,yesterday,,UTC,,20,1,Back Squat,1,5,100.0,,,\r\n"
+                + "2,yesterday,,UTC,,21,1,Back Squat,2,5,100.0,,,\r\n"
+                + "3,2025-01-17T10:00:00Z,,UTC,,,,,,,,,,\r\n";
+        RecordingSink sink = new RecordingSink();
+
+        WorkoutImportReader.readCsv(new StringReader(body), sink);
+
+        assertEquals(2, sink.sessions.size());
+        WorkoutImportSession legDay = sink.sessions.get(0);
+        assertEquals("Legs, heavy", legDay.notes);
+        assertEquals(2, legDay.sets.size());
+        assertEquals("felt \"easy\"\nnext time more", legDay.sets.get(1).notes);
+        assertEquals(4L, legDay.sets.get(1).line);
+        assertTrue(sink.sessions.get(1).sets.isEmpty());
+        assertNull(sink.sessions.get(1).endedAt);
+
+        // Session 2 is reported once (its first row) and its remaining rows are skipped
+        assertEquals(List.of("3: Invalid reps", "6: Invalid started_at"), sink.failureKinds);
+        assertEquals(List.of(2L, 8L), sink.lines);
+        assertEquals(8, sink.linesRead);
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected() throws Exception {
+        RecordingSink sink = new RecordingSink();
+
+        WorkoutImportReader.readCsv(new StringReader("exercise_name,reps\nBack Squat,5\n"), sink);
+
+        assertTrue(sink.sessions.isEmpty());
+        assertEquals(List.of("1: Header must include started_at and timezone"), sink.failures);
+    }
+
+    private static final class RecordingSink implements WorkoutImportReader.Sink {
+        final List<WorkoutImportSession> sessions = new ArrayList<>();
+        final List<Long> lines = new ArrayList<>();
+        final List<String> failures = new ArrayList<>();
+        // Messages without the echoed value, e.g. "3: Invalid reps"
+        final List<String> failureKinds = new ArrayList<>();
+        int linesRead;
+
+        @Override
+        public void session(long line, WorkoutImportSession session) {
+            lines.add(line);
+            sessions.add(session);
+        }
+
+        @Override
+        public void failure(long line, String message) {
+            failures.add(line + ": " + message);
+            failureKinds.add(line + ": " + message.split(":")[0]);
+        }
+
+        @Override
+        public void lineRead() {
+            linesRead++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.WorkoutImportStatus;
+import com.sgt.fitapi.model.WorkoutSession;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkoutImportServiceTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private WorkoutImportService service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void uploadReturnsWhenThePersisterStopsWithTheQueueFull() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        WorkoutWriteService writeService = mock(WorkoutWriteService.class);
+        AtomicReference<Thread> uploader = new AtomicReference<>();
+
+        // The first write waits until the upload is blocked on a full queue, then the persister is interrupted
+        when(writeService.createSession(any())).thenAnswer(invocation -> {
+            while (uploader.get().getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(10);
+            }
+            Thread.currentThread().interrupt();
+            return invocation.getArgument(0, WorkoutSession.class);
+        });
+        service = new WorkoutImportService(writeService, mock(ExerciseCatalog.class), mock(WorkoutImportJobStore.class),
+                validator, Jackson2ObjectMapperBuilder.json().build(), transactionManager, 1);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < WorkoutImportService.QUEUE_CAPACITY * 3; i++) {
+            body.append("{\"startedAt\":\"2025-01-15T10:00:00Z\",\"timezone\":\"UTC\"}\n");
+        }
+
+        WorkoutImportStatus status = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            uploader.set(Thread.currentThread());
+            return service.importHistory(7L, "ndjson",
+                    new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+        });
+
+        assertEquals("FAILED", status.state);
+        assertEquals("Import interrupted", status.error);
+    }
+
+    @Test
+    void turnsAnUploadAwayBeforeReadingItWhenEveryPersisterIsBusy() throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        WorkoutWriteService writeService = mock(WorkoutWriteService.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(writeService.createSession(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.getArgument(0, WorkoutSession.class);
+        });
+        service = new WorkoutImportService(writeService, mock(ExerciseCatalog.class), mock(WorkoutImportJobStore.class),
+                validator, Jackson2ObjectMapperBuilder.json().build(), transactionManager, 1);
+
+        byte[] session = "{\"startedAt\":\"2025-01-15T10:00:00Z\",\"timezone\":\"UTC\"}\n".getBytes(StandardCharsets.UTF_8);
+        Thread first = new Thread(() -> service.importHistory(7L, "ndjson", new ByteArrayInputStream(session)));
+        first.start();
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        InputStream second = mock(InputStream.class);
+        try {
+            assertThrows(RejectedExecutionException.class, () -> service.importHistory(8L, "ndjson", second));
+            verifyNoInteractions(second);
+        } finally {
+            release.countDown();
+            first.join(10_000);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.sgt.fitapi.service;
 
+import com.sgt.fitapi.dto.workout.ExerciseVolumeView;
+import com.sgt.fitapi.model.Exercise;
 import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSessionExerciseSummary;
+import com.sgt.fitapi.model.WorkoutSessionSummary;
 import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.WorkoutSessionExerciseSummaryRepository;
 import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSessionSummaryRepository;
 import com.sgt.fitapi.repository.WorkoutSetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.server.ResponseStatusException;
@@ -16,7 +23,11 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +39,20 @@ class WorkoutSummaryServiceTest {
     @Mock
     private WorkoutSetRepository setRepo;
 
-    @InjectMocks
+    @Mock
+    private WorkoutSessionSummaryRepository summaryRepo;
+
+    @Mock
+    private WorkoutSessionExerciseSummaryRepository exerciseSummaryRepo;
+
     private WorkoutSummaryService service;
 
+    @BeforeEach
+    void setUp() {
+        service = new WorkoutSummaryService(sessionRepo, setRepo, summaryRepo, exerciseSummaryRepo,
+                new SimpleMeterRegistry());
+    }
+
     @Test
     void calculateSummaryEnforcesOwnership() {
         when(sessionRepo.findByIdAndUserId(anyLong(), org.mockito.ArgumentMatchers.anyLong()))
@@ -45,34 +67,135 @@ class WorkoutSummaryServiceTest {
         WorkoutSession session = new WorkoutSession();
         session.setUserId(1L);
 
-        var exercise = new com.sgt.fitapi.model.Exercise();
-        java.lang.reflect.Field idField;
-        try {
-            idField = com.sgt.fitapi.model.Exercise.class.getDeclaredField("id");
-            idField.setAccessible(true);
-            idField.set(exercise, 1L);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        exercise.setName("Bench Press");
+        when(sessionRepo.findByIdAndUserId(10L, 1L)).thenReturn(Optional.of(session));
+        when(setRepo.sumVolumeByExercise(10L)).thenReturn(List.of(
+                new ExerciseVolumeView(1L, "Bench Press", 5 * 100.0 + 10 * 50.0, 2L)
+        ));
+        when(setRepo.countByWorkoutSessionId(10L)).thenReturn(2L);
 
-        WorkoutSet set1 = new WorkoutSet();
-        set1.setWorkoutSession(session);
-        set1.setReps(5);
-        set1.setWeight(100.0);
-        set1.setExercise(exercise);
+        var summary = service.calculateSummary(10L, 1L);
+        assertEquals(5 * 100.0 + 10 * 50.0, summary.totalVolume, 0.001);
+        assertEquals(2, summary.setsCount);
+        assertEquals(1, summary.uniqueExercises);
+        // Reads never create the summary row
+        verify(summaryRepo, never()).save(any());
+        verify(exerciseSummaryRepo, never()).save(any());
+    }
 
-        WorkoutSet set2 = new WorkoutSet();
-        set2.setWorkoutSession(session);
-        set2.setReps(10);
-        set2.setWeight(50.0);
-        set2.setExercise(exercise);
+    @Test
+    void calculateSummaryCountsSetsExcludedFromVolume() {
+        WorkoutSession session = new WorkoutSession();
+        session.setUserId(1L);
 
+        // The aggregate query skips sets without reps/weight, but they still count as sets
         when(sessionRepo.findByIdAndUserId(10L, 1L)).thenReturn(Optional.of(session));
-        when(setRepo.findByWorkoutSessionId(10L)).thenReturn(List.of(set1, set2));
+        when(setRepo.sumVolumeByExercise(10L)).thenReturn(List.of(
+                new ExerciseVolumeView(1L, "Bench Press", 500.0, 1L),
+                new ExerciseVolumeView(2L, "Back Squat", 800.0, 1L)
+        ));
+        when(setRepo.countByWorkoutSessionId(10L)).thenReturn(3L);
 
         var summary = service.calculateSummary(10L, 1L);
-        assertEquals(5 * 100.0 + 10 * 50.0, summary.totalVolume, 0.001);
-        assertEquals(2, summary.setsCount);
+        assertEquals(1300.0, summary.totalVolume, 0.001);
+        assertEquals(3, summary.setsCount);
+        assertEquals(2, summary.uniqueExercises);
+        assertEquals(2, summary.exerciseBreakdown.size());
+    }
+
+    @Test
+    void calculateSummaryReadsMaterialisedSummary() {
+        WorkoutSession session = new WorkoutSession();
+        session.setUserId(1L);
+
+        WorkoutSessionSummary stored = new WorkoutSessionSummary(10L);
+        stored.setTotalVolume(1300.0);
+        stored.setSetsCount(3);
+
+        when(sessionRepo.findByIdAndUserId(10L, 1L)).thenReturn(Optional.of(session));
+        when(summaryRepo.findById(10L)).thenReturn(Optional.of(stored));
+        when(exerciseSummaryRepo.findBreakdown(10L)).thenReturn(List.of(
+                new ExerciseVolumeView(1L, "Bench Press", 500.0, 1L),
+                new ExerciseVolumeView(2L, "Back Squat", 800.0, 2L)
+        ));
+
+        var summary = service.calculateSummary(10L, 1L);
+        assertEquals(1300.0, summary.totalVolume, 0.001);
+        assertEquals(3, summary.setsCount);
+        assertEquals(2, summary.uniqueExercises);
+        verify(setRepo, never()).sumVolumeByExercise(anyLong());
+    }
+
+    @Test
+    void recordSetsAddedAppliesDeltaToStoredSummary() {
+        WorkoutSessionSummary stored = new WorkoutSessionSummary(10L);
+        stored.setTotalVolume(500.0);
+        stored.setSetsCount(1);
+
+        WorkoutSessionExerciseSummary bench = new WorkoutSessionExerciseSummary(10L, 1L);
+        bench.setVolume(500.0);
+        bench.setSetsCount(1);
+
+        when(summaryRepo.findForUpdate(10L)).thenReturn(Optional.of(stored));
+        when(exerciseSummaryRepo.findAllById(any())).thenReturn(List.of(bench));
+
+        service.recordSetsAdded(10L, List.of(
+                set(exercise(1L, "Bench Press"), 5, 100.0),
+                set(exercise(2L, "Back Squat"), 10, 50.0)
+        ));
+
+        assertEquals(1500.0, stored.getTotalVolume(), 0.001);
+        assertEquals(3, stored.getSetsCount());
+        assertEquals(1000.0, bench.getVolume(), 0.001);
+        assertEquals(2, bench.getSetsCount());
+        verify(exerciseSummaryRepo).save(argThat(row ->
+                row.getId().getExerciseId().equals(2L) && row.getVolume() == 500.0 && row.getSetsCount() == 1));
+    }
+
+    @Test
+    void recordSetsRemovedRecomputesFromRemainingSets() {
+        WorkoutSessionSummary stored = new WorkoutSessionSummary(10L);
+        stored.setTotalVolume(1300.0000000001);
+        stored.setSetsCount(2);
+
+        WorkoutSessionExerciseSummary bench = new WorkoutSessionExerciseSummary(10L, 1L);
+        bench.setVolume(500.0);
+        bench.setSetsCount(1);
+        WorkoutSessionExerciseSummary squat = new WorkoutSessionExerciseSummary(10L, 2L);
+        squat.setVolume(800.0000000001);
+        squat.setSetsCount(1);
+
+        when(summaryRepo.findForUpdate(10L)).thenReturn(Optional.of(stored));
+        when(setRepo.sumVolumeByExercise(10L)).thenReturn(List.of(new ExerciseVolumeView(2L, "Back Squat", 800.0, 1L)));
+        when(setRepo.countByWorkoutSessionId(10L)).thenReturn(1L);
+        when(exerciseSummaryRepo.findByIdWorkoutSessionId(10L)).thenReturn(List.of(bench, squat));
+
+        service.recordSetsRemoved(10L, List.of(set(exercise(1L, "Bench Press"), 5, 100.0)));
+
+        assertEquals(800.0, stored.getTotalVolume());
+        assertEquals(1, stored.getSetsCount());
+        assertEquals(800.0, squat.getVolume());
+        verify(exerciseSummaryRepo).save(squat);
+        verify(exerciseSummaryRepo).deleteAll(argThat(rows -> rows.iterator().next() == bench));
+    }
+
+    private static Exercise exercise(Long id, String name) {
+        Exercise exercise = new Exercise();
+        try {
+            java.lang.reflect.Field idField = Exercise.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(exercise, id);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        exercise.setName(name);
+        return exercise;
+    }
+
+    private static WorkoutSet set(Exercise exercise, int reps, double weight) {
+        WorkoutSet set = new WorkoutSet();
+        set.setExercise(exercise);
+        set.setReps(reps);
+        set.setWeight(weight);
+        return set;
     }
 }
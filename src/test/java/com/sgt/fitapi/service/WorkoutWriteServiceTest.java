@@ -0,0 +1,92 @@
+package com.sgt.fitapi.service;
+
+import com.sgt.fitapi.dto.workout.CreateWorkoutSetRequest;
+import com.sgt.fitapi.model.Exercise;
+import com.sgt.fitapi.model.WorkoutSession;
+import com.sgt.fitapi.model.WorkoutSet;
+import com.sgt.fitapi.repository.WorkoutSessionRepository;
+import com.sgt.fitapi.repository.WorkoutSetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkoutWriteServiceTest {
+
+    @Mock
+    private WorkoutSessionRepository sessionRepo;
+
+    @Mock
+    private WorkoutSetRepository setRepo;
+
+    @Mock
+    private WorkoutSummaryService summaryService;
+
+    @Mock
+    private DailyRollupService rollupService;
+
+    @Mock
+    private PersonalRecordService recordService;
+
+    @InjectMocks
+    private WorkoutWriteService service;
+
+    @Test
+    void addSetsSavesOnceAndAppliesASingleSummaryDelta() {
+        WorkoutSession session = withId(new WorkoutSession(), 10L);
+        Exercise bench = withId(new Exercise(), 1L);
+        Exercise squat = withId(new Exercise(), 2L);
+
+        List<CreateWorkoutSetRequest> bodies = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            bodies.add(request(i % 2 == 0 ? 1L : 2L, i + 1));
+        }
+        when(setRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<WorkoutSet> saved = service.addSets(session, Map.of(1L, bench, 2L, squat), bodies);
+
+        assertEquals(30, saved.size());
+        assertSame(bench, saved.get(0).getExercise());
+        assertSame(squat, saved.get(1).getExercise());
+        assertEquals(30, saved.get(29).getSetNumber());
+        verify(setRepo, times(1)).saveAll(anyList());
+        verify(sessionRepo, times(1)).incrementVersion(10L);
+        verify(summaryService, times(1)).recordSetsAdded(eq(10L), eq(saved));
+        verify(rollupService, times(1)).recordSetsAdded(eq(session), eq(saved));
+        verify(recordService, times(1)).recordSetsAdded(eq(session), eq(saved));
+    }
+
+    private static CreateWorkoutSetRequest request(Long exerciseId, int setNumber) {
+        CreateWorkoutSetRequest body = new CreateWorkoutSetRequest();
+        body.exerciseId = exerciseId;
+        body.setNumber = setNumber;
+        body.reps = 5;
+        body.weight = 100.0;
+        return body;
+    }
+
+    private static <T> T withId(T entity, Long id) {
+        try {
+            java.lang.reflect.Field idField = entity.getClass().getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(entity, id);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return entity;
+    }
+}